@@ -19,7 +19,7 @@ public class Main {
         Board.Position position = new Board.Position(grid);
         System.out.println(position);
         System.out.println("White pieces:");
-        java.util.HashSet<Cell> pl = position.getPieceList(Color.WHITE);
+        PieceList pl = position.getPieceList(Color.WHITE);
         for (Cell cell : pl) {
             System.out.print("* " + cell + ": ");
             java.util.HashSet<Move> hs = position.getLegalMoves(cell);
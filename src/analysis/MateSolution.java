@@ -0,0 +1,102 @@
+package analysis;
+
+import board.Move;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of solving a mate-in-K problem with {@link MateSolver}: the shortest forced mate, the key moves (first
+ * moves of the attacker that force mate in at most K moves) and the effort spent.<br><br>
+ *
+ * A problem is sound if it has exactly one key move and no shorter solution. A problem with more than one key move is
+ * cooked.
+ */
+public class MateSolution {
+    private final int moves;
+    private final int shortestMate;
+    private final List<Move> keyMoves;
+    private final long nodes;
+    private final long nanos;
+
+    MateSolution(int moves, int shortestMate, List<Move> keyMoves, long nodes, long nanos) {
+        this.moves = moves;
+        this.shortestMate = shortestMate;
+        this.keyMoves = Collections.unmodifiableList(keyMoves);
+        this.nodes = nodes;
+        this.nanos = nanos;
+    }
+
+    /**
+     * @return the number K of moves of the attacker in the problem
+     */
+    public int getMoves() {
+        return moves;
+    }
+
+    /**
+     * @return the least number of moves in which the attacker forces mate, or {@code 0} if there is no mate in at most
+     * {@link #getMoves()} moves
+     */
+    public int getShortestMate() {
+        return shortestMate;
+    }
+
+    /**
+     * @return whether the attacker forces mate in at most {@link #getMoves()} moves
+     */
+    public boolean isMate() {
+        return shortestMate > 0;
+    }
+
+    /**
+     * @return all first moves of the attacker that force mate in at most {@link #getMoves()} moves
+     */
+    public List<Move> getKeyMoves() {
+        return keyMoves;
+    }
+
+    /**
+     * @return whether the problem has more than one key move
+     */
+    public boolean isCooked() {
+        return keyMoves.size() > 1;
+    }
+
+    /**
+     * @return whether the problem has exactly one key move and no mate in fewer than {@link #getMoves()} moves
+     */
+    public boolean isSound() {
+        return keyMoves.size() == 1 && shortestMate == moves;
+    }
+
+    /**
+     * @return the number of moves made on the board while solving
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return the time spent solving, in nanoseconds
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    @Override
+    public String toString() {
+        String result;
+        if (!isMate()) {
+            result = "no mate in " + moves;
+        } else {
+            result = "mate in " + shortestMate + ", key moves " + keyMoves;
+            if (isCooked()) {
+                result += " (cooked)";
+            } else if (shortestMate < moves) {
+                result += " (shorter solution)";
+            }
+        }
+        return result + String.format(", %d nodes, %.0f nodes/s", nodes, nodes * 1e9 / Math.max(1, nanos));
+    }
+}
@@ -0,0 +1,231 @@
+package analysis;
+
+import board.Board;
+import board.Board.Position;
+import board.Color;
+import board.Move;
+import board.MoveList;
+import board.PackedMove;
+import engine.Bound;
+import engine.TranspositionTable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Solves mate-in-K problems: finds whether the side to move (the attacker) forces checkmate in at most K of its own
+ * moves against any defence, and which first moves do so.<br><br>
+ *
+ * The search is a depth-first AND/OR search on a {@link Board} with packed moves. At the attacker's last move only
+ * checking moves are generated, straight from the cells that attack the enemy king and the pieces that can uncover a
+ * check (see {@link Position#generateChecks(Color, MoveList)}), since no other move can mate; optionally, all moves of
+ * the attacker can be restricted to checks, which solves "checking" problems and screens candidate positions much
+ * faster. The defender always tries all legal moves, except after the attacker's last move, where the solver only
+ * needs to know whether the defender has any legal move at all. Checks are tried first, and the length
+ * of the mate is deepened iteratively, so the shortest mate is found first and the shallower iterations fill the hash
+ * table with moves to try first and with positions already refuted.<br><br>
+ *
+ * The hash table stores bounds on the length of the mate from positions with the attacker to move: an {@link
+ * Bound#UPPER} entry with score {@code n} means that the attacker mates in at most {@code n} moves (with the stored
+ * move), and a {@link Bound#LOWER} entry with score {@code n} means that the attacker needs at least {@code n} moves.
+ * A table must therefore not be shared between solvers that differ in {@code checksOnly}. Otherwise, a table can be
+ * shared by the solvers of several threads; a solver itself is not thread-safe.
+ */
+public class MateSolver {
+    private final TranspositionTable table;
+    private final boolean checksOnly;
+
+    // Move lists indexed by ply
+    private MoveList[] lists = new MoveList[0];
+    private long nodes;
+
+    /**
+     * @param table the hash table
+     * @param checksOnly whether all moves of the attacker must give check
+     */
+    public MateSolver(TranspositionTable table, boolean checksOnly) {
+        this.table = table;
+        this.checksOnly = checksOnly;
+    }
+
+    /**
+     * Solves a mate-in-K problem.
+     *
+     * @param position a {@code Position}, with the attacker to move; it is not modified
+     * @param moves the number K of moves of the attacker
+     * @return the shortest mate and the key moves
+     */
+    public MateSolution solve(Position position, int moves) {
+        if (moves < 1) {
+            throw new IllegalArgumentException("number of moves must be positive, got " + moves);
+        }
+        long start = System.nanoTime();
+        if (lists.length < 2 * moves) {
+            lists = new MoveList[2 * moves];
+            for (int i = 0; i < lists.length; i++) {
+                lists[i] = new MoveList();
+            }
+        }
+        nodes = 0;
+        Board board = new Board(position.clone());
+        int shortest = 0;
+        for (int n = 1; n <= moves && shortest == 0; n++) {
+            if (attack(board, n, 0)) {
+                shortest = n;
+            }
+        }
+        List<Move> keyMoves = new ArrayList<>();
+        if (shortest > 0) {
+            MoveList list = generateAttacks(board.getPosition(), moves, 0);
+            for (int i = 0; i < list.size(); i++) {
+                int move = list.get(i);
+                board.makeMove(move);
+                nodes++;
+                if (defend(board, moves, 1)) {
+                    keyMoves.add(PackedMove.toMove(move));
+                }
+                board.unmakeMove();
+            }
+        }
+        return new MateSolution(moves, shortest, keyMoves, nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * Private method that determines whether the attacker, to move, forces mate in at most {@code n} moves.
+     */
+    private boolean attack(Board board, int n, int ply) {
+        Position position = board.getPosition();
+        long key = position.getKey();
+        long entry = table.probe(key);
+        int hashMove = PackedMove.NONE;
+        if (entry != TranspositionTable.MISS) {
+            Bound bound = TranspositionTable.getBound(entry);
+            int score = TranspositionTable.getScore(entry);
+            if (bound == Bound.UPPER && score <= n) {
+                return true;
+            }
+            if (bound == Bound.LOWER && score > n) {
+                return false;
+            }
+            hashMove = TranspositionTable.getMove(entry);
+        }
+        MoveList list = generateAttacks(position, n, ply);
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i) == hashMove) {
+                list.swap(0, i);
+                break;
+            }
+        }
+        for (int i = 0; i < list.size(); i++) {
+            int move = list.get(i);
+            board.makeMove(move);
+            nodes++;
+            boolean mates = defend(board, n, ply + 1);
+            board.unmakeMove();
+            if (mates) {
+                table.store(key, move, n, n, Bound.UPPER);
+                return true;
+            }
+        }
+        table.store(key, PackedMove.NONE, n + 1, n, Bound.LOWER);
+        return false;
+    }
+
+    /**
+     * Private method that determines whether every defence against the last move of the attacker allows mate in at
+     * most {@code n - 1} further moves of the attacker (or is no defence at all because the defender is mated).
+     */
+    private boolean defend(Board board, int n, int ply) {
+        Position position = board.getPosition();
+        Color defender = position.getSideToMove();
+        if (n == 1) {
+            // Only mate counts here, and it takes no list of defences to see that there is none
+            return !position.hasAnyLegalMove(defender) && position.isKingInCheck(defender);
+        }
+        MoveList list = lists[ply];
+        list.clear();
+        position.generateLegalMoves(defender, list);
+        if (list.isEmpty()) {
+            return position.isKingInCheck(defender);
+        }
+        for (int i = 0; i < list.size(); i++) {
+            board.makeMove(list.get(i));
+            nodes++;
+            boolean mates = attack(board, n - 1, ply + 1);
+            board.unmakeMove();
+            if (!mates) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Private method that generates the candidate moves of the attacker with {@code n} moves left: only checks if
+     * {@code n} is {@code 1} or if the solver is restricted to checks, otherwise all legal moves with the checks first.
+     */
+    private MoveList generateAttacks(Position position, int n, int ply) {
+        Color attacker = position.getSideToMove();
+        MoveList list = lists[ply];
+        list.clear();
+        if (n == 1 || checksOnly) {
+            position.generateChecks(attacker, list);
+        } else {
+            position.generateLegalMoves(attacker, list);
+            int checks = 0;
+            for (int i = 0; i < list.size(); i++) {
+                if (position.givesCheck(list.get(i))) {
+                    list.swap(checks++, i);
+                }
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Searches random positions of a given material for sound mate-in-K problems, and prints the ones found.<br><br>
+     *
+     * Usage: {@code MateSolver [material [moves [samples [seed [checksOnly]]]]]}, where {@code material} is written as
+     * in {@link Material#parse(String)}.
+     */
+    public static void main(String[] args) {
+        Material material = Material.parse(args.length > 0 ? args[0] : "KQRkr");
+        int moves = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        long samples = args.length > 2 ? Long.parseLong(args[2]) : 10_000;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 0;
+        boolean checksOnly = args.length > 4 && Boolean.parseBoolean(args[4]);
+
+        PositionSampler sampler = new PositionSampler(material, seed);
+        MateSolver solver = new MateSolver(new TranspositionTable(64), checksOnly);
+        SplittableRandom random = new SplittableRandom(seed);
+        Position position = new Position();
+        long candidates = 0;
+        long mates = 0;
+        long sound = 0;
+        long nodes = 0;
+        long start = System.nanoTime();
+        for (long i = 0; i < samples; i++) {
+            sampler.sample(position, random);
+            PositionClass positionClass = PositionClass.of(position);
+            if (positionClass != PositionClass.ORDINARY && positionClass != PositionClass.CHECK) {
+                continue;
+            }
+            candidates++;
+            MateSolution solution = solver.solve(position, moves);
+            nodes += solution.getNodes();
+            if (solution.isMate()) {
+                mates++;
+            }
+            if (solution.isSound()) {
+                sound++;
+                System.out.println(position);
+                System.out.println(position.getSideToMove() + " to move: " + solution);
+                System.out.println();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d candidates, %d with mate in at most %d, %d sound problems (%.0f positions/s, %.0f "
+                + "nodes/s)%n", candidates, mates, moves, sound, candidates / seconds, nodes / seconds);
+    }
+}
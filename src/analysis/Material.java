@@ -0,0 +1,98 @@
+package analysis;
+
+import board.Color;
+import pieces.PieceType;
+
+import static utils.Global.SIZE;
+
+/**
+ * A set of pieces to be placed on the board, e.g. by {@link PositionSampler}. Every side has exactly one king.<br><br>
+ *
+ * A material is written as a string of English piece letters, uppercase for white and lowercase for black, e.g.
+ * {@code "KQkr"} for king and queen against king and rook. The pieces are kept as a flat array, pawns first, so that
+ * they can be placed one after the other without any lookup, starting with the pieces restricted to fewer squares.
+ */
+public class Material {
+    public static final Material FULL = parse("KQRRBBNNPPPPPPPPkqrrbbnnpppppppp");
+
+    private final String letters;
+    private final int[][] counts = new int[Color.values().length][PieceType.values().length];
+    private final Color[] colors;
+    private final PieceType[] types;
+
+    private Material(String letters) {
+        this.letters = letters;
+        colors = new Color[letters.length()];
+        types = new PieceType[letters.length()];
+        int n = 0;
+        // Pawns first, then the other pieces in the order of the string
+        for (int pass = 0; pass < 2; pass++) {
+            for (char c : letters.toCharArray()) {
+                PieceType type = PieceType.of(c);
+                if ((type == PieceType.PAWN) == (pass == 0)) {
+                    colors[n] = Character.isUpperCase(c) ? Color.WHITE : Color.BLACK;
+                    types[n] = type;
+                    counts[colors[n].ordinal()][type.ordinal()]++;
+                    n++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Parses a material from a string of piece letters.
+     *
+     * @param letters English piece letters, uppercase for white and lowercase for black (e.g. {@code "KRPkr"})
+     * @return the material described by {@code letters}
+     * @throws IllegalArgumentException if {@code letters} contains an unknown letter, does not contain exactly one king
+     * of each color, or contains more pieces than there are squares
+     */
+    public static Material parse(String letters) {
+        Material material = new Material(letters);
+        if (material.getCount(Color.WHITE, PieceType.KING) != 1
+                || material.getCount(Color.BLACK, PieceType.KING) != 1) {
+            throw new IllegalArgumentException("material " + letters + " must contain exactly one king of each color");
+        }
+        if (material.size() > SIZE * SIZE) {
+            throw new IllegalArgumentException("material " + letters + " does not fit on the board");
+        }
+        return material;
+    }
+
+    /**
+     * @return the total number of pieces, kings included
+     */
+    public int size() {
+        return types.length;
+    }
+
+    /**
+     * @param color a {@code Color}
+     * @param type a {@code PieceType}
+     * @return the number of pieces of color {@code color} and type {@code type}
+     */
+    public int getCount(Color color, PieceType type) {
+        return counts[color.ordinal()][type.ordinal()];
+    }
+
+    /**
+     * @param i an index in the range {@code [0, size())}
+     * @return the color of the {@code i}-th piece
+     */
+    public Color getColor(int i) {
+        return colors[i];
+    }
+
+    /**
+     * @param i an index in the range {@code [0, size())}; the pawns have the lowest indices
+     * @return the type of the {@code i}-th piece
+     */
+    public PieceType getType(int i) {
+        return types[i];
+    }
+
+    @Override
+    public String toString() {
+        return letters;
+    }
+}
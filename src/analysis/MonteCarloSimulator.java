@@ -0,0 +1,144 @@
+package analysis;
+
+import board.Board;
+import board.Board.Position;
+import utils.Status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Estimates the expected outcome of a random chess game by playing many games between two random players on all
+ * cores.<br><br>
+ *
+ * Games are played in batches. After every batch the statistics are reported, and the simulation stops as soon as the
+ * confidence intervals of the proportions of wins, draws and losses are narrow enough. Every game draws its moves from
+ * its own generator, seeded with the seed of the simulation and the index of the game, so the results depend neither
+ * on the number of threads nor on the scheduling of the games, and a simulation with the same seed is reproducible.
+ * <br><br>
+ *
+ * Games are played with the {@link Playout} kernel, i.e. with the rules of {@link board.Game} (checkmate, stalemate,
+ * the 50-move rule, insufficient material and threefold repetition) and with moves chosen uniformly among the legal
+ * moves as by {@link player.RandomPlayer}, but without {@code Game} or {@code Move} objects: every worker reuses one
+ * board, no notation is recorded, and only aggregate counters are kept in memory.
+ */
+public class MonteCarloSimulator {
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private final int threads;
+    private final long seed;
+    private final int batchSize;
+
+    /**
+     * @param threads the number of threads playing games
+     * @param seed the seed of the simulation
+     * @param batchSize the number of games between two checks of the precision
+     */
+    public MonteCarloSimulator(int threads, long seed, int batchSize) {
+        if (threads < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("number of threads and batch size must be positive");
+        }
+        this.threads = threads;
+        this.seed = seed;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Creates a simulator using all available processors.
+     *
+     * @param seed the seed of the simulation
+     */
+    public MonteCarloSimulator(long seed) {
+        this(Runtime.getRuntime().availableProcessors(), seed, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Plays random games until either a given number of games is reached, or the greatest half-width of the 95%
+     * confidence intervals of the outcome proportions drops to a given precision.
+     *
+     * @param maxGames the maximal number of games
+     * @param precision the target half-width of the confidence intervals (e.g. {@code 0.001}), or {@code 0} to play
+     *                  all {@code maxGames} games
+     * @param progress called with a copy of the statistics after every batch, or {@code null}
+     * @return the statistics of all games played
+     */
+    public SimulationStatistics run(long maxGames, double precision, Consumer<SimulationStatistics> progress) {
+        SimulationStatistics total = new SimulationStatistics();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (long first = 0; first < maxGames; first += batchSize) {
+                long end = Math.min(first + batchSize, maxGames);
+                AtomicLong next = new AtomicLong(first);
+                List<Future<SimulationStatistics>> workers = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    workers.add(executor.submit(() -> {
+                        SimulationStatistics statistics = new SimulationStatistics();
+                        Board board = new Board(new Position());
+                        Playout playout = new Playout();
+                        for (long game = next.getAndIncrement(); game < end; game = next.getAndIncrement()) {
+                            Status result = playout.play(board, new SplittableRandom(mix(seed, game)));
+                            statistics.addGame(result, playout.getTermination(), playout.getPlies());
+                        }
+                        return statistics;
+                    }));
+                }
+                for (Future<SimulationStatistics> worker : workers) {
+                    total.add(worker.get());
+                }
+                if (progress != null) {
+                    progress.accept(total.copy());
+                }
+                if (precision > 0 && total.getMaxMarginOfError() <= precision) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("a simulated game failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return total;
+    }
+
+    /**
+     * Package-private method that derives the seed of a game from the seed of the simulation and the index of the game
+     * (it also seeds the chunks of {@link PositionSampler}). The result is scrambled (with the finalizer of
+     * MurmurHash3), so that the generators of consecutive games do not produce shifted copies of the same sequence.
+     */
+    static long mix(long seed, long index) {
+        long z = seed + index * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+
+    /**
+     * Usage: {@code MonteCarloSimulator [maxGames [precision [seed [threads]]]]}. Prints the statistics after every
+     * batch, and a histogram of game lengths at the end.
+     */
+    public static void main(String[] args) {
+        long maxGames = args.length > 0 ? Long.parseLong(args[0]) : 100_000;
+        double precision = args.length > 1 ? Double.parseDouble(args[1]) : 0.005;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 0;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        long start = System.nanoTime();
+        MonteCarloSimulator simulator = new MonteCarloSimulator(threads, seed, DEFAULT_BATCH_SIZE);
+        SimulationStatistics statistics = simulator.run(maxGames, precision, s -> System.out.println(s + String.format(
+                " (%.1f games/s)", s.getGames() * 1e9 / (System.nanoTime() - start))));
+        int binWidth = 50;
+        long[] histogram = statistics.getLengthHistogram(binWidth);
+        System.out.println("Game lengths (plies):");
+        for (int i = 0; i < histogram.length; i++) {
+            System.out.printf("  %4d-%4d: %d%n", i * binWidth, (i + 1) * binWidth - 1, histogram[i]);
+        }
+    }
+}
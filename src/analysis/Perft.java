@@ -0,0 +1,225 @@
+package analysis;
+
+import board.Board;
+import board.Board.Position;
+import board.Color;
+import board.Move;
+import board.MoveList;
+import board.PackedMove;
+import engine.TranspositionTable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Performance test ("perft") of the move generator: counts the leaf nodes of the game tree of a given depth, i.e. the
+ * number of legal move sequences of that length. Comparing the counts with known values is the standard way to
+ * validate a move generator, and the time taken measures its speed.<br><br>
+ *
+ * The tree is walked on one mutable {@code Board} per root move with {@link Board#makeMove(int)} and {@link
+ * Board#unmakeMove()}; the subtrees of the root moves are counted in parallel in a {@code ForkJoinPool}. Optionally,
+ * the counts of subtrees are shared through a {@link TranspositionTable}, so that transpositions are only counted
+ * once.
+ */
+public class Perft {
+    private final Position root;
+    private final TranspositionTable table;
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a perft of a given position, without hashing, using the common pool.
+     *
+     * @param root a {@code Position} (it is copied, so it is not modified)
+     */
+    public Perft(Position root) {
+        this(root, null, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a perft of a given position.
+     *
+     * @param root a {@code Position} (it is copied, so it is not modified)
+     * @param table the table for sharing the counts of subtrees, or {@code null} for no hashing
+     * @param pool the pool counting the subtrees of the root moves
+     */
+    public Perft(Position root, TranspositionTable table, ForkJoinPool pool) {
+        this.root = root.clone();
+        this.table = table;
+        this.pool = pool;
+    }
+
+    /**
+     * Counts the leaf nodes of the game tree of a given depth.
+     *
+     * @param depth a non-negative depth
+     * @return the number of leaf nodes
+     */
+    public long count(int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        long total = 0;
+        for (long nodes : divide(depth).values()) {
+            total += nodes;
+        }
+        return total;
+    }
+
+    /**
+     * Counts the leaf nodes of the game tree of a given depth separately for every root move. Useful for finding a
+     * bug in the move generator, by comparing the counts with the ones of another program.
+     *
+     * @param depth a positive depth
+     * @return the number of leaf nodes under each root move, in the order in which the moves are generated
+     */
+    public Map<Move, Long> divide(int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("depth must be positive, got " + depth);
+        }
+        MoveList moves = new MoveList();
+        root.generateLegalMoves(root.getSideToMove(), moves);
+        List<ForkJoinTask<Long>> tasks = new ArrayList<>();
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            tasks.add(pool.submit(() -> {
+                Walker walker = new Walker(root, depth);
+                walker.board.makeMove(move);
+                return walker.count(depth - 1, 1);
+            }));
+        }
+        Map<Move, Long> result = new LinkedHashMap<>();
+        for (int i = 0; i < moves.size(); i++) {
+            result.put(PackedMove.toMove(moves.get(i)), tasks.get(i).join());
+        }
+        return result;
+    }
+
+    /**
+     * Counts the leaf nodes of the game tree of a given depth, along with the numbers of captures, en passant
+     * captures, castlings, promotions, checks and checkmates among the last moves. Slower than {@link #count(int)},
+     * as every leaf move has to be made, and the table is not used.
+     *
+     * @param depth a positive depth
+     * @return the statistics of the leaf nodes
+     */
+    public PerftResult analyze(int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("depth must be positive, got " + depth);
+        }
+        MoveList moves = new MoveList();
+        root.generateLegalMoves(root.getSideToMove(), moves);
+        List<ForkJoinTask<PerftResult>> tasks = new ArrayList<>();
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            tasks.add(pool.submit(() -> {
+                Walker walker = new Walker(root, depth);
+                PerftResult result = new PerftResult();
+                if (depth == 1) {
+                    walker.addLeaf(move, result);
+                } else {
+                    walker.board.makeMove(move);
+                    walker.analyze(depth - 1, 1, result);
+                }
+                return result;
+            }));
+        }
+        PerftResult result = new PerftResult();
+        for (ForkJoinTask<PerftResult> task : tasks) {
+            result.add(task.join());
+        }
+        return result;
+    }
+
+    /**
+     * The state of the walk through one subtree: a private copy of the position and one move list per ply, so that
+     * walking does not allocate.
+     */
+    private class Walker {
+        private final Board board;
+        private final MoveList[] moves;
+
+        Walker(Position position, int depth) {
+            board = new Board(position.clone());
+            moves = new MoveList[depth + 1];
+            for (int i = 0; i <= depth; i++) {
+                moves[i] = new MoveList();
+            }
+        }
+
+        /**
+         * Counts the leaf nodes below the current position. The moves of the last ply are counted without being made.
+         */
+        long count(int depth, int ply) {
+            if (depth == 0) {
+                return 1;
+            }
+            Position position = board.getPosition();
+            long key = position.getKey();
+            if (table != null && depth > 1) {
+                long stored = table.probeCount(key, depth);
+                if (stored >= 0) {
+                    return stored;
+                }
+            }
+            MoveList list = moves[ply];
+            list.clear();
+            position.generateLegalMoves(position.getSideToMove(), list);
+            if (depth == 1) {
+                return list.size();
+            }
+            long nodes = 0;
+            for (int i = 0; i < list.size(); i++) {
+                board.makeMove(list.get(i));
+                nodes += count(depth - 1, ply + 1);
+                board.unmakeMove();
+            }
+            if (table != null) {
+                table.storeCount(key, depth, nodes);
+            }
+            return nodes;
+        }
+
+        /**
+         * Collects the statistics of the leaf nodes below the current position.
+         */
+        void analyze(int depth, int ply, PerftResult result) {
+            Position position = board.getPosition();
+            MoveList list = moves[ply];
+            list.clear();
+            position.generateLegalMoves(position.getSideToMove(), list);
+            for (int i = 0; i < list.size(); i++) {
+                if (depth == 1) {
+                    addLeaf(list.get(i), result);
+                } else {
+                    board.makeMove(list.get(i));
+                    analyze(depth - 1, ply + 1, result);
+                    board.unmakeMove();
+                }
+            }
+        }
+
+        /**
+         * Makes a leaf move to find out whether it gives check or checkmate, and adds its statistics.
+         */
+        void addLeaf(int move, PerftResult result) {
+            board.makeMove(move);
+            Position position = board.getPosition();
+            Color opponent = position.getSideToMove();
+            boolean check = position.isKingInCheck(opponent);
+            boolean checkmate = false;
+            if (check) {
+                MoveList replies = moves[moves.length - 1];
+                replies.clear();
+                position.generateLegalMoves(opponent, replies);
+                checkmate = replies.isEmpty();
+            }
+            board.unmakeMove();
+            result.addLeaf(PackedMove.isCapture(move), PackedMove.isEnPassant(move), PackedMove.isCastling(move),
+                    PackedMove.isPromotion(move), check, checkmate);
+        }
+    }
+}
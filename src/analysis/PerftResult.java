@@ -0,0 +1,78 @@
+package analysis;
+
+/**
+ * The statistics of a perft run: the number of leaf nodes of the game tree of a given depth, and how many of the moves
+ * leading to these nodes were captures, en passant captures, castlings, promotions, checks and checkmates.
+ *
+ * @see Perft#analyze(int)
+ */
+public class PerftResult {
+    private long nodes;
+    private long captures;
+    private long enPassants;
+    private long castles;
+    private long promotions;
+    private long checks;
+    private long checkmates;
+
+    /**
+     * Package-private method that adds the statistics of one leaf move.
+     */
+    void addLeaf(boolean capture, boolean enPassant, boolean castle, boolean promotion, boolean check,
+                 boolean checkmate) {
+        nodes++;
+        captures += capture ? 1 : 0;
+        enPassants += enPassant ? 1 : 0;
+        castles += castle ? 1 : 0;
+        promotions += promotion ? 1 : 0;
+        checks += check ? 1 : 0;
+        checkmates += checkmate ? 1 : 0;
+    }
+
+    /**
+     * Package-private method that adds the statistics of another result (e.g. of another subtree) to this one.
+     */
+    void add(PerftResult other) {
+        nodes += other.nodes;
+        captures += other.captures;
+        enPassants += other.enPassants;
+        castles += other.castles;
+        promotions += other.promotions;
+        checks += other.checks;
+        checkmates += other.checkmates;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getCaptures() {
+        return captures;
+    }
+
+    public long getEnPassants() {
+        return enPassants;
+    }
+
+    public long getCastles() {
+        return castles;
+    }
+
+    public long getPromotions() {
+        return promotions;
+    }
+
+    public long getChecks() {
+        return checks;
+    }
+
+    public long getCheckmates() {
+        return checkmates;
+    }
+
+    @Override
+    public String toString() {
+        return "nodes: " + nodes + ", captures: " + captures + ", e.p.: " + enPassants + ", castles: " + castles +
+                ", promotions: " + promotions + ", checks: " + checks + ", checkmates: " + checkmates;
+    }
+}
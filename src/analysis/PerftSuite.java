@@ -0,0 +1,55 @@
+package analysis;
+
+import engine.TranspositionTable;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Runs perft on all {@link ReferencePosition}s and compares the node counts with the known values. This serves both as
+ * a correctness test of the move generator and as a measure of its speed.<br><br>
+ *
+ * Usage: {@code PerftSuite [maxDepth [hashMegabytes]]}. The default maximal depth is 4, and no table is used by
+ * default. The process exits with status 1 if some count is wrong.
+ */
+public class PerftSuite {
+    private static final int DEFAULT_MAX_DEPTH = 4;
+
+    public static void main(String[] args) {
+        int maxDepth = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_MAX_DEPTH;
+        TranspositionTable table = args.length > 1 ? new TranspositionTable(Integer.parseInt(args[1])) : null;
+        boolean passed = true;
+        long totalNodes = 0;
+        long totalNanos = 0;
+        for (ReferencePosition reference : ReferencePosition.values()) {
+            System.out.println(reference);
+            Perft perft = new Perft(reference.getPosition(), table, ForkJoinPool.commonPool());
+            for (int depth = 1; depth <= Math.min(maxDepth, reference.getMaxDepth()); depth++) {
+                long start = System.nanoTime();
+                long nodes = perft.count(depth);
+                long nanos = System.nanoTime() - start;
+                long expected = reference.getExpectedNodes(depth);
+                passed &= nodes == expected;
+                totalNodes += nodes;
+                totalNanos += nanos;
+                System.out.printf("  depth %d: %12d %s %8d ms %12d nps%n", depth, nodes,
+                        nodes == expected ? "OK  " : "FAIL (expected " + expected + ")", nanos / 1_000_000,
+                        getNodesPerSecond(nodes, nanos));
+            }
+        }
+        System.out.printf("%s: %d nodes in %d ms, %d nps%n", passed ? "PASSED" : "FAILED", totalNodes,
+                totalNanos / 1_000_000, getNodesPerSecond(totalNodes, totalNanos));
+        if (table != null) {
+            System.out.println("Table: " + table);
+        }
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Private method that computes a speed in nodes per second.
+     */
+    private static long getNodesPerSecond(long nodes, long nanos) {
+        return nanos == 0 ? 0 : nodes * 1_000_000_000L / nanos;
+    }
+}
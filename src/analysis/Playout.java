@@ -0,0 +1,92 @@
+package analysis;
+
+import board.Board;
+import board.Board.Position;
+import board.Color;
+import board.MoveList;
+import utils.Status;
+import utils.Termination;
+
+import java.util.SplittableRandom;
+
+/**
+ * Plays random games ("playouts") as fast as possible: every move is drawn uniformly from the legal moves, which are
+ * generated in packed form into a reused {@link MoveList}, made with {@link Board#makeMove(int)}, and taken back with
+ * {@link Board#unmakeMove()} at the end of the game. A playout therefore does not allocate, and the board can be reused
+ * for any number of playouts.<br><br>
+ *
+ * The rules are the ones of {@link Position#getTerminationStatus()}: a game ends with checkmate, stalemate, after 100
+ * half-moves without a capture or a pawn move (counted by the position), when neither side can checkmate any more, or
+ * on threefold repetition. An instance is not thread-safe; every thread needs its own.
+ */
+public class Playout {
+    private static final int HALF_MOVES_UNTIL_DRAW = 100;
+
+    private final MoveList moves = new MoveList();
+    private Termination termination = null;
+    private int plies = 0;
+
+    /**
+     * Plays a random game from the current position of a board, and then takes back all moves of the game, so that
+     * the board is left as it was.
+     *
+     * @param board a {@code Board}; the side to move of its position makes the first move
+     * @param random the source of randomness
+     * @return the result of the game
+     */
+    public Status play(Board board, SplittableRandom random) {
+        Position position = board.getPosition();
+        Status result;
+        plies = 0;
+        while (true) {
+            Color turn = position.getSideToMove();
+            moves.clear();
+            position.generateLegalMoves(turn, moves);
+            if (moves.isEmpty()) {
+                if (position.isKingInCheck(turn)) {
+                    termination = Termination.CHECKMATE;
+                    result = turn == Color.WHITE ? Status.BLACK_WON : Status.WHITE_WON;
+                } else {
+                    termination = Termination.STALEMATE;
+                    result = Status.DRAW;
+                }
+                break;
+            }
+            if (position.getHalfMoveClock() >= HALF_MOVES_UNTIL_DRAW) {
+                termination = Termination.FIFTY_MOVE_RULE;
+                result = Status.DRAW;
+                break;
+            }
+            if (position.isInsufficientMaterial()) {
+                termination = Termination.INSUFFICIENT_MATERIAL;
+                result = Status.DRAW;
+                break;
+            }
+            if (position.getRepetitionCount() >= 2) {
+                termination = Termination.THREEFOLD_REPETITION;
+                result = Status.DRAW;
+                break;
+            }
+            board.makeMove(moves.get(random.nextInt(moves.size())));
+            plies++;
+        }
+        for (int i = 0; i < plies; i++) {
+            board.unmakeMove();
+        }
+        return result;
+    }
+
+    /**
+     * @return the reason why the last game ended, or {@code null} if no game was played
+     */
+    public Termination getTermination() {
+        return termination;
+    }
+
+    /**
+     * @return the number of half-moves of the last game
+     */
+    public int getPlies() {
+        return plies;
+    }
+}
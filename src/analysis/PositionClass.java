@@ -0,0 +1,51 @@
+package analysis;
+
+import board.Bitboards;
+import board.Board.Position;
+import board.Color;
+import pieces.PieceType;
+
+import static utils.Global.SIZE;
+
+/**
+ * The class of an arbitrary arrangement of pieces, as counted by {@link PositionSampler}. The classes are mutually
+ * exclusive: a position is either illegal, or legal and exactly one of {@link #ORDINARY}, {@link #CHECK},
+ * {@link #CHECKMATE} and {@link #STALEMATE}.
+ */
+public enum PositionClass {
+    // Not exactly one king per color, a pawn on the first or last row, or the side not to move in check
+    ILLEGAL,
+    // Legal, the side to move is not in check and has a legal move
+    ORDINARY,
+    // Legal, the side to move is in check and has a legal move
+    CHECK,
+    CHECKMATE,
+    STALEMATE;
+
+    private static final long BACK_ROWS = Bitboards.rowMask(0) | Bitboards.rowMask(SIZE - 1);
+
+    /**
+     * Classifies a position with the side to move of the position. Only the basic conditions of legality are checked:
+     * whether the position can actually be reached from the initial position is not determined.<br><br>
+     *
+     * Whether the side to move has a legal move is determined with {@link Position#hasAnyLegalMove(Color)}, which
+     * stops at the first one, so no move is generated.
+     *
+     * @param position a {@code Position}
+     * @return the class of {@code position}
+     */
+    public static PositionClass of(Position position) {
+        Color color = position.getSideToMove();
+        Color opponent = Color.getOppositeColor(color);
+        long pawns = position.getPieces(Color.WHITE, PieceType.PAWN) | position.getPieces(Color.BLACK, PieceType.PAWN);
+        if (position.getPieceCount(color, PieceType.KING) != 1 || position.getPieceCount(opponent, PieceType.KING) != 1
+                || (pawns & BACK_ROWS) != 0 || position.isKingInCheck(opponent)) {
+            return ILLEGAL;
+        }
+        boolean check = position.isKingInCheck(color);
+        if (!position.hasAnyLegalMove(color)) {
+            return check ? CHECKMATE : STALEMATE;
+        }
+        return check ? CHECK : ORDINARY;
+    }
+}
@@ -0,0 +1,174 @@
+package analysis;
+
+import board.Bitboards;
+import board.Board.Position;
+import board.Color;
+import pieces.PieceType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static utils.Global.SIZE;
+
+/**
+ * Estimates the probabilities that a random arrangement of a given {@link Material} is legal, a check, a checkmate or
+ * a stalemate (see {@link PositionClass}) by sampling positions on all cores.<br><br>
+ *
+ * Every sample places the pieces on distinct squares chosen uniformly at random (pawns may be kept off the first and
+ * last rows) and chooses the side to move at random. The pawns are placed first, so every valid arrangement of the
+ * material is equally likely even when the pawns are restricted. The pieces are placed directly into the bitboards of
+ * one reused {@code Position} per thread (see {@link Position#clear()} and {@link Position#place(int, Color,
+ * PieceType)}), so sampling does not allocate.<br><br>
+ *
+ * As with {@link MonteCarloSimulator}, samples are drawn in batches, statistics are reported after every batch, and
+ * sampling stops as soon as the confidence intervals are narrow enough. The samples are split into chunks with their
+ * own generators, seeded with the seed of the sampler and the index of the chunk, so the results do not depend on the
+ * number of threads.
+ */
+public class PositionSampler {
+    public static final int DEFAULT_BATCH_SIZE = 1 << 22;
+    // The number of consecutive samples drawn from the same generator
+    private static final int CHUNK_SIZE = 1 << 12;
+    // Without the first and last rows, the squares of pawns form the range [SIZE, SIZE * SIZE - SIZE)
+    private static final int PAWN_SQUARES = SIZE * SIZE - 2 * SIZE;
+
+    private final Material material;
+    private final boolean pawnsOnBackRows;
+    private final int threads;
+    private final long seed;
+    private final int batchSize;
+
+    /**
+     * @param material the pieces of every sampled position
+     * @param pawnsOnBackRows whether pawns may be placed on the first and last rows (such positions are illegal)
+     * @param threads the number of threads sampling positions
+     * @param seed the seed of the sampler
+     * @param batchSize the number of samples between two checks of the precision
+     */
+    public PositionSampler(Material material, boolean pawnsOnBackRows, int threads, long seed, int batchSize) {
+        if (threads < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("number of threads and batch size must be positive");
+        }
+        int pawns = material.getCount(Color.WHITE, PieceType.PAWN) + material.getCount(Color.BLACK, PieceType.PAWN);
+        if (!pawnsOnBackRows && pawns > PAWN_SQUARES) {
+            throw new IllegalArgumentException("the pawns of material " + material + " do not fit on the board");
+        }
+        this.material = material;
+        this.pawnsOnBackRows = pawnsOnBackRows;
+        this.threads = threads;
+        this.seed = seed;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Creates a sampler that keeps pawns off the first and last rows and uses all available processors.
+     *
+     * @param material the pieces of every sampled position
+     * @param seed the seed of the sampler
+     */
+    public PositionSampler(Material material, long seed) {
+        this(material, false, Runtime.getRuntime().availableProcessors(), seed, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Samples positions until either a given number of samples is reached, or the greatest half-width of the 95%
+     * confidence intervals of the class proportions drops to a given precision.
+     *
+     * @param maxSamples the maximal number of samples
+     * @param precision the target half-width of the confidence intervals (e.g. {@code 0.0001}), or {@code 0} to draw
+     *                  all {@code maxSamples} samples
+     * @param progress called with a copy of the statistics after every batch, or {@code null}
+     * @return the statistics of all samples
+     */
+    public SamplingStatistics run(long maxSamples, double precision, Consumer<SamplingStatistics> progress) {
+        SamplingStatistics total = new SamplingStatistics();
+        long chunks = (maxSamples + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        long chunksPerBatch = Math.max(1, batchSize / CHUNK_SIZE);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (long first = 0; first < chunks; first += chunksPerBatch) {
+                long end = Math.min(first + chunksPerBatch, chunks);
+                AtomicLong next = new AtomicLong(first);
+                List<Future<SamplingStatistics>> workers = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    workers.add(executor.submit(() -> {
+                        SamplingStatistics statistics = new SamplingStatistics();
+                        Position position = new Position();
+                        for (long chunk = next.getAndIncrement(); chunk < end; chunk = next.getAndIncrement()) {
+                            SplittableRandom random = new SplittableRandom(MonteCarloSimulator.mix(seed, chunk));
+                            long size = Math.min(CHUNK_SIZE, maxSamples - chunk * CHUNK_SIZE);
+                            for (long n = 0; n < size; n++) {
+                                sample(position, random);
+                                statistics.addSample(PositionClass.of(position));
+                            }
+                        }
+                        return statistics;
+                    }));
+                }
+                for (Future<SamplingStatistics> worker : workers) {
+                    total.add(worker.get());
+                }
+                if (progress != null) {
+                    progress.accept(total.copy());
+                }
+                if (precision > 0 && total.getMaxMarginOfError() <= precision) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("sampling failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return total;
+    }
+
+    /**
+     * Fills a position with a random arrangement of the material of this sampler and a random side to move. The
+     * previous contents of the position are discarded.
+     *
+     * @param position a {@code Position}, which must not belong to a {@code Board} with moves that were not taken back
+     * @param random the source of randomness
+     */
+    public void sample(Position position, SplittableRandom random) {
+        position.clear();
+        long occupied = Bitboards.EMPTY;
+        for (int i = 0; i < material.size(); i++) {
+            PieceType type = material.getType(i);
+            boolean restricted = type == PieceType.PAWN && !pawnsOnBackRows;
+            int square;
+            do {
+                square = restricted ? SIZE + random.nextInt(PAWN_SQUARES) : random.nextInt(SIZE * SIZE);
+            } while (Bitboards.contains(occupied, square));
+            occupied |= Bitboards.bit(square);
+            position.place(square, material.getColor(i), type);
+        }
+        position.setSideToMove(random.nextBoolean() ? Color.WHITE : Color.BLACK);
+    }
+
+    /**
+     * Usage: {@code PositionSampler [material [maxSamples [precision [seed [threads]]]]]}, where {@code material} is
+     * written as in {@link Material#parse(String)}. Prints the statistics after every batch.
+     */
+    public static void main(String[] args) {
+        Material material = args.length > 0 ? Material.parse(args[0]) : Material.FULL;
+        long maxSamples = args.length > 1 ? Long.parseLong(args[1]) : 100_000_000;
+        double precision = args.length > 2 ? Double.parseDouble(args[2]) : 0;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 0;
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        long start = System.nanoTime();
+        PositionSampler sampler = new PositionSampler(material, false, threads, seed, DEFAULT_BATCH_SIZE);
+        SamplingStatistics statistics = sampler.run(maxSamples, precision, s -> System.out.println(s + String.format(
+                " (%.0f positions/s)", s.getSamples() * 1e9 / (System.nanoTime() - start))));
+        System.out.printf("%s: legal %.4f%%%n", material, 100 * statistics.getLegalProportion());
+    }
+}
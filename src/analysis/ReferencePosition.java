@@ -0,0 +1,59 @@
+package analysis;
+
+import board.Board.Position;
+
+/**
+ * Standard positions with well-known perft node counts, used to validate the move generator (see {@link PerftSuite}).
+ * White is to move in all of them. They cover castling, en passant, promotions, pins and checks.
+ */
+public enum ReferencePosition {
+    INITIAL("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            20, 400, 8902, 197281, 4865609, 119060324),
+    KIWIPETE("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            48, 2039, 97862, 4085603, 193690690),
+    ENDGAME("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            14, 191, 2812, 43238, 674624, 11030083),
+    PROMOTIONS("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+            6, 264, 9467, 422333, 15833292),
+    DISCOVERED_CHECKS("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+            44, 1486, 62379, 2103487, 89941194),
+    MIDDLEGAME("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+            46, 2079, 89890, 3894594, 164075551);
+
+    private final String fen;
+    private final long[] nodes;
+
+    ReferencePosition(String fen, long... nodes) {
+        this.fen = fen;
+        this.nodes = nodes;
+    }
+
+    /**
+     * @return a new {@code Position} set up as this reference position
+     */
+    public Position getPosition() {
+        return Position.fromFen(fen);
+    }
+
+    /**
+     * @return the FEN string of this reference position
+     */
+    public String getFen() {
+        return fen;
+    }
+
+    /**
+     * @return the greatest depth with a known node count
+     */
+    public int getMaxDepth() {
+        return nodes.length;
+    }
+
+    /**
+     * @param depth a depth in the range {@code [1, getMaxDepth()]}
+     * @return the known number of leaf nodes of the game tree of depth {@code depth}
+     */
+    public long getExpectedNodes(int depth) {
+        return nodes[depth - 1];
+    }
+}
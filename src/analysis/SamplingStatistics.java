@@ -0,0 +1,101 @@
+package analysis;
+
+/**
+ * Aggregate statistics of a batch of random positions: the number of positions of every {@link PositionClass}, with
+ * 95% confidence intervals of their proportions (see {@link SimulationStatistics#Z_95}).
+ *
+ * @see PositionSampler
+ */
+public class SamplingStatistics {
+    private static final PositionClass[] CLASSES = PositionClass.values();
+
+    private long samples = 0;
+    private final long[] counts = new long[CLASSES.length];
+
+    /**
+     * Package-private method that adds a sampled position.
+     *
+     * @param positionClass the class of the position
+     */
+    void addSample(PositionClass positionClass) {
+        samples++;
+        counts[positionClass.ordinal()]++;
+    }
+
+    /**
+     * Package-private method that adds the statistics of another batch of positions to these ones.
+     */
+    void add(SamplingStatistics other) {
+        samples += other.samples;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+    }
+
+    /**
+     * @return a copy of these statistics
+     */
+    public SamplingStatistics copy() {
+        SamplingStatistics copy = new SamplingStatistics();
+        copy.add(this);
+        return copy;
+    }
+
+    public long getSamples() {
+        return samples;
+    }
+
+    /**
+     * @param positionClass a {@code PositionClass}
+     * @return the number of sampled positions of class {@code positionClass}
+     */
+    public long getCount(PositionClass positionClass) {
+        return counts[positionClass.ordinal()];
+    }
+
+    /**
+     * @param positionClass a {@code PositionClass}
+     * @return the proportion of sampled positions of class {@code positionClass}
+     */
+    public double getProportion(PositionClass positionClass) {
+        return samples == 0 ? 0 : (double) getCount(positionClass) / samples;
+    }
+
+    /**
+     * @param positionClass a {@code PositionClass}
+     * @return the half-width of the 95% confidence interval of the proportion of positions of class {@code
+     * positionClass}, or {@code 1} if no position was sampled
+     */
+    public double getMarginOfError(PositionClass positionClass) {
+        return SimulationStatistics.getMarginOfError(getCount(positionClass), samples);
+    }
+
+    /**
+     * @return the proportion of legal positions (i.e. of all classes except {@link PositionClass#ILLEGAL})
+     */
+    public double getLegalProportion() {
+        return 1 - getProportion(PositionClass.ILLEGAL);
+    }
+
+    /**
+     * @return the greatest half-width of the 95% confidence intervals of the proportions of the classes
+     */
+    public double getMaxMarginOfError() {
+        double max = 0;
+        for (PositionClass positionClass : CLASSES) {
+            max = Math.max(max, getMarginOfError(positionClass));
+        }
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(samples).append(" positions");
+        for (PositionClass positionClass : CLASSES) {
+            sb.append(String.format(", %s %.4f%% +/- %.4f%%", positionClass, 100 * getProportion(positionClass),
+                    100 * getMarginOfError(positionClass)));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,196 @@
+package analysis;
+
+import utils.Status;
+import utils.Termination;
+
+import java.util.Arrays;
+
+/**
+ * Aggregate statistics of a batch of games: the number of wins, draws and losses, the reasons why the games ended and
+ * a histogram of the game lengths. Only counters are kept, so the memory used does not grow with the number of games.
+ * <br><br>
+ *
+ * The proportions of the outcomes come with confidence intervals, based on the normal approximation of the binomial
+ * distribution.
+ *
+ * @see MonteCarloSimulator
+ */
+public class SimulationStatistics {
+    // The z-score of a two-sided 95% confidence interval
+    public static final double Z_95 = 1.959964;
+
+    private static final Status[] STATUSES = Status.values();
+    private static final Termination[] TERMINATIONS = Termination.values();
+
+    private long games = 0;
+    private final long[] outcomes = new long[STATUSES.length];
+    private final long[] terminations = new long[TERMINATIONS.length];
+    private long totalPlies = 0;
+    private int maxPlies = 0;
+    // lengths[i] is the number of games that lasted i plies
+    private long[] lengths = new long[256];
+
+    /**
+     * Package-private method that adds a finished game.
+     *
+     * @param outcome the result of the game
+     * @param termination the reason why the game ended
+     * @param plies the number of half-moves made in the game
+     */
+    void addGame(Status outcome, Termination termination, int plies) {
+        games++;
+        outcomes[outcome.ordinal()]++;
+        terminations[termination.ordinal()]++;
+        totalPlies += plies;
+        maxPlies = Math.max(maxPlies, plies);
+        if (plies >= lengths.length) {
+            lengths = Arrays.copyOf(lengths, Math.max(plies + 1, 2 * lengths.length));
+        }
+        lengths[plies]++;
+    }
+
+    /**
+     * Package-private method that adds the statistics of another batch of games to these ones.
+     */
+    void add(SimulationStatistics other) {
+        games += other.games;
+        for (int i = 0; i < outcomes.length; i++) {
+            outcomes[i] += other.outcomes[i];
+        }
+        for (int i = 0; i < terminations.length; i++) {
+            terminations[i] += other.terminations[i];
+        }
+        totalPlies += other.totalPlies;
+        maxPlies = Math.max(maxPlies, other.maxPlies);
+        if (other.lengths.length > lengths.length) {
+            lengths = Arrays.copyOf(lengths, other.lengths.length);
+        }
+        for (int i = 0; i < other.lengths.length; i++) {
+            lengths[i] += other.lengths[i];
+        }
+    }
+
+    /**
+     * @return a copy of these statistics
+     */
+    public SimulationStatistics copy() {
+        SimulationStatistics copy = new SimulationStatistics();
+        copy.add(this);
+        return copy;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * @param outcome a {@code Status}
+     * @return the number of games that ended with {@code outcome}
+     */
+    public long getCount(Status outcome) {
+        return outcomes[outcome.ordinal()];
+    }
+
+    /**
+     * @param termination a {@code Termination}
+     * @return the number of games that ended because of {@code termination}
+     */
+    public long getCount(Termination termination) {
+        return terminations[termination.ordinal()];
+    }
+
+    /**
+     * @param outcome a {@code Status}
+     * @return the proportion of games that ended with {@code outcome}
+     */
+    public double getProportion(Status outcome) {
+        return games == 0 ? 0 : (double) getCount(outcome) / games;
+    }
+
+    /**
+     * Returns the half-width of the 95% confidence interval of the proportion of an outcome.
+     *
+     * @param outcome a {@code Status}
+     * @return the half-width of the confidence interval, or {@code 1} if no game was played
+     */
+    public double getMarginOfError(Status outcome) {
+        return getMarginOfError(getCount(outcome), games);
+    }
+
+    /**
+     * Package-private method that returns the half-width of the 95% confidence interval of a proportion, based on the
+     * normal approximation of the binomial distribution.
+     *
+     * @param count the number of successes
+     * @param total the number of trials
+     * @return the half-width of the confidence interval of {@code count / total}, or {@code 1} if {@code total} is
+     * {@code 0}
+     */
+    static double getMarginOfError(long count, long total) {
+        if (total == 0) {
+            return 1;
+        }
+        double p = (double) count / total;
+        return Z_95 * Math.sqrt(p * (1 - p) / total);
+    }
+
+    /**
+     * @return the greatest half-width of the 95% confidence intervals of the proportions of the outcomes
+     */
+    public double getMaxMarginOfError() {
+        return Math.max(getMarginOfError(Status.WHITE_WON),
+                Math.max(getMarginOfError(Status.BLACK_WON), getMarginOfError(Status.DRAW)));
+    }
+
+    /**
+     * @return the average number of half-moves per game
+     */
+    public double getAverageLength() {
+        return games == 0 ? 0 : (double) totalPlies / games;
+    }
+
+    /**
+     * @return the greatest number of half-moves in a game
+     */
+    public int getMaxLength() {
+        return maxPlies;
+    }
+
+    /**
+     * @param plies a number of half-moves
+     * @return the number of games that lasted exactly {@code plies} half-moves
+     */
+    public long getLengthCount(int plies) {
+        return plies < lengths.length ? lengths[plies] : 0;
+    }
+
+    /**
+     * Returns the histogram of game lengths, grouped into bins of a given width.
+     *
+     * @param binWidth the number of different lengths per bin
+     * @return an array whose {@code i}-th element is the number of games with a length in {@code [i * binWidth, (i +
+     * 1) * binWidth)}
+     */
+    public long[] getLengthHistogram(int binWidth) {
+        long[] histogram = new long[maxPlies / binWidth + 1];
+        for (int plies = 0; plies <= maxPlies; plies++) {
+            histogram[plies / binWidth] += getLengthCount(plies);
+        }
+        return histogram;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(games).append(" games");
+        for (Status outcome : new Status[]{Status.WHITE_WON, Status.DRAW, Status.BLACK_WON}) {
+            sb.append(String.format(", %s %.2f%% +/- %.2f%%", outcome, 100 * getProportion(outcome),
+                    100 * getMarginOfError(outcome)));
+        }
+        for (Termination termination : TERMINATIONS) {
+            sb.append(", ").append(termination).append(' ').append(getCount(termination));
+        }
+        sb.append(String.format(", average length %.1f plies", getAverageLength()));
+        return sb.toString();
+    }
+}
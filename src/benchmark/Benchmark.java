@@ -0,0 +1,40 @@
+package benchmark;
+
+import board.Board.Position;
+
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * A benchmark of one operation on positions.<br><br>
+ *
+ * The operation is created once per position of a {@link Corpus} by a setup function, which may prepare any state the
+ * operation needs (e.g. the list of legal moves to cycle through), so that only the operation itself is measured. The
+ * operation returns a value that depends on its work; the values are consumed by the {@link BenchmarkRunner}, so
+ * that the JIT compiler cannot eliminate the work as dead code.
+ */
+public class Benchmark {
+    private final String name;
+    private final Function<Position, LongSupplier> setup;
+
+    /**
+     * @param name the name of the benchmark
+     * @param setup the function creating the measured operation for a given position
+     */
+    public Benchmark(String name, Function<Position, LongSupplier> setup) {
+        this.name = name;
+        this.setup = setup;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @param position a {@code Position}, which the operation may modify
+     * @return the operation to measure on {@code position}
+     */
+    public LongSupplier setUp(Position position) {
+        return setup.apply(position);
+    }
+}
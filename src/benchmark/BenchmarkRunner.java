@@ -0,0 +1,163 @@
+package benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.function.LongSupplier;
+
+/**
+ * Measures the throughput and the allocation rate of an operation on the current thread.<br><br>
+ *
+ * The operation is first run for a warmup period, during which the JIT compiler optimizes it and the number of calls
+ * per batch is calibrated so that reading the clock does not distort the result. Then the operation is measured in
+ * several iterations of fixed duration. Allocated memory is read from the {@code com.sun.management} extension of
+ * {@code ThreadMXBean} where the JVM supports it.
+ */
+public class BenchmarkRunner {
+    // Minimal duration of a batch of calls between two readings of the clock
+    private static final long BATCH_NANOS = 100_000;
+
+    private final long warmupNanos;
+    private final int iterations;
+    private final long iterationNanos;
+    // Collects the values returned by the operations (see Benchmark)
+    private long sink = 0;
+
+    /**
+     * @param warmupMillis the duration of the warmup, in milliseconds
+     * @param iterations the number of measured iterations
+     * @param iterationMillis the duration of one measured iteration, in milliseconds
+     */
+    public BenchmarkRunner(long warmupMillis, int iterations, long iterationMillis) {
+        this.warmupNanos = warmupMillis * 1_000_000;
+        this.iterations = iterations;
+        this.iterationNanos = iterationMillis * 1_000_000;
+    }
+
+    /**
+     * Measures an operation.
+     *
+     * @param operation the operation to measure
+     * @return the throughput and allocation rate of {@code operation}
+     */
+    public Result run(LongSupplier operation) {
+        // Warmup and calibration of the batch size
+        int batch = 1;
+        long end = System.nanoTime() + warmupNanos;
+        while (System.nanoTime() < end) {
+            long start = System.nanoTime();
+            runBatch(operation, batch);
+            if (System.nanoTime() - start < BATCH_NANOS && batch < Integer.MAX_VALUE / 2) {
+                batch *= 2;
+            }
+        }
+
+        double[] throughputs = new double[iterations];
+        long totalCalls = 0;
+        long allocatedBefore = getAllocatedBytes();
+        for (int i = 0; i < iterations; i++) {
+            long calls = 0;
+            long start = System.nanoTime();
+            long elapsed;
+            do {
+                runBatch(operation, batch);
+                calls += batch;
+                elapsed = System.nanoTime() - start;
+            } while (elapsed < iterationNanos);
+            throughputs[i] = calls * 1e9 / elapsed;
+            totalCalls += calls;
+        }
+        long allocatedAfter = getAllocatedBytes();
+        double bytesPerCall = allocatedBefore < 0 ? Double.NaN
+                : (double) (allocatedAfter - allocatedBefore) / totalCalls;
+        return new Result(throughputs, bytesPerCall);
+    }
+
+    /**
+     * @return the sum of the values returned by all measured operations (only meaningful as a dead-code barrier)
+     */
+    public long getSink() {
+        return sink;
+    }
+
+    /**
+     * Private method that calls an operation a given number of times.
+     */
+    private void runBatch(LongSupplier operation, int calls) {
+        long sum = 0;
+        for (int i = 0; i < calls; i++) {
+            sum += operation.getAsLong();
+        }
+        sink += sum;
+    }
+
+    /**
+     * Private method that returns the number of bytes allocated by the current thread so far, or {@code -1} if the JVM
+     * cannot tell.
+     */
+    private static long getAllocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean extended = (com.sun.management.ThreadMXBean) bean;
+            if (extended.isThreadAllocatedMemorySupported() && extended.isThreadAllocatedMemoryEnabled()) {
+                return extended.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The outcome of a measurement: the throughput of every iteration and the average allocation per call.
+     */
+    public static class Result {
+        private final double[] throughputs;
+        private final double bytesPerCall;
+
+        Result(double[] throughputs, double bytesPerCall) {
+            this.throughputs = throughputs;
+            this.bytesPerCall = bytesPerCall;
+        }
+
+        /**
+         * @return the mean throughput over the iterations, in calls per second
+         */
+        public double getThroughput() {
+            double sum = 0;
+            for (double throughput : throughputs) {
+                sum += throughput;
+            }
+            return sum / throughputs.length;
+        }
+
+        /**
+         * @return the standard deviation of the throughput over the iterations, in calls per second
+         */
+        public double getThroughputDeviation() {
+            double mean = getThroughput();
+            double sum = 0;
+            for (double throughput : throughputs) {
+                sum += (throughput - mean) * (throughput - mean);
+            }
+            return throughputs.length < 2 ? 0 : Math.sqrt(sum / (throughputs.length - 1));
+        }
+
+        /**
+         * @return the average number of bytes allocated per call, or {@code NaN} if unknown
+         */
+        public double getBytesPerCall() {
+            return bytesPerCall;
+        }
+
+        /**
+         * @return the allocation rate, in megabytes per second, or {@code NaN} if unknown
+         */
+        public double getAllocationRate() {
+            return bytesPerCall * getThroughput() / (1 << 20);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%,14.0f +/- %,12.0f ops/s %12.1f B/op %10.1f MB/s", getThroughput(),
+                    getThroughputDeviation(), getBytesPerCall(), getAllocationRate());
+        }
+    }
+}
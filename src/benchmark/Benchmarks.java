@@ -0,0 +1,162 @@
+package benchmark;
+
+import analysis.Playout;
+import board.Board;
+import board.Board.Position;
+import board.Cell;
+import board.Color;
+import board.Game;
+import board.Move;
+import board.MoveList;
+import board.PieceList;
+import player.RandomPlayer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.IntToLongFunction;
+import java.util.function.LongSupplier;
+
+import static utils.Global.SIZE;
+
+/**
+ * Microbenchmarks of the hot paths of the board, pieces and players, run on every {@link Corpus}, followed by a
+ * benchmark of complete games between two {@code RandomPlayer}s. For every benchmark the throughput and the
+ * allocation per operation are reported.<br><br>
+ *
+ * Usage: {@code Benchmarks [filter [warmupMillis iterations iterationMillis]]}, where only the benchmarks whose names
+ * contain {@code filter} are run.
+ */
+public class Benchmarks {
+    private static final long DEFAULT_WARMUP_MILLIS = 500;
+    private static final int DEFAULT_ITERATIONS = 5;
+    private static final long DEFAULT_ITERATION_MILLIS = 500;
+    private static final String GAME_BENCHMARK = "Game.play() RandomPlayer vs RandomPlayer";
+
+    public static void main(String[] args) {
+        String filter = args.length > 0 ? args[0] : "";
+        BenchmarkRunner runner = args.length > 3
+                ? new BenchmarkRunner(Long.parseLong(args[1]), Integer.parseInt(args[2]), Long.parseLong(args[3]))
+                : new BenchmarkRunner(DEFAULT_WARMUP_MILLIS, DEFAULT_ITERATIONS, DEFAULT_ITERATION_MILLIS);
+
+        for (Benchmark benchmark : getBenchmarks()) {
+            if (!benchmark.getName().contains(filter)) {
+                continue;
+            }
+            System.out.println(benchmark.getName());
+            for (Corpus corpus : Corpus.values()) {
+                List<LongSupplier> operations = new ArrayList<>();
+                for (Position position : corpus.getPositions()) {
+                    operations.add(benchmark.setUp(position));
+                }
+                LongSupplier[] array = operations.toArray(new LongSupplier[0]);
+                System.out.printf("  %-10s %s%n", corpus, runner.run(cycle(array.length, i -> array[i].getAsLong())));
+            }
+        }
+        if (GAME_BENCHMARK.contains(filter)) {
+            System.out.println(GAME_BENCHMARK);
+            System.out.printf("  %-10s %s%n", "GAME", runner.run(() -> {
+                Game game = new Game(new RandomPlayer("white"), new RandomPlayer("black"));
+                return game.play().ordinal();
+            }));
+        }
+        System.out.println("(sink: " + runner.getSink() + ")");
+    }
+
+    /**
+     * Private method that returns all benchmarks of single operations.
+     */
+    private static List<Benchmark> getBenchmarks() {
+        List<Benchmark> benchmarks = new ArrayList<>();
+        benchmarks.add(new Benchmark("Position.getLegalMoves(Color)",
+                position -> () -> position.getLegalMoves(position.getSideToMove()).size()));
+        benchmarks.add(new Benchmark("Position.generateLegalMoves(Color, MoveList)", position -> {
+            MoveList moves = new MoveList();
+            return () -> {
+                moves.clear();
+                position.generateLegalMoves(position.getSideToMove(), moves);
+                return moves.size();
+            };
+        }));
+        benchmarks.add(new Benchmark("Position.isLegalMove(Move)", position -> {
+            Move[] moves = getLegalMoves(position);
+            return cycle(moves.length, i -> position.isLegalMove(moves[i]) ? 1 : 0);
+        }));
+        benchmarks.add(new Benchmark("Position.isKingInCheck(Color)", position -> cycle(2,
+                i -> position.isKingInCheck(i == 0 ? Color.WHITE : Color.BLACK) ? 1 : 0)));
+        benchmarks.add(new Benchmark("Position.isAttacked(Cell, Color)", position -> cycle(2 * SIZE * SIZE,
+                i -> position.isAttacked(Cell.of(i / 2), i % 2 == 0 ? Color.WHITE : Color.BLACK) ? 1 : 0)));
+        benchmarks.add(new Benchmark("Position.getPieceList(Color)", position -> cycle(2, i -> {
+            PieceList pieces = position.getPieceList(i == 0 ? Color.WHITE : Color.BLACK);
+            long sum = 0;
+            for (int j = 0; j < pieces.size(); j++) {
+                sum += pieces.getSquare(j);
+            }
+            return sum;
+        })));
+        benchmarks.add(new Benchmark("Board.makeMove(Move) + unmakeMove()", position -> {
+            Board board = new Board(position);
+            Move[] moves = getLegalMoves(position);
+            return cycle(moves.length, i -> {
+                boolean made = board.makeMove(moves[i]);
+                board.unmakeMove();
+                return made ? 1 : 0;
+            });
+        }));
+        benchmarks.add(new Benchmark("Board.makeMove(int) + unmakeMove()", position -> {
+            Board board = new Board(position);
+            MoveList moves = new MoveList();
+            position.generateLegalMoves(position.getSideToMove(), moves);
+            return cycle(moves.size(), i -> {
+                board.makeMove(moves.get(i));
+                long key = position.getKey();
+                board.unmakeMove();
+                return key;
+            });
+        }));
+        benchmarks.add(new Benchmark("Playout.play(Board, SplittableRandom)", position -> {
+            Board board = new Board(position);
+            Playout playout = new Playout();
+            SplittableRandom random = new SplittableRandom(0);
+            return () -> {
+                playout.play(board, random);
+                return playout.getPlies();
+            };
+        }));
+        benchmarks.add(new Benchmark("Position.clone()", position -> () -> position.clone().getKey()));
+        benchmarks.add(new Benchmark("Move.hashCode()", position -> {
+            Move[] moves = getLegalMoves(position);
+            return cycle(moves.length, i -> moves[i].hashCode());
+        }));
+        benchmarks.add(new Benchmark("Move.equals(Object)", position -> {
+            Move[] moves = getLegalMoves(position);
+            Move[] copies = getLegalMoves(position);
+            return cycle(moves.length * moves.length,
+                    i -> moves[i / moves.length].equals(copies[i % moves.length]) ? 1 : 0);
+        }));
+        return benchmarks;
+    }
+
+    /**
+     * Private method that returns the legal moves of the side to move as an array of {@code Move} objects.
+     */
+    private static Move[] getLegalMoves(Position position) {
+        return position.getLegalMoves(position.getSideToMove()).toArray(new Move[0]);
+    }
+
+    /**
+     * Private method that creates an operation calling a function with the indices {@code 0, 1, ..., n - 1, 0, 1, ...}
+     * in turn.
+     */
+    private static LongSupplier cycle(int n, IntToLongFunction function) {
+        if (n == 0) {
+            return () -> 0;
+        }
+        int[] next = {0};
+        return () -> {
+            int i = next[0];
+            next[0] = i + 1 == n ? 0 : i + 1;
+            return function.applyAsLong(i);
+        };
+    }
+}
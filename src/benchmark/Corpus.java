@@ -0,0 +1,73 @@
+package benchmark;
+
+import analysis.ReferencePosition;
+import board.Board;
+import board.Board.Position;
+import board.MoveList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * The fixed sets of positions the benchmarks run on, one per phase of the game. Opening positions are the initial
+ * position and positions reached from it by a few random moves with a fixed seed; middlegame and endgame positions are
+ * taken from the {@link ReferencePosition}s.
+ */
+public enum Corpus {
+    OPENING,
+    MIDDLEGAME,
+    ENDGAME;
+
+    private static final long SEED = 0xBE7C4L;
+    private static final int[] OPENING_PLIES = {0, 4, 8, 12};
+
+    /**
+     * Returns new copies of the positions of this corpus, so that benchmarks cannot affect each other.
+     *
+     * @return the positions of this corpus
+     */
+    public List<Position> getPositions() {
+        List<Position> positions = new ArrayList<>();
+        switch (this) {
+            case OPENING -> {
+                SplittableRandom random = new SplittableRandom(SEED);
+                for (int plies : OPENING_PLIES) {
+                    positions.add(playRandomly(ReferencePosition.INITIAL.getPosition(), plies, random));
+                }
+            }
+            case MIDDLEGAME -> {
+                positions.add(ReferencePosition.KIWIPETE.getPosition());
+                positions.add(ReferencePosition.PROMOTIONS.getPosition());
+                positions.add(ReferencePosition.DISCOVERED_CHECKS.getPosition());
+                positions.add(ReferencePosition.MIDDLEGAME.getPosition());
+            }
+            case ENDGAME -> {
+                Position endgame = ReferencePosition.ENDGAME.getPosition();
+                positions.add(endgame.clone());
+                SplittableRandom random = new SplittableRandom(SEED);
+                for (int i = 0; i < 3; i++) {
+                    positions.add(playRandomly(endgame.clone(), 2 * (i + 1), random));
+                }
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Private method that makes a given number of random legal moves in a position (fewer if the game ends).
+     */
+    private static Position playRandomly(Position position, int plies, SplittableRandom random) {
+        Board board = new Board(position);
+        MoveList moves = new MoveList();
+        for (int i = 0; i < plies; i++) {
+            moves.clear();
+            position.generateLegalMoves(position.getSideToMove(), moves);
+            if (moves.isEmpty()) {
+                break;
+            }
+            board.makeMove(moves.get(random.nextInt(moves.size())));
+        }
+        return position;
+    }
+}
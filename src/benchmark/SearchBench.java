@@ -0,0 +1,45 @@
+package benchmark;
+
+import board.Board.Position;
+import engine.ParallelSearch;
+import engine.SearchLimits;
+import engine.SearchResult;
+import engine.TranspositionTable;
+
+/**
+ * Searches every position of every {@link Corpus} to a fixed depth with an empty hash table, and prints the result of
+ * every search and the total number of nodes and speed.<br><br>
+ *
+ * The total number of nodes is a signature of the behaviour of the search: it only changes when the search itself
+ * changes, whereas the speed shows regressions of the board, the move generator and the search between versions.
+ * With several threads (see {@link ParallelSearch}), the total time is the time to depth, which measures how the
+ * search scales with the threads; the node count then varies from run to run.<br><br>
+ *
+ * Usage: {@code SearchBench [depth [hashMB [threads]]]}.
+ */
+public class SearchBench {
+    private static final int DEFAULT_DEPTH = 6;
+    private static final int DEFAULT_HASH_MEGABYTES = 16;
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_DEPTH;
+        int megabytes = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_HASH_MEGABYTES;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+        TranspositionTable table = new TranspositionTable(megabytes);
+        ParallelSearch search = new ParallelSearch(table, threads);
+        long nodes = 0;
+        long nanos = 0;
+        for (Corpus corpus : Corpus.values()) {
+            for (Position position : corpus.getPositions()) {
+                table.clear();
+                SearchResult result = search.search(position, SearchLimits.depth(depth), null);
+                nodes += result.getNodes();
+                nanos += result.getNanos();
+                System.out.printf("%-10s %s%n", corpus, result);
+            }
+        }
+        search.close();
+        System.out.printf("Total: %d nodes in %d ms, %.0f nps (%d threads)%n", nodes, nanos / 1_000_000,
+                nodes * 1e9 / nanos, threads);
+    }
+}
@@ -0,0 +1,299 @@
+package board;
+
+import java.util.SplittableRandom;
+
+import static utils.Global.SIZE;
+
+/**
+ * Precomputed attack tables for all piece types, based on bitboards (see {@link Bitboards}).<br><br>
+ *
+ * Attacks of jumping pieces (knights, kings and pawns) depend only on the source square, so they are simply stored per
+ * square. Attacks of sliding pieces (rooks, bishops and queens) also depend on the occupancy of the board; they are
+ * looked up in tables indexed by "magic" hashes of the relevant occupancy, so that every query takes constant time
+ * and does not allocate.
+ */
+public class Attacks {
+    private static final int SQUARES = SIZE * SIZE;
+    private static final int[][] ROOK_DIRECTIONS = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+    private static final int[][] KNIGHT_DELTAS = {
+            {1, 2}, {1, -2}, {-1, 2}, {-1, -2}, {2, 1}, {2, -1}, {-2, 1}, {-2, -1}
+    };
+    private static final int[][] KING_DELTAS = {{-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}};
+
+    private static final long[] KNIGHT = new long[SQUARES];
+    private static final long[] KING = new long[SQUARES];
+    // Indexed by [color][square]; white pawns capture towards decreasing row indices
+    private static final long[][] PAWN = new long[Color.values().length][SQUARES];
+
+    private static final long[] ROOK_MASKS = new long[SQUARES];
+    private static final long[] ROOK_MAGICS = new long[SQUARES];
+    private static final int[] ROOK_SHIFTS = new int[SQUARES];
+    private static final long[][] ROOK_TABLE = new long[SQUARES][];
+    private static final long[] BISHOP_MASKS = new long[SQUARES];
+    private static final long[] BISHOP_MAGICS = new long[SQUARES];
+    private static final int[] BISHOP_SHIFTS = new int[SQUARES];
+    private static final long[][] BISHOP_TABLE = new long[SQUARES][];
+
+    // Magic multipliers found by initMagic() for the default board size, so that the search does not have to be
+    // repeated on every start (the search is still used as a fallback for other sizes)
+    private static final long[] KNOWN_ROOK_MAGICS = {
+            0x0080018840015420L, 0x0540100420014002L, 0x0100110008402004L, 0x0900100100200408L,
+            0x2A00200200080410L, 0x6080040002008001L, 0x4280020000800100L, 0x0180004100002480L,
+            0x0020800232400280L, 0x0810802008400080L, 0x0008802000801008L, 0x8082001008204204L,
+            0x0022000A00201004L, 0x0804802400020080L, 0x2114001001080204L, 0x0001800500004080L,
+            0x8040208000400080L, 0x4110820022420300L, 0x0000808010002002L, 0x0000090010002100L,
+            0x0000808004000802L, 0x0002008002040080L, 0x08E0040001100208L, 0x8288060000A24C03L,
+            0x8800802080004000L, 0x8090500040002000L, 0x9020010100104020L, 0x200A001200200840L,
+            0x068900D100280004L, 0x0002000200100804L, 0x0001002100141200L, 0x00A2204200008401L,
+            0x0880002000400040L, 0x0050002010400040L, 0x0220A00082803000L, 0x0000080080801000L,
+            0x0000040081802800L, 0x8180020080800400L, 0x0028080204000150L, 0xA084C84286000401L,
+            0x0280002000484002L, 0x0110004020004010L, 0x0000841022020040L, 0x0830000800808010L,
+            0x0400080005010010L, 0x40C1000804010002L, 0x1400020190440008L, 0x0640508061160004L,
+            0x202040118000A280L, 0x0020084008802080L, 0x0008204080120200L, 0x4101A30210000900L,
+            0x090500C800045100L, 0x000200E4000E8080L, 0x0030500102884400L, 0x1900404401008200L,
+            0x8010800010204109L, 0x2020108900244001L, 0x9000084011002001L, 0x1042442100C81001L,
+            0x1409000210040801L, 0x0112000811041016L, 0x197A100802008104L, 0x0928840102815422L
+    };
+    private static final long[] KNOWN_BISHOP_MAGICS = {
+            0x4010413021020024L, 0x0020010400A08021L, 0x0C920C0042008010L, 0x0004240180084400L,
+            0x0184050400580000L, 0x001201100A000004L, 0x0480410420212008L, 0x0123040094040200L,
+            0x0828408C14042158L, 0x80108404A0A20600L, 0x2704218809004042L, 0x000824040A902040L,
+            0x400001104000000DL, 0x2000208221200808L, 0x0E09020804040400L, 0x0451002212106402L,
+            0x02882110200800A0L, 0x108A20200C030600L, 0x0008024108102080L, 0x0000800802004000L,
+            0x0804000080E00100L, 0x8003010890009008L, 0x0088884404040220L, 0x4004200084042220L,
+            0x01941080A0A05100L, 0x0162100008012802L, 0xC000490810040080L, 0x1082008118008003L,
+            0x4021010004104000L, 0x8288060091490402L, 0x004200420A280202L, 0x8080848032005400L,
+            0x001003490020080CL, 0x12C8421004882108L, 0x0484040200144600L, 0x0003040400080120L,
+            0x0041020208040100L, 0x230A004300161000L, 0x0208008400248A04L, 0x2141004100C20511L,
+            0x0400900908102004L, 0x0410420210082101L, 0x8002020201040200L, 0x0001804208000484L,
+            0x0064040494008200L, 0x00400080A0801100L, 0x1010044100400402L, 0x1890010101020034L,
+            0x0000413010120021L, 0x0000920802026025L, 0x4000404404040032L, 0x8400801904881A00L,
+            0x0301082035240000L, 0x000608C218620028L, 0x2210450808005230L, 0x10049400A4090040L,
+            0x0002008264122010L, 0x0808104104016080L, 0x1100800021080800L, 0x8450090020840402L,
+            0x0000040021E24402L, 0x0040A6F020410441L, 0x8000400404840842L, 0x0440100200803280L
+    };
+
+    // Indexed by [square][square]
+    private static final long[][] BETWEEN = new long[SQUARES][SQUARES];
+    private static final long[][] LINE = new long[SQUARES][SQUARES];
+
+    static {
+        for (int square = 0; square < SQUARES; square++) {
+            int row = Bitboards.row(square);
+            int col = Bitboards.col(square);
+            KNIGHT[square] = leaperAttacks(row, col, KNIGHT_DELTAS);
+            KING[square] = leaperAttacks(row, col, KING_DELTAS);
+            PAWN[Color.WHITE.ordinal()][square] = leaperAttacks(row, col, new int[][]{{-1, -1}, {-1, 1}});
+            PAWN[Color.BLACK.ordinal()][square] = leaperAttacks(row, col, new int[][]{{1, -1}, {1, 1}});
+        }
+        // Fixed seed, so that the tables are the same on every run
+        SplittableRandom random = new SplittableRandom(0x5EED);
+        for (int square = 0; square < SQUARES; square++) {
+            ROOK_MASKS[square] = relevantOccupancy(square, ROOK_DIRECTIONS);
+            ROOK_TABLE[square] = initMagic(square, ROOK_DIRECTIONS, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS,
+                    SQUARES == KNOWN_ROOK_MAGICS.length ? KNOWN_ROOK_MAGICS[square] : 0, random);
+            BISHOP_MASKS[square] = relevantOccupancy(square, BISHOP_DIRECTIONS);
+            BISHOP_TABLE[square] = initMagic(square, BISHOP_DIRECTIONS, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS,
+                    SQUARES == KNOWN_BISHOP_MAGICS.length ? KNOWN_BISHOP_MAGICS[square] : 0, random);
+        }
+        for (int a = 0; a < SQUARES; a++) {
+            for (int[][] directions : new int[][][]{ROOK_DIRECTIONS, BISHOP_DIRECTIONS}) {
+                for (int[] d : directions) {
+                    long ray = slidingAttacks(a, Bitboards.EMPTY, new int[][]{d});
+                    long opposite = slidingAttacks(a, Bitboards.EMPTY, new int[][]{{-d[0], -d[1]}});
+                    long path = 0;
+                    for (int r = Bitboards.row(a) + d[0], c = Bitboards.col(a) + d[1];
+                         0 <= r && r < SIZE && 0 <= c && c < SIZE; r += d[0], c += d[1]) {
+                        int b = r * SIZE + c;
+                        BETWEEN[a][b] = path;
+                        LINE[a][b] = ray | opposite | Bitboards.bit(a);
+                        path |= Bitboards.bit(b);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Private method that computes the attacks of a jumping piece with the given deltas.
+     */
+    private static long leaperAttacks(int row, int col, int[][] deltas) {
+        long attacks = 0;
+        for (int[] delta : deltas) {
+            int square = Bitboards.square(row + delta[0], col + delta[1]);
+            if (square >= 0) {
+                attacks |= Bitboards.bit(square);
+            }
+        }
+        return attacks;
+    }
+
+    /**
+     * Private method that computes the attacks of a sliding piece by stepping along each of the given directions until
+     * the edge of the board or the first occupied square (inclusive). Only used to build the tables.
+     */
+    private static long slidingAttacks(int square, long occupied, int[][] directions) {
+        long attacks = 0;
+        for (int[] d : directions) {
+            int r = Bitboards.row(square) + d[0];
+            int c = Bitboards.col(square) + d[1];
+            while (0 <= r && r < SIZE && 0 <= c && c < SIZE) {
+                long bit = Bitboards.bit(r * SIZE + c);
+                attacks |= bit;
+                if ((occupied & bit) != 0) {
+                    break;
+                }
+                r += d[0];
+                c += d[1];
+            }
+        }
+        return attacks;
+    }
+
+    /**
+     * Private method that computes the squares whose occupancy matters for a sliding piece on the given square, i.e.
+     * the rays in the given directions without the last square of each ray.
+     */
+    private static long relevantOccupancy(int square, int[][] directions) {
+        long mask = 0;
+        for (int[] d : directions) {
+            int r = Bitboards.row(square) + d[0];
+            int c = Bitboards.col(square) + d[1];
+            while (0 <= r + d[0] && r + d[0] < SIZE && 0 <= c + d[1] && c + d[1] < SIZE) {
+                mask |= Bitboards.bit(r * SIZE + c);
+                r += d[0];
+                c += d[1];
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Private method that finds a magic multiplier for the given square by trial and error, and fills the
+     * corresponding attack table. A multiplier is accepted if it maps every pair of occupancies with different attack
+     * sets to different table indices. The given candidate multiplier (if not {@code 0}) is tried first.
+     *
+     * @return the attack table of {@code square}, indexed by {@code ((occupied & mask) * magic) >>> shift}
+     */
+    private static long[] initMagic(int square, int[][] directions, long[] masks, long[] magics, int[] shifts,
+                                    long candidate, SplittableRandom random) {
+        long mask = masks[square];
+        int bits = Long.bitCount(mask);
+        int size = 1 << bits;
+        long[] occupancies = new long[size];
+        long[] attacks = new long[size];
+        // Enumerate all subsets of the mask (Carry-Rippler trick)
+        long subset = 0;
+        for (int i = 0; i < size; i++) {
+            occupancies[i] = subset;
+            attacks[i] = slidingAttacks(square, subset, directions);
+            subset = (subset - mask) & mask;
+        }
+        int shift = 64 - bits;
+        long[] table = new long[size];
+        // epoch[index] == attempt means that table[index] was filled during the current attempt
+        int[] epoch = new int[size];
+        for (int attempt = 1; ; attempt++) {
+            long magic = attempt == 1 && candidate != 0
+                    ? candidate
+                    : random.nextLong() & random.nextLong() & random.nextLong();
+            if (Long.bitCount((mask * magic) >>> 56) < 6) {
+                continue;
+            }
+            boolean success = true;
+            for (int i = 0; i < size && success; i++) {
+                int index = (int) ((occupancies[i] * magic) >>> shift);
+                if (epoch[index] != attempt) {
+                    epoch[index] = attempt;
+                    table[index] = attacks[i];
+                } else if (table[index] != attacks[i]) {
+                    success = false;
+                }
+            }
+            if (success) {
+                magics[square] = magic;
+                shifts[square] = shift;
+                return table;
+            }
+        }
+    }
+
+    /**
+     * @param square a square index
+     * @return the bitboard of squares attacked by a knight on {@code square}
+     */
+    public static long knight(int square) {
+        return KNIGHT[square];
+    }
+
+    /**
+     * @param square a square index
+     * @return the bitboard of squares attacked by a king on {@code square}
+     */
+    public static long king(int square) {
+        return KING[square];
+    }
+
+    /**
+     * @param color the color of the pawn
+     * @param square a square index
+     * @return the bitboard of squares attacked by a pawn of color {@code color} on {@code square}
+     */
+    public static long pawn(Color color, int square) {
+        return PAWN[color.ordinal()][square];
+    }
+
+    /**
+     * @param square a square index
+     * @param occupied the bitboard of all occupied squares
+     * @return the bitboard of squares attacked by a rook on {@code square}
+     */
+    public static long rook(int square, long occupied) {
+        int index = (int) (((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square]);
+        return ROOK_TABLE[square][index];
+    }
+
+    /**
+     * @param square a square index
+     * @param occupied the bitboard of all occupied squares
+     * @return the bitboard of squares attacked by a bishop on {@code square}
+     */
+    public static long bishop(int square, long occupied) {
+        int index = (int) (((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square]);
+        return BISHOP_TABLE[square][index];
+    }
+
+    /**
+     * @param square a square index
+     * @param occupied the bitboard of all occupied squares
+     * @return the bitboard of squares attacked by a queen on {@code square}
+     */
+    public static long queen(int square, long occupied) {
+        return rook(square, occupied) | bishop(square, occupied);
+    }
+
+    /**
+     * Returns the squares strictly between two squares lying on one horizontal, vertical or diagonal line.
+     *
+     * @param first a square index
+     * @param second a square index
+     * @return the bitboard of squares strictly between {@code first} and {@code second}, or an empty bitboard if the
+     * squares are not on one line (or are adjacent, or equal)
+     */
+    public static long between(int first, int second) {
+        return BETWEEN[first][second];
+    }
+
+    /**
+     * Returns the whole horizontal, vertical or diagonal line (from edge to edge) passing through two squares.
+     *
+     * @param first a square index
+     * @param second a square index
+     * @return the bitboard of the line through {@code first} and {@code second}, or an empty bitboard if the squares
+     * are not on one line (or are equal)
+     */
+    public static long line(int first, int second) {
+        return LINE[first][second];
+    }
+}
@@ -0,0 +1,122 @@
+package board;
+
+import static utils.Global.SIZE;
+
+/**
+ * Helper methods for working with bitboards.<br><br>
+ *
+ * A bitboard is a {@code long} whose bit number {@code i} is set if and only if the square with index {@code i} (see
+ * {@link Cell#getSquare()}) belongs to the set described by the bitboard. Bitboards require the board to have at most
+ * 64 squares, which holds for the default size of 8.
+ */
+public class Bitboards {
+    public static final long EMPTY = 0L;
+    public static final long ALL = -1L >>> (64 - SIZE * SIZE);
+
+    /**
+     * @param square a square index
+     * @return the bitboard containing only {@code square}
+     */
+    public static long bit(int square) {
+        return 1L << square;
+    }
+
+    /**
+     * @param cell a {@code Cell}
+     * @return the bitboard containing only {@code cell}
+     */
+    public static long bit(Cell cell) {
+        return 1L << cell.getSquare();
+    }
+
+    /**
+     * @param bitboard a bitboard
+     * @param square a square index
+     * @return {@code true} if {@code square} belongs to {@code bitboard}, or {@code false} otherwise
+     */
+    public static boolean contains(long bitboard, int square) {
+        return (bitboard & (1L << square)) != 0;
+    }
+
+    /**
+     * @param square a square index
+     * @return the row index of {@code square}
+     */
+    public static int row(int square) {
+        return square / SIZE;
+    }
+
+    /**
+     * @param square a square index
+     * @return the column index of {@code square}
+     */
+    public static int col(int square) {
+        return square % SIZE;
+    }
+
+    /**
+     * @param row a row index
+     * @param col a column index
+     * @return the square index of {@code (row, col)}, or {@code -1} if the cell is out of bounds
+     */
+    public static int square(int row, int col) {
+        return 0 <= row && row < SIZE && 0 <= col && col < SIZE ? row * SIZE + col : -1;
+    }
+
+    /**
+     * Returns the lowest square of a non-empty bitboard. Together with {@link #popLowest(long)} this allows to
+     * iterate over a bitboard without allocations:
+     * <pre>
+     * for (long b = bitboard; b != 0; b = popLowest(b)) {
+     *     int square = lowest(b);
+     * }
+     * </pre>
+     *
+     * @param bitboard a non-empty bitboard
+     * @return the smallest square index in {@code bitboard}
+     */
+    public static int lowest(long bitboard) {
+        return Long.numberOfTrailingZeros(bitboard);
+    }
+
+    /**
+     * @param bitboard a bitboard
+     * @return {@code bitboard} without its lowest square
+     */
+    public static long popLowest(long bitboard) {
+        return bitboard & (bitboard - 1);
+    }
+
+    /**
+     * @param bitboard a bitboard
+     * @return the number of squares in {@code bitboard}
+     */
+    public static int count(long bitboard) {
+        return Long.bitCount(bitboard);
+    }
+
+    /**
+     * @param row a row index
+     * @return the bitboard of all squares in row {@code row}
+     */
+    public static long rowMask(int row) {
+        return (-1L >>> (64 - SIZE)) << (row * SIZE);
+    }
+
+    /**
+     * Returns a grid representation of a bitboard, for debugging purposes.
+     *
+     * @param bitboard a bitboard
+     * @return a grid of {@code x} (square in the set) and {@code .} (square not in the set) characters
+     */
+    public static String toString(long bitboard) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < SIZE; i++) {
+            for (int j = 0; j < SIZE; j++) {
+                sb.append(contains(bitboard, i * SIZE + j) ? 'x' : '.');
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+}
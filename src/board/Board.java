@@ -4,6 +4,7 @@ import java.lang.reflect.Constructor;
 import java.util.*;
 import pieces.*;
 import utils.Pair;
+import utils.Termination;
 
 import static utils.Global.SIZE;
 
@@ -18,21 +19,69 @@ public class Board {
     );
 
     public static class Position {
+        private static final Color[] COLORS = Color.values();
+        private static final PieceType[] TYPES = PieceType.values();
+        // Number of half-moves without a capture or a pawn move after which the game is drawn
+        private static final int HALF_MOVES_UNTIL_DRAW = 100;
+        private static final int INITIAL_HISTORY_CAPACITY = 64;
+        // The light cells, whose row and column indices have an even sum (a8 is a light cell)
+        private static final long LIGHT_CELLS = computeLightCells();
+
+        // Bitboards (see Bitboards): one per piece color and type, one per color, and one for all pieces
+        private final long[][] pieces = new long[COLORS.length][TYPES.length];
+        private final long[] colors = new long[COLORS.length];
+        private long occupied = Bitboards.EMPTY;
+        // Type index of the piece on every occupied square (meaningless for empty squares), for constant-time lookups
+        private final byte[] types = new byte[SIZE * SIZE];
+        private final int[] movesMade = new int[SIZE * SIZE];
+        // Incrementally maintained lists of the cells occupied by the pieces of each color
+        private final PieceList[] pieceLists = {new PieceList(), new PieceList()};
+        // The last move made, in packed form (see PackedMove)
+        private int lastMove = PackedMove.NONE;
+        private Color sideToMove = Color.WHITE;
+        // Number of half-moves since the last capture or pawn move, for the 50-move rule
+        private int halfMoveClock = 0;
+        // Number of the current full move: 1 at the start of a game, incremented after every move of black
+        private int fullMoveNumber = 1;
+        // Zobrist keys of the earlier positions, one per move made with Board#makeMove(int) and not taken back (oldest
+        // first), for the detection of repetitions
+        private long[] history;
+        private int historySize = 0;
+        // Zobrist key (see Zobrist), maintained incrementally; stateKey is the part of the key that describes the side
+        // to move, the castling rights and the en passant file
+        private long key = 0;
+        private long stateKey = 0;
+        // Evaluation terms (see PieceSquareTables), maintained incrementally: the material of each color, the sums of
+        // the middlegame and endgame values of all pieces (positive for white) and the game phase
+        private final int[] material = new int[COLORS.length];
+        private int middlegame = 0;
+        private int endgame = 0;
+        private int phase = 0;
+        // Grid view of the position, only built on demand for code that needs it
         private final Piece[][] grid = new Piece[SIZE][SIZE];
-        private final int[][] movesMade = new int[SIZE][SIZE];
-        private final Cell[] kings = new Cell[2];
-        private Move lastMove = null;
+        private boolean gridValid = false;
+
+        /**
+         * Private method that computes the bitboard of the light cells.
+         */
+        private static long computeLightCells() {
+            long light = Bitboards.EMPTY;
+            for (int square = 0; square < SIZE * SIZE; square++) {
+                if ((Bitboards.row(square) + Bitboards.col(square)) % 2 == 0) {
+                    light |= Bitboards.bit(square);
+                }
+            }
+            return light;
+        }
 
         /**
          * Private method that initializes all elements of the {@code movesMade} array to {@code 0}. <br><br>
          *
-         * {@code movesMade[i][j]} represents the number of times that the piece currently located at {@code (i, j)}
+         * {@code movesMade[i]} represents the number of times that the piece currently located at square {@code i}
          * moved.
          */
         private void initHasMoved() {
-            for (int i = 0; i < SIZE; i++) {
-                Arrays.fill(movesMade[i], 0);
-            }
+            Arrays.fill(movesMade, 0);
         }
 
         // TODO: generalize to sizes not equal to 8
@@ -54,6 +103,7 @@ public class Board {
          * @param order the back rank order, as described above
          */
         public Position(String order) {
+            this(INITIAL_HISTORY_CAPACITY);
             Class<?>[] defaultOrder = new Class[SIZE];
             for (int i = 0; i < SIZE; i++) {
                 char c = Character.toUpperCase(order.charAt(i));
@@ -78,6 +128,7 @@ public class Board {
                 }
             }
             initHasMoved(); // because we touched elements of hasMoved
+            updateStateKey();
         }
 
         /**
@@ -86,12 +137,25 @@ public class Board {
          * @param grid a 2-dimensional array of pieces
          */
         public Position(Piece[][] grid) {
+            this(INITIAL_HISTORY_CAPACITY);
             for (int i = 0; i < SIZE; i++) {
                 for (int j = 0; j < SIZE; j++) {
                     set(new Cell(i, j), grid[i][j], 0);
                 }
             }
             initHasMoved(); // because we touched elements of hasMoved
+            updateStateKey();
+        }
+
+        /**
+         * Private constructor of an empty position with white to move, as described by the initial values of the
+         * fields, so nothing has to be computed. Used by the other constructors, and directly when all fields are set
+         * right after (see {@link #clone()} and {@link #fromFen(CharSequence)}).
+         *
+         * @param historyCapacity the initial capacity of the key history
+         */
+        private Position(int historyCapacity) {
+            history = new long[historyCapacity];
         }
 
         /**
@@ -106,51 +170,291 @@ public class Board {
          */
         public Position(Piece[][] grid, boolean wk, boolean wq, boolean bk, boolean bq, Move last) {
             this(grid);
-            lastMove = last;
+            lastMove = PackedMove.encode(last);
             if (grid[0][0] instanceof Rook && grid[0][0].getColor() == Color.BLACK && !bq) {
-                movesMade[0][0] = 1;
+                movesMade[0] = 1;
             }
             if (grid[0][SIZE - 1] instanceof Rook && grid[0][SIZE - 1].getColor() == Color.BLACK && !bk) {
-                movesMade[0][SIZE - 1] = 1;
+                movesMade[SIZE - 1] = 1;
             }
             if (grid[SIZE - 1][0] instanceof Rook && grid[SIZE - 1][0].getColor() == Color.WHITE && !wq) {
-                movesMade[SIZE - 1][0] = 1;
+                movesMade[(SIZE - 1) * SIZE] = 1;
             }
             if (grid[SIZE - 1][SIZE - 1] instanceof Rook && grid[SIZE - 1][SIZE - 1].getColor() == Color.WHITE && !wk) {
-                movesMade[SIZE - 1][SIZE - 1] = 1;
+                movesMade[SIZE * SIZE - 1] = 1;
             }
             // Possibly, `movesMade` does not reflect the true move count, but this constructor assumes that a lone
             // `Position` is created, with no connection to any `Board` or `Game`.
+            if (last != null && last.getPiece() != null) {
+                sideToMove = Color.getOppositeColor(last.getPiece().getColor());
+            }
+            updateStateKey();
         }
 
         /**
          * Gets the last move made in this position.
          *
-         * @return the last move made in this position
+         * @return the last move made in this position, or {@code null} if there is none
          */
         public Move getLastMove() {
+            return lastMove == PackedMove.NONE ? null : PackedMove.toMove(lastMove);
+        }
+
+        /**
+         * Gets the last move made in this position in packed form, without creating a {@code Move} object.
+         *
+         * @return the last move made in this position (see {@link PackedMove}), or {@link PackedMove#NONE} if there
+         * is none
+         */
+        int getLastPackedMove() {
             return lastMove;
         }
 
-        // TODO: avoid looping of whole board every time (beware of ConcurrentModificationException)
         /**
-         * Returns the list of pieces of a given color
+         * Returns the color of the player to move. It is white in a new position (unless the position was created with
+         * a last move of white), and changes with every move made with {@link Board#makeMove(Move)}.
+         *
+         * @return the color of the player to move
+         */
+        public Color getSideToMove() {
+            return sideToMove;
+        }
+
+        /**
+         * Returns the Zobrist key of this position (see {@link Zobrist}), which covers the placement of the pieces, the
+         * side to move, the castling rights and the file of a possible en passant capture. The key is maintained
+         * incrementally, so this method runs in constant time.<br><br>
+         *
+         * When assertions are enabled, the incremental key is checked against {@link #computeKey()} after every move
+         * made or taken back on a {@code Board}.
+         *
+         * @return the Zobrist key of this position
+         */
+        public long getKey() {
+            return key;
+        }
+
+        /**
+         * Computes the Zobrist key of this position from scratch. Meant for debugging: the result must always be equal
+         * to {@link #getKey()}.
+         *
+         * @return the Zobrist key of this position
+         */
+        public long computeKey() {
+            long result = computeStateKey();
+            for (int color = 0; color < COLORS.length; color++) {
+                for (int type = 0; type < TYPES.length; type++) {
+                    for (long b = pieces[color][type]; b != 0; b = Bitboards.popLowest(b)) {
+                        result ^= Zobrist.piece(color, type, Bitboards.lowest(b));
+                    }
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Returns the material of a player: the sum of the values of its pieces (see {@link PieceSquareTables}),
+         * maintained incrementally.
          *
          * @param color a {@code Color}
-         * @return the list of all pieces of color {@code color}
+         * @return the material of the player of color {@code color}, in centipawns
          */
-        public HashSet<Cell> getPieceList(Color color) {
-            HashSet<Cell> pieces = new HashSet<>();
-            for (int i = 0; i < SIZE; i++) {
-                for (int j = 0; j < SIZE; j++) {
-                    Cell cell = new Cell(i, j);
-                    Piece piece = get(cell);
-                    if (piece != null && piece.getColor() == color) {
-                        pieces.add(cell);
+        public int getMaterial(Color color) {
+            return material[color.ordinal()];
+        }
+
+        /**
+         * Returns the sum of the middlegame piece-square values of all pieces, material included (see {@link
+         * PieceSquareTables}), maintained incrementally.
+         *
+         * @return the middlegame score of this position for white, in centipawns
+         */
+        public int getMiddlegameScore() {
+            return middlegame;
+        }
+
+        /**
+         * Returns the sum of the endgame piece-square values of all pieces, material included (see {@link
+         * PieceSquareTables}), maintained incrementally.
+         *
+         * @return the endgame score of this position for white, in centipawns
+         */
+        public int getEndgameScore() {
+            return endgame;
+        }
+
+        /**
+         * Returns the game phase: the sum of the phase weights of all pieces (see {@link PieceSquareTables}), from
+         * {@link PieceSquareTables#MAX_PHASE} in the initial position down to {@code 0} when only kings and pawns are
+         * left. Promotions may bring it above the maximum.
+         *
+         * @return the game phase of this position
+         */
+        public int getPhase() {
+            return phase;
+        }
+
+        /**
+         * Recomputes the evaluation terms of this position from scratch and compares them with the incremental ones.
+         * Meant for debugging: the result must always be {@code true}. When assertions are enabled, it is checked after
+         * every move made or taken back on a {@code Board}, like the key.
+         *
+         * @return whether the material, the middlegame and endgame scores and the phase are up to date
+         */
+        public boolean hasConsistentEvaluation() {
+            int[] expectedMaterial = new int[COLORS.length];
+            int expectedMiddlegame = 0;
+            int expectedEndgame = 0;
+            int expectedPhase = 0;
+            for (int color = 0; color < COLORS.length; color++) {
+                for (int type = 0; type < TYPES.length; type++) {
+                    for (long b = pieces[color][type]; b != 0; b = Bitboards.popLowest(b)) {
+                        int square = Bitboards.lowest(b);
+                        expectedMaterial[color] += PieceSquareTables.value(type);
+                        expectedMiddlegame += PieceSquareTables.middlegame(color, type, square);
+                        expectedEndgame += PieceSquareTables.endgame(color, type, square);
+                        expectedPhase += PieceSquareTables.phase(type);
                     }
                 }
             }
-            return pieces;
+            return Arrays.equals(material, expectedMaterial) && middlegame == expectedMiddlegame
+                    && endgame == expectedEndgame && phase == expectedPhase;
+        }
+
+        /**
+         * Private method that computes the part of the Zobrist key that does not depend on the placement of the
+         * pieces.
+         */
+        private long computeStateKey() {
+            long result = sideToMove == Color.BLACK ? Zobrist.blackToMove() : 0;
+            for (Color color : COLORS) {
+                if (hasCastlingRight(color, MoveCategory.O_O)) {
+                    result ^= Zobrist.castling(color, MoveCategory.O_O);
+                }
+                if (hasCastlingRight(color, MoveCategory.O_O_O)) {
+                    result ^= Zobrist.castling(color, MoveCategory.O_O_O);
+                }
+            }
+            int enPassant = getEnPassantSquare();
+            if (enPassant >= 0) {
+                result ^= Zobrist.enPassant(Bitboards.col(enPassant));
+            }
+            return result;
+        }
+
+        /**
+         * Private method that brings the part of the key describing the side to move, the castling rights and the en
+         * passant file up to date. Must be called whenever one of these may have changed, i.e. after every change of
+         * the move counts, of the last move or of the side to move.
+         */
+        private void updateStateKey() {
+            long updated = computeStateKey();
+            key ^= stateKey ^ updated;
+            stateKey = updated;
+        }
+
+        /**
+         * Determines whether the player of a given color still has the right to castle on a given side, i.e. whether
+         * the king stands unmoved on its back rank and an unmoved rook of the same color stands in the corner of the
+         * back rank on that side. Whether castling is actually legal also depends on the cells between the king and the
+         * rook and on the attacks of the opponent.
+         *
+         * @param color a {@code Color}
+         * @param category {@link MoveCategory#O_O} or {@link MoveCategory#O_O_O}
+         * @return {@code true} if the player of color {@code color} has the right to castle on the side given by
+         * {@code category}, or {@code false} otherwise
+         */
+        public boolean hasCastlingRight(Color color, MoveCategory category) {
+            long king = pieces[color.ordinal()][PieceType.KING.ordinal()];
+            int backRank = color == Color.WHITE ? SIZE - 1 : 0;
+            if (king == 0 || Bitboards.row(Bitboards.lowest(king)) != backRank
+                    || movesMade[Bitboards.lowest(king)] != 0) {
+                return false;
+            }
+            int rook = Bitboards.square(backRank, category == MoveCategory.O_O ? SIZE - 1 : 0);
+            return Bitboards.contains(pieces[color.ordinal()][PieceType.ROOK.ordinal()], rook) && movesMade[rook] == 0;
+        }
+
+        /**
+         * Returns the cell where the player to move can capture en passant, i.e. the cell passed over by an enemy pawn
+         * that advanced by two cells with the last move, provided that a pawn of the player to move attacks it
+         * (whether the capture is legal is not checked).
+         *
+         * @return the square index of the en passant target cell, or {@code -1} if there is none
+         */
+        int getEnPassantSquare() {
+            int target = MoveGenerator.getEnPassantTarget(this, sideToMove);
+            if (target < 0 || (Attacks.pawn(Color.getOppositeColor(sideToMove), target)
+                    & pieces[sideToMove.ordinal()][PieceType.PAWN.ordinal()]) == 0) {
+                return -1;
+            }
+            return target;
+        }
+
+        /**
+         * Returns the list of pieces of a given color. The list is a read-only view maintained by this position, so
+         * this method runs in constant time and does not allocate.
+         *
+         * @param color a {@code Color}
+         * @return the list of all pieces of color {@code color}
+         * @see PieceList
+         */
+        public PieceList getPieceList(Color color) {
+            return pieceLists[color.ordinal()];
+        }
+
+        /**
+         * Returns the number of pieces of a given color and type, in constant time.
+         *
+         * @param color a {@code Color}
+         * @param type a {@code PieceType}
+         * @return the number of pieces of color {@code color} and type {@code type}
+         */
+        public int getPieceCount(Color color, PieceType type) {
+            return Bitboards.count(pieces[color.ordinal()][type.ordinal()]);
+        }
+
+        /**
+         * Returns the number of pieces of a given color, in constant time.
+         *
+         * @param color a {@code Color}
+         * @return the number of pieces of color {@code color}
+         */
+        public int getPieceCount(Color color) {
+            return pieceLists[color.ordinal()].size();
+        }
+
+        /**
+         * Returns the bitboard of all pieces of a given color and type.
+         *
+         * @param color a {@code Color}
+         * @param type a {@code PieceType}
+         * @return the bitboard of all pieces of color {@code color} and type {@code type}
+         * @see Bitboards
+         */
+        public long getPieces(Color color, PieceType type) {
+            return pieces[color.ordinal()][type.ordinal()];
+        }
+
+        /**
+         * Returns the bitboard of all pieces of a given color.
+         *
+         * @param color a {@code Color}
+         * @return the bitboard of all pieces of color {@code color}
+         * @see Bitboards
+         */
+        public long getOccupancy(Color color) {
+            return colors[color.ordinal()];
+        }
+
+        /**
+         * Returns the bitboard of all pieces on the board.
+         *
+         * @return the bitboard of all occupied squares
+         * @see Bitboards
+         */
+        public long getOccupancy() {
+            return occupied;
         }
 
         public int getPromotionRow(Color color) {
@@ -168,7 +472,36 @@ public class Board {
          * @return the piece located at {@code cell}, or {@code null} if there is no piece in {@code cell}
          */
         public Piece get(Cell cell) {
-            return grid[cell.getRow()][cell.getCol()];
+            return cell.withinBounds() ? get(cell.getSquare()) : null;
+        }
+
+        /**
+         * Returns the piece located at the given square.
+         *
+         * @param square a square index
+         * @return the piece located at {@code square}, or {@code null} if {@code square} is empty
+         */
+        public Piece get(int square) {
+            long mask = Bitboards.bit(square);
+            if ((occupied & mask) == 0) {
+                return null;
+            }
+            int color = colorAt(square);
+            return Piece.of(TYPES[typeAt(square)], COLORS[color]);
+        }
+
+        /**
+         * Private method that returns the color index of the piece on an occupied square.
+         */
+        private int colorAt(int square) {
+            return (colors[0] & Bitboards.bit(square)) != 0 ? 0 : 1;
+        }
+
+        /**
+         * Private method that returns the type index of the piece on an occupied square.
+         */
+        private int typeAt(int square) {
+            return types[square];
         }
 
         /**
@@ -196,14 +529,21 @@ public class Board {
             if (piece == null) {
                 clear(cell);
             } else {
-                int row = cell.getRow();
-                int col = cell.getCol();
-                grid[row][col] = piece;
-                movesMade[row][col] = pieceMoveCount + 1;
-                if (piece instanceof King) {
-                    int index = piece.getColor() == Color.WHITE ? 0 : 1;
-                    kings[index] = cell;
+                int square = cell.getSquare();
+                int color = piece.getColor().ordinal();
+                if (Bitboards.contains(occupied, square)) {
+                    if (colorAt(square) == color) {
+                        // Same color (e.g. a promotion): only the type changes, the piece list stays as is
+                        retype(square, color, piece.getType().ordinal());
+                    } else {
+                        remove(square);
+                        put(square, color, piece.getType().ordinal());
+                    }
+                } else {
+                    put(square, color, piece.getType().ordinal());
                 }
+                movesMade[square] = pieceMoveCount + 1;
+                updateStateKey();
             }
         }
 
@@ -213,15 +553,136 @@ public class Board {
          * @param cell a {@code Cell}
          */
         private void clear(Cell cell) {
-            int row = cell.getRow();
-            int col = cell.getCol();
-            Piece piece = grid[row][col];
-            if (piece instanceof King) {
-                int index = piece.getColor() == Color.WHITE ? 0 : 1;
-                kings[index] = null;
+            int square = cell.getSquare();
+            if (Bitboards.contains(occupied, square)) {
+                remove(square);
             }
-            grid[row][col] = null;
-            movesMade[row][col] = 0;
+            movesMade[square] = 0;
+            updateStateKey();
+        }
+
+        /**
+         * Private method that places a piece on an empty square, updating the bitboards and the piece lists (but not
+         * the move counts).
+         *
+         * @param square a square index
+         * @param color the color index of the piece
+         * @param type the type index of the piece
+         */
+        private void put(int square, int color, int type) {
+            long mask = Bitboards.bit(square);
+            pieces[color][type] |= mask;
+            colors[color] |= mask;
+            occupied |= mask;
+            types[square] = (byte) type;
+            pieceLists[color].add(square);
+            key ^= Zobrist.piece(color, type, square);
+            addTerms(square, color, type);
+            gridValid = false;
+        }
+
+        /**
+         * Private method that places a piece back on an empty square it was removed from with {@link #remove(int)},
+         * restoring its former index in its piece list.
+         *
+         * @param square a square index
+         * @param color the color index of the piece
+         * @param type the type index of the piece
+         * @param index the index returned by {@code remove} when the piece was removed
+         */
+        private void restore(int square, int color, int type, int index) {
+            long mask = Bitboards.bit(square);
+            pieces[color][type] |= mask;
+            colors[color] |= mask;
+            occupied |= mask;
+            types[square] = (byte) type;
+            pieceLists[color].insert(square, index);
+            key ^= Zobrist.piece(color, type, square);
+            addTerms(square, color, type);
+            gridValid = false;
+        }
+
+        /**
+         * Private method that removes the piece from an occupied square, updating the bitboards and the piece lists
+         * (but not the move counts).
+         *
+         * @param square a square index
+         * @return the former index of the piece in its piece list
+         */
+        private int remove(int square) {
+            long mask = Bitboards.bit(square);
+            int color = colorAt(square);
+            int type = typeAt(square);
+            pieces[color][type] &= ~mask;
+            colors[color] &= ~mask;
+            occupied &= ~mask;
+            key ^= Zobrist.piece(color, type, square);
+            removeTerms(square, color, type);
+            gridValid = false;
+            return pieceLists[color].remove(square);
+        }
+
+        /**
+         * Private method that changes the type of the piece on an occupied square (e.g. for a promotion), keeping its
+         * color, its place in the piece list and its move count.
+         *
+         * @param square a square index
+         * @param color the color index of the piece
+         * @param type the new type index of the piece
+         */
+        private void retype(int square, int color, int type) {
+            long mask = Bitboards.bit(square);
+            int oldType = typeAt(square);
+            pieces[color][oldType] &= ~mask;
+            pieces[color][type] |= mask;
+            types[square] = (byte) type;
+            key ^= Zobrist.piece(color, oldType, square) ^ Zobrist.piece(color, type, square);
+            removeTerms(square, color, oldType);
+            addTerms(square, color, type);
+            gridValid = false;
+        }
+
+        /**
+         * Private method that moves the piece from an occupied square to an empty square, updating the bitboards and
+         * the piece lists (but not the move counts). The piece keeps its index in its piece list.
+         *
+         * @param from a square index
+         * @param to a square index
+         */
+        private void relocate(int from, int to) {
+            long mask = Bitboards.bit(from) | Bitboards.bit(to);
+            int color = colorAt(from);
+            int type = typeAt(from);
+            pieces[color][type] ^= mask;
+            colors[color] ^= mask;
+            occupied ^= mask;
+            types[to] = types[from];
+            pieceLists[color].move(from, to);
+            key ^= Zobrist.piece(color, type, from) ^ Zobrist.piece(color, type, to);
+            middlegame += PieceSquareTables.middlegame(color, type, to)
+                    - PieceSquareTables.middlegame(color, type, from);
+            endgame += PieceSquareTables.endgame(color, type, to) - PieceSquareTables.endgame(color, type, from);
+            gridValid = false;
+        }
+
+        /**
+         * Private method that adds the evaluation terms of a piece placed on a square.
+         */
+        private void addTerms(int square, int color, int type) {
+            material[color] += PieceSquareTables.value(type);
+            middlegame += PieceSquareTables.middlegame(color, type, square);
+            endgame += PieceSquareTables.endgame(color, type, square);
+            phase += PieceSquareTables.phase(type);
+        }
+
+        /**
+         * Private method that subtracts the evaluation terms of a piece removed from a square.
+         */
+        private void removeTerms(int square, int color, int type) {
+            material[color] -= PieceSquareTables.value(type);
+            middlegame -= PieceSquareTables.middlegame(color, type, square);
+            endgame -= PieceSquareTables.endgame(color, type, square);
+            phase -= PieceSquareTables.phase(type);
         }
 
         /**
@@ -234,10 +695,16 @@ public class Board {
          * @see #unmove(Cell, Cell)
          */
         private void move(Cell start, Cell target) {
-            int cnt = movesMade(start);
-            Piece piece = get(start);
-            clear(start);
-            set(target, piece, cnt);
+            int from = start.getSquare();
+            int to = target.getSquare();
+            int cnt = movesMade[from];
+            if (Bitboards.contains(occupied, to)) {
+                remove(to);
+            }
+            relocate(from, to);
+            movesMade[from] = 0;
+            movesMade[to] = cnt + 1;
+            updateStateKey();
         }
 
         /**
@@ -251,10 +718,150 @@ public class Board {
          * @see #move(Cell, Cell)
          */
         private void unmove(Cell start, Cell target) {
-            int cnt = movesMade(target);
-            Piece piece = get(target);
-            clear(target);
-            set(start, piece, cnt - 2);
+            int from = start.getSquare();
+            int to = target.getSquare();
+            int cnt = movesMade[to];
+            relocate(to, from);
+            movesMade[to] = 0;
+            movesMade[from] = cnt - 1;
+            updateStateKey();
+        }
+
+        /**
+         * Removes all pieces from this position and resets its state: no last move, white to move. Together with
+         * {@link #place(int, Color, PieceType)} and {@link #setSideToMove(Color)}, this allows to fill a single
+         * position with any number of arrangements without allocating, e.g. when sampling random positions.<br><br>
+         *
+         * Must not be called on the position of a {@code Board} with moves that were not taken back.
+         */
+        public void clear() {
+            for (long b = occupied; b != 0; b = Bitboards.popLowest(b)) {
+                movesMade[Bitboards.lowest(b)] = 0;
+            }
+            for (int i = 0; i < COLORS.length; i++) {
+                Arrays.fill(pieces[i], Bitboards.EMPTY);
+                colors[i] = Bitboards.EMPTY;
+                pieceLists[i].clear();
+            }
+            occupied = Bitboards.EMPTY;
+            lastMove = PackedMove.NONE;
+            sideToMove = Color.WHITE;
+            halfMoveClock = 0;
+            fullMoveNumber = 1;
+            historySize = 0;
+            // White to move, no castling rights and no en passant: the key of the empty position is 0
+            key = 0;
+            stateKey = 0;
+            Arrays.fill(material, 0);
+            middlegame = 0;
+            endgame = 0;
+            phase = 0;
+            gridValid = false;
+        }
+
+        /**
+         * Places a piece on an empty square. As with {@link #Position(Piece[][])}, the piece is considered not to have
+         * moved yet, so a king and a rook placed on their initial squares have the right to castle.
+         *
+         * @param square a square index (see {@link Bitboards})
+         * @param color the color of the piece
+         * @param type the type of the piece
+         * @throws IllegalArgumentException if {@code square} is occupied
+         */
+        public void place(int square, Color color, PieceType type) {
+            if (Bitboards.contains(occupied, square)) {
+                throw new IllegalArgumentException("square " + Cell.of(square) + " is already occupied");
+            }
+            put(square, color.ordinal(), type.ordinal());
+            // Only kings and rooks on a back row affect the castling rights, and en passant needs a last move
+            int row = Bitboards.row(square);
+            if (lastMove != PackedMove.NONE
+                    || ((type == PieceType.KING || type == PieceType.ROOK) && (row == 0 || row == SIZE - 1))) {
+                updateStateKey();
+            }
+        }
+
+        /**
+         * Sets the color of the player to move.
+         *
+         * @param color a {@code Color}
+         */
+        public void setSideToMove(Color color) {
+            if (lastMove == PackedMove.NONE) {
+                // Without a last move, the side to move only affects its own part of the key
+                if (color != sideToMove) {
+                    key ^= Zobrist.blackToMove();
+                    stateKey ^= Zobrist.blackToMove();
+                }
+                sideToMove = color;
+            } else {
+                sideToMove = color;
+                updateStateKey();
+            }
+        }
+
+        /**
+         * Returns the number of half-moves made since the last capture or pawn move, which is maintained by {@link
+         * Board#makeMove(int)} and restored by {@link Board#unmakeMove()}. A new position starts with {@code 0}.
+         *
+         * @return the half-move clock of the 50-move rule
+         */
+        public int getHalfMoveClock() {
+            return halfMoveClock;
+        }
+
+        /**
+         * Sets the number of half-moves made since the last capture or pawn move, e.g. when a position is set up in
+         * the middle of a game.
+         *
+         * @param halfMoveClock a non-negative number of half-moves
+         * @throws IllegalArgumentException if {@code halfMoveClock} is negative
+         */
+        public void setHalfMoveClock(int halfMoveClock) {
+            if (halfMoveClock < 0) {
+                throw new IllegalArgumentException("the half-move clock cannot be negative");
+            }
+            this.halfMoveClock = halfMoveClock;
+        }
+
+        /**
+         * Returns the number of the current full move, as in FEN: {@code 1} in a new position, and incremented by
+         * {@link Board#makeMove(int)} after every move of black.
+         *
+         * @return the full move number
+         */
+        public int getFullMoveNumber() {
+            return fullMoveNumber;
+        }
+
+        /**
+         * Sets the number of the current full move, e.g. when a position is set up in the middle of a game.
+         *
+         * @param fullMoveNumber a positive move number
+         * @throws IllegalArgumentException if {@code fullMoveNumber} is not positive
+         */
+        public void setFullMoveNumber(int fullMoveNumber) {
+            if (fullMoveNumber < 1) {
+                throw new IllegalArgumentException("the full move number must be positive");
+            }
+            this.fullMoveNumber = fullMoveNumber;
+        }
+
+        /**
+         * Package-private method that marks the piece on a square as having moved, which removes the castling rights
+         * that depend on it.
+         */
+        void markMoved(int square) {
+            movesMade[square] = Math.max(movesMade[square], 1);
+            updateStateKey();
+        }
+
+        /**
+         * Package-private method that sets the last move, in packed form, which determines the en passant state.
+         */
+        void setLastPackedMove(int move) {
+            lastMove = move;
+            updateStateKey();
         }
 
         /**
@@ -264,7 +871,7 @@ public class Board {
          * @return {@code true} if {@code cell} is occupied, or {@code false} otherwise
          */
         public boolean isOccupied(Cell cell) {
-            return cell.withinBounds() && get(cell) != null;
+            return cell.withinBounds() && Bitboards.contains(occupied, cell.getSquare());
         }
 
         /**
@@ -278,7 +885,7 @@ public class Board {
          * @return {@code true} if the piece located at {@code cell} has moved before, or {@code false} otherwise
          */
         public boolean hasMoved(Cell cell) {
-            return movesMade[cell.getRow()][cell.getCol()] > 0;
+            return movesMade[cell.getSquare()] > 0;
         }
 
         /**
@@ -288,7 +895,7 @@ public class Board {
          * @return the number of moves made by the piece located at {@code cell}
          */
         public int movesMade(Cell cell) {
-            return movesMade[cell.getRow()][cell.getCol()];
+            return movesMade[cell.getSquare()];
         }
 
         /**
@@ -298,7 +905,8 @@ public class Board {
          * @return the cell currently containing the king of the color {@code color}
          */
         public Cell getKingCell(Color color) {
-            return color == Color.WHITE ? kings[0] : kings[1];
+            long king = pieces[color.ordinal()][PieceType.KING.ordinal()];
+            return king == 0 ? null : Cell.of(Bitboards.lowest(king));
         }
 
         /**
@@ -316,37 +924,6 @@ public class Board {
             return p == null || p.getColor() != piece.getColor();
         }
 
-        /**
-         * Auxiliary method that determines whether there is a free (that is, not consisting of pieces of any color)
-         * horizontal, vertical or diagonal path between two cells passed as parameters. Both endpoints are exclusive,
-         * i.e. only the path strictly between the two cells is considered.
-         * @param start the beginning of the path
-         * @param target the end of the path
-         * @param dr the row delta between two adjacent cells in the path
-         * @param dc the column delta between two adjacent cells in the path
-         * @return {@code true} if there is a free path between {@code first} and {@code second}, exclusive, or {@code
-         * false} otherwise
-         */
-        private boolean isFreePathBetween(Cell start, Cell target, int dr, int dc) {
-            if (start.equals(target)) {
-                return true;
-            }
-            int startRow = start.getRow();
-            int startCol = start.getCol();
-            int targetRow = target.getRow();
-            int targetCol = target.getCol();
-            while (true) {
-                startRow += dr;
-                startCol += dc;
-                if (startRow == targetRow && startCol == targetCol) {
-                    return true;
-                }
-                if (isOccupied(new Cell(startRow, startCol))) {
-                    return false;
-                }
-            }
-        }
-
         /**
          * Determines whether there is a free (that is, not consisting of pieces of any color) horizontal, vertical or
          * diagonal path between two cells passed as parameters. Both endpoints are exclusive, i.e. only the path
@@ -358,30 +935,14 @@ public class Board {
          * false} otherwise
          */
         public boolean isFreePathBetween(Cell first, Cell second) {
-            if (first.getRow() == second.getRow()) {
-                // Cells on one horizontal path
-                if (first.getCol() > second.getCol()) {
-                    return isFreePathBetween(second, first);
-                }
-                return isFreePathBetween(first, second, 0, 1);
-            } else if (first.getCol() == second.getCol()) {
-                // Cells on one vertical path
-                if (first.getRow() > second.getRow()) {
-                    return isFreePathBetween(second, first);
-                }
-                return isFreePathBetween(first, second, 1, 0);
-            } else if (first.getCol() - first.getRow() == second.getCol() - second.getRow()) {
-                // Cells on one diagonal; top-left <-> bottom-right
-                if (first.getRow() > second.getRow()) {
-                    return isFreePathBetween(second, first);
-                }
-                return isFreePathBetween(first, second, 1, 1);
-            } else if (first.getCol() + first.getRow() == second.getCol() + second.getRow()) {
-                // Cells on one diagonal; top-right <-> bottom-left
-                if (first.getRow() > second.getRow()) {
-                    return isFreePathBetween(second, first);
-                }
-                return isFreePathBetween(first, second, 1, -1);
+            int a = first.getSquare();
+            int b = second.getSquare();
+            if (a == b) {
+                return true;
+            }
+            if (Attacks.line(a, b) != Bitboards.EMPTY) {
+                // Cells on one horizontal, vertical or diagonal path
+                return (Attacks.between(a, b) & occupied) == 0;
             }
             throw new IllegalArgumentException("input cells " + first + " and " + second + " are not connected with" +
                     " a horizontal, vertical, or diagonal path");
@@ -406,7 +967,7 @@ public class Board {
             int r = Math.max(first.getCol(), second.getCol());
             int row = first.getRow();
             for (int col = l + 1; col < r; col++) {
-                if (isAttacked(new Cell(row, col), Color.getOppositeColor(color))) {
+                if (isAttacked(Cell.of(row, col), Color.getOppositeColor(color))) {
                     return false;
                 }
             }
@@ -427,18 +988,10 @@ public class Board {
                 return false;
             }
             Piece piece = get(start);
-            if (piece == null || target == null) {
-                return false;
-            }
-            int dr = target.getRow() - start.getRow();
-            int dc = target.getCol() - start.getCol();
-            if (!piece.validCaptureDelta(dr, dc)) {
+            if (piece == null || target == null || !target.withinBounds()) {
                 return false;
             }
-            if (!piece.canJump() && !(piece instanceof Pawn)) {
-                return isFreePathBetween(start, target);
-            }
-            return true;
+            return Bitboards.contains(piece.getAttacks(start.getSquare(), occupied), target.getSquare());
         }
 
         /**
@@ -449,15 +1002,76 @@ public class Board {
          * @return a pair consisting of the number of "white" and "black" attacks on {@code cell}
          */
         public Pair totalAttackCount(Cell cell) {
-            int white = 0;
-            int black = 0;
-            HashSet<Cell> whitePieces = getPieceList(Color.WHITE);
-            HashSet<Cell> blackPieces = getPieceList(Color.BLACK);
-            for (Cell c : whitePieces) white += attacks(c, cell) ? 1 : 0;
-            for (Cell c : blackPieces) black += attacks(c, cell) ? 1 : 0;
+            long attackers = getAttackers(cell.getSquare(), occupied);
+            int white = Bitboards.count(attackers & colors[Color.WHITE.ordinal()]);
+            int black = Bitboards.count(attackers & colors[Color.BLACK.ordinal()]);
             return new Pair(white, black);
         }
 
+        /**
+         * Returns the set of pieces of both colors that attack a given square, assuming a given occupancy of the
+         * board.<br><br>
+         *
+         * The search works outward from the target square: a piece of some type attacks the square if and only if a
+         * piece of the same type placed on the square would attack the piece (pawns being the only exception, where
+         * the attacks of a pawn of the opposite color are used). The occupancy is a parameter so that callers can look
+         * "through" pieces, e.g. the king that moves away from a slider.
+         *
+         * @param square a square index
+         * @param occupied the bitboard of occupied squares to use for blocking sliding pieces
+         * @return the bitboard of cells containing pieces that attack {@code square}
+         */
+        public long getAttackers(int square, long occupied) {
+            long[] white = pieces[Color.WHITE.ordinal()];
+            long[] black = pieces[Color.BLACK.ordinal()];
+            long rooks = white[PieceType.ROOK.ordinal()] | black[PieceType.ROOK.ordinal()]
+                    | white[PieceType.QUEEN.ordinal()] | black[PieceType.QUEEN.ordinal()];
+            long bishops = white[PieceType.BISHOP.ordinal()] | black[PieceType.BISHOP.ordinal()]
+                    | white[PieceType.QUEEN.ordinal()] | black[PieceType.QUEEN.ordinal()];
+            return (Attacks.pawn(Color.BLACK, square) & white[PieceType.PAWN.ordinal()])
+                    | (Attacks.pawn(Color.WHITE, square) & black[PieceType.PAWN.ordinal()])
+                    | (Attacks.knight(square) & (white[PieceType.KNIGHT.ordinal()] | black[PieceType.KNIGHT.ordinal()]))
+                    | (Attacks.king(square) & (white[PieceType.KING.ordinal()] | black[PieceType.KING.ordinal()]))
+                    | (Attacks.rook(square, occupied) & rooks)
+                    | (Attacks.bishop(square, occupied) & bishops);
+        }
+
+        /**
+         * Returns the set of pieces of a given color that attack a given cell.
+         *
+         * @param cell a {@code Cell}
+         * @param color a {@code Color}
+         * @return the bitboard of cells containing pieces of color {@code color} that attack {@code cell}
+         * @see #getAttackers(int, long)
+         */
+        public long getAttackers(Cell cell, Color color) {
+            return getAttackers(cell.getSquare(), occupied) & colors[color.ordinal()];
+        }
+
+        /**
+         * Determines whether a given square is attacked by any piece of a given color, assuming a given occupancy of
+         * the board. Cheaper piece types are tried first, and the method returns as soon as an attacker is found.
+         *
+         * @param square a square index
+         * @param color a {@code Color}
+         * @param occupied the bitboard of occupied squares to use for blocking sliding pieces
+         * @return {@code true} if there exists a piece of color {@code color} that attacks {@code square}, or {@code
+         * false} otherwise.
+         */
+        boolean isAttacked(int square, Color color, long occupied) {
+            long[] own = pieces[color.ordinal()];
+            if ((Attacks.pawn(Color.getOppositeColor(color), square) & own[PieceType.PAWN.ordinal()]) != 0
+                    || (Attacks.knight(square) & own[PieceType.KNIGHT.ordinal()]) != 0
+                    || (Attacks.king(square) & own[PieceType.KING.ordinal()]) != 0) {
+                return true;
+            }
+            long queens = own[PieceType.QUEEN.ordinal()];
+            long rooks = own[PieceType.ROOK.ordinal()] | queens;
+            long bishops = own[PieceType.BISHOP.ordinal()] | queens;
+            return (rooks != 0 && (Attacks.rook(square, occupied) & rooks) != 0)
+                    || (bishops != 0 && (Attacks.bishop(square, occupied) & bishops) != 0);
+        }
+
         /**
          * Determines whether a given cell is attacked by any piece of a given color.
          *
@@ -467,8 +1081,7 @@ public class Board {
          * false} otherwise.
          */
         public boolean isAttacked(Cell cell, Color color) {
-            Pair pair = totalAttackCount(cell);
-            return color == Color.WHITE ? pair.first() > 0 : pair.second() > 0;
+            return cell != null && isAttacked(cell.getSquare(), color, occupied);
         }
 
         /**
@@ -478,15 +1091,118 @@ public class Board {
          * @return {@code true} if the king of color {@code Color} is attacked, or {@code false} otherwise
          */
         public boolean isKingInCheck(Color color) {
-            return isAttacked(getKingCell(color), Color.getOppositeColor(color));
+            long king = pieces[color.ordinal()][PieceType.KING.ordinal()];
+            return king != 0 && isAttacked(Bitboards.lowest(king), Color.getOppositeColor(color), occupied);
         }
 
         public boolean isKingInCheckmate(Color color) {
-            return isKingInCheck(color) && getLegalMoves(color).isEmpty();
+            return isKingInCheck(color) && !hasAnyLegalMove(color);
         }
 
         public boolean isStalemate(Color color) {
-            return !isKingInCheck(color) && getLegalMoves(color).isEmpty();
+            return !isKingInCheck(color) && !hasAnyLegalMove(color);
+        }
+
+        /**
+         * Determines whether the pieces of a given color have at least one legal move. Unlike generating the legal
+         * moves, this stops at the first piece with a legal move and creates no move at all, so it is the cheap way to
+         * tell checkmate and stalemate from an ordinary position.
+         *
+         * @param color a {@code Color}
+         * @return {@code true} if {@code color} has a legal move, or {@code false} otherwise
+         */
+        public boolean hasAnyLegalMove(Color color) {
+            return MoveGenerator.hasLegalMove(this, color);
+        }
+
+        /**
+         * Determines whether neither side has enough material left to checkmate: there are no pawns, rooks or queens,
+         * and either at most one knight or bishop in total, or only bishops that all stand on cells of the same
+         * color.
+         *
+         * @return {@code true} if no sequence of legal moves can lead to checkmate, or {@code false} otherwise
+         */
+        public boolean isInsufficientMaterial() {
+            long heavy = 0;
+            long knights = 0;
+            long bishops = 0;
+            for (int c = 0; c < COLORS.length; c++) {
+                heavy |= pieces[c][PieceType.PAWN.ordinal()] | pieces[c][PieceType.ROOK.ordinal()]
+                        | pieces[c][PieceType.QUEEN.ordinal()];
+                knights |= pieces[c][PieceType.KNIGHT.ordinal()];
+                bishops |= pieces[c][PieceType.BISHOP.ordinal()];
+            }
+            if (heavy != 0) {
+                return false;
+            }
+            if (Bitboards.count(knights | bishops) <= 1) {
+                return true;
+            }
+            return knights == 0 && ((bishops & LIGHT_CELLS) == 0 || (bishops & ~LIGHT_CELLS) == 0);
+        }
+
+        /**
+         * Counts how many times this position occurred before, with the same side to move, castling rights and en
+         * passant state, among the positions reached by the moves made with {@link Board#makeMove(int)} (a copy made
+         * with {@link #clone()} keeps the positions that matter). Since a capture or a pawn move can never be undone,
+         * only the positions since the last one are compared, i.e. at most {@link #getHalfMoveClock()} keys, and only
+         * every second one, as the side to move must be the same.
+         *
+         * @return the number of earlier occurrences of this position: {@code 2} or more means a threefold repetition
+         */
+        public int getRepetitionCount() {
+            int count = 0;
+            int oldest = Math.max(0, historySize - halfMoveClock);
+            // The position four half-moves ago is the most recent one that can be equal to this one
+            for (int i = historySize - 4; i >= oldest; i -= 2) {
+                if (history[i] == key) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Package-private method that appends the key of this position to the history, before a move is made.
+         */
+        void pushHistory() {
+            if (historySize == history.length) {
+                history = Arrays.copyOf(history, 2 * history.length);
+            }
+            history[historySize++] = key;
+        }
+
+        /**
+         * Package-private method that removes the last key from the history, when a move is taken back.
+         */
+        void popHistory() {
+            historySize--;
+        }
+
+        /**
+         * Determines whether the game is over in this position for the side to move: checkmate, stalemate, the
+         * 50-move rule (see {@link #getHalfMoveClock()}), insufficient material or threefold repetition (see {@link
+         * #getRepetitionCount()}). Check and the existence of a legal move are computed only once, and no move is
+         * generated, so this is the method to call after every move of a game.<br><br>
+         *
+         * Checkmate takes precedence over the 50-move rule, as the move that reaches the limit may deliver mate.
+         *
+         * @return the reason why the game is over, or {@code null} if the side to move can play on
+         */
+        public Termination getTerminationStatus() {
+            if (!hasAnyLegalMove(sideToMove)) {
+                return isKingInCheck(sideToMove) ? Termination.CHECKMATE : Termination.STALEMATE;
+            }
+            if (halfMoveClock >= HALF_MOVES_UNTIL_DRAW) {
+                return Termination.FIFTY_MOVE_RULE;
+            }
+            if (isInsufficientMaterial()) {
+                return Termination.INSUFFICIENT_MATERIAL;
+            }
+            if (getRepetitionCount() >= 2) {
+                return Termination.THREEFOLD_REPETITION;
+            }
+            return null;
         }
 
         /**
@@ -501,18 +1217,25 @@ public class Board {
         public boolean isKingSafeMove(Move move) {
             Cell start = move.getStart();
             Cell target = move.getTarget();
-            Piece targetPiece = get(target);
-            int targetCnt = movesMade(target);
+            int to = target.getSquare();
+            boolean capture = Bitboards.contains(occupied, to);
+            int targetColor = capture ? colorAt(to) : -1;
+            int targetType = capture ? typeAt(to) : -1;
+            int targetCnt = movesMade[to];
             Color color = getColor(start);
             boolean verdict = true;
+            // Remove the captured piece first, so that it can be put back at its former index in its piece list
+            int targetIndex = capture ? remove(to) : -1;
             // Pretend we made the move and check whether our king becomes in check, then revert the move
             move(start, target);
             if (isKingInCheck(color)) {
                 verdict = false;
             }
             unmove(start, target);
-            if (targetPiece != null) {
-                set(target, targetPiece, targetCnt - 1);
+            if (capture) {
+                restore(to, targetColor, targetType, targetIndex);
+                movesMade[to] = targetCnt;
+                updateStateKey();
             }
             return verdict;
         }
@@ -560,27 +1283,217 @@ public class Board {
          * Determines whether a move is legal.<br><br>
          *
          * This one-parameter method is needed because {@code lastMove} is private, so this is the method expected to
-         * be called from the outside.
+         * be called from the outside. Unlike {@link #isLegalMove(Move, Move)}, it does not make the move on the
+         * board: the move is looked up among the legal moves of the piece, generated with {@link MoveGenerator}.
          *
          * @param move the move whose legality is to be checked
          * @return {@code true} if {@code move} is legal, or {@code false} otherwise
          */
         public boolean isLegalMove(Move move) {
-            return isLegalMove(move, lastMove);
+            return encode(move) != PackedMove.NONE;
+        }
+
+        /**
+         * Finds the packed representation of a legal move.
+         *
+         * @param move a {@code Move}
+         * @return the packed move (see {@link PackedMove}) equal to {@code move}, or {@link PackedMove#NONE} if {@code
+         * move} is not legal in this position
+         */
+        public int encode(Move move) {
+            Cell start = move.getStart();
+            if (!start.withinBounds() || !move.getTarget().withinBounds() || !isOccupied(start)) {
+                return PackedMove.NONE;
+            }
+            MoveList moves = new MoveList();
+            MoveGenerator.generateLegalMoves(this, getColor(start), Bitboards.bit(start), moves);
+            for (int i = 0; i < moves.size(); i++) {
+                if (PackedMove.matches(moves.get(i), move)) {
+                    return moves.get(i);
+                }
+            }
+            return PackedMove.NONE;
+        }
+
+        /**
+         * Appends all legal moves of the pieces of a given color to a list, in packed form. This method does not
+         * allocate, so it is the one to use in performance-critical code.<br><br>
+         *
+         * The moves are generated with {@link MoveGenerator}, which computes checks and pins once for the whole
+         * position, so no move has to be made on the board to determine its legality.
+         *
+         * @param color a {@code Color}
+         * @param moves the list to append the moves to
+         */
+        public void generateLegalMoves(Color color, MoveList moves) {
+            MoveGenerator.generateLegalMoves(this, color, Bitboards.ALL, moves);
+        }
+
+        /**
+         * Appends the legal moves of the pieces of a given color located on a given set of cells to a list, in packed
+         * form, e.g. to check whether a move remembered from another position (a move of the hash table, a killer
+         * move) is legal here by generating the moves of its start cell only.
+         *
+         * @param color a {@code Color}
+         * @param fromMask the bitboard of cells whose pieces should be considered
+         * @param moves the list to append the moves to
+         */
+        public void generateLegalMoves(Color color, long fromMask, MoveList moves) {
+            MoveGenerator.generateLegalMoves(this, color, fromMask, moves);
+        }
+
+        /**
+         * Appends a subset of the legal moves of the pieces of a given color to a list, in packed form: captures and
+         * promotions (e.g. for a quiescence search), quiet moves, check evasions or quiet checks. Generating the
+         * captures first and the quiet moves only when needed saves most of the generation at nodes where a capture
+         * causes a cutoff.
+         *
+         * @param color a {@code Color}
+         * @param mode the subset of the legal moves to generate
+         * @param moves the list to append the moves to
+         */
+        public void generateMoves(Color color, GenerationMode mode, MoveList moves) {
+            MoveGenerator.generateMoves(this, color, mode, moves);
+        }
+
+        /**
+         * Appends the legal moves of the pieces of a given color that give check to a list, in packed form. Like
+         * {@link #generateLegalMoves(Color, MoveList)}, this method does not allocate.
+         *
+         * @param color a {@code Color}
+         * @param moves the list to append the moves to
+         * @see #givesCheck(int)
+         */
+        public void generateChecks(Color color, MoveList moves) {
+            MoveGenerator.generateChecks(this, color, moves);
         }
 
+        /**
+         * Determines whether a legal move gives check, without making it.
+         *
+         * @param move a legal move in this position, in packed form (see {@link PackedMove})
+         * @return {@code true} if {@code move} gives check to the enemy king, or {@code false} otherwise
+         */
+        public boolean givesCheck(int move) {
+            return MoveGenerator.givesCheck(this, move);
+        }
+
+        /**
+         * Computes the static exchange evaluation of a move (see {@link StaticExchange}): the material balance of the
+         * sequence of captures on the target cell that starts with the move, where each side captures with its least
+         * valuable piece and stops when continuing would lose material. No move is made, and the method does not
+         * allocate, so it can be called for every capture of a search.
+         *
+         * @param move a legal move in this position, in packed form (see {@link PackedMove})
+         * @return the material won by the moving side in centipawns, negative if it loses material
+         */
+        public int getExchangeValue(int move) {
+            return StaticExchange.evaluate(this, move);
+        }
+
+        /**
+         * Creates a position from a string in Forsyth-Edwards Notation (see {@link Fen}).
+         *
+         * @param fen a FEN string, such as {@code rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1}; the move
+         *            counters may be omitted
+         * @return a new {@code Position}
+         * @throws IllegalArgumentException if {@code fen} is not a valid FEN string
+         */
+        public static Position fromFen(CharSequence fen) {
+            Position position = new Position(INITIAL_HISTORY_CAPACITY);
+            Fen.parse(fen, position);
+            return position;
+        }
+
+        /**
+         * Sets up this position from a string in Forsyth-Edwards Notation (see {@link Fen}), replacing its pieces and
+         * its whole state. This does not allocate, so a single position can be reused to load any number of FEN
+         * strings. Must not be called on the position of a {@code Board} with moves that were not taken back.
+         *
+         * @param fen a FEN string; the move counters may be omitted
+         * @throws IllegalArgumentException if {@code fen} is not a valid FEN string, in which case this position is
+         * left in an unspecified state
+         */
+        public void loadFen(CharSequence fen) {
+            Fen.parse(fen, this);
+        }
+
+        /**
+         * @return the FEN string of this position (see {@link Fen})
+         */
+        public String toFen() {
+            return Fen.append(this, new StringBuilder()).toString();
+        }
+
+        /**
+         * Appends the FEN string of this position to a {@code StringBuilder}, without allocating anything else.
+         *
+         * @param builder a {@code StringBuilder}
+         * @return {@code builder}
+         */
+        public StringBuilder appendFen(StringBuilder builder) {
+            return Fen.append(this, builder);
+        }
+
+        /**
+         * Returns all legal moves of the piece located at a given cell.
+         *
+         * @param cell a {@code Cell}
+         * @return the set of legal moves of the piece located at {@code cell} (empty if {@code cell} is empty)
+         */
         public HashSet<Move> getLegalMoves(Cell cell) {
-            Piece piece = get(cell);
-            return piece.getLegalMoves(cell, this, lastMove);
+            MoveList moves = new MoveList();
+            Color color = getColor(cell);
+            if (color != null) {
+                MoveGenerator.generateLegalMoves(this, color, Bitboards.bit(cell), moves);
+            }
+            return moves.toMoves();
         }
 
+        /**
+         * Returns all legal moves of the pieces of a given color.
+         *
+         * @param color a {@code Color}
+         * @return the set of legal moves of the pieces of color {@code color}
+         * @see #generateLegalMoves(Color, MoveList)
+         */
         public HashSet<Move> getLegalMoves(Color color) {
-            HashSet<Cell> pieceList = getPieceList(color);
-            HashSet<Move> moves = new HashSet<>();
-            for (Cell cell : pieceList) {
-                moves.addAll(getLegalMoves(cell));
+            MoveList moves = new MoveList();
+            generateLegalMoves(color, moves);
+            return moves.toMoves();
+        }
+
+        /**
+         * Private method that returns the grid view of this position, rebuilding it from the bitboards if the position
+         * changed since the last call.
+         *
+         * @return the grid view of this position (must not be modified)
+         */
+        private Piece[][] getGridView() {
+            if (!gridValid) {
+                for (int i = 0; i < SIZE; i++) {
+                    for (int j = 0; j < SIZE; j++) {
+                        grid[i][j] = get(i * SIZE + j);
+                    }
+                }
+                gridValid = true;
+            }
+            return grid;
+        }
+
+        /**
+         * Returns a grid representation of this position, compatible with {@link #Position(Piece[][])}. The returned
+         * array is a copy, so altering it does not affect this position.
+         *
+         * @return a 2-dimensional array of pieces
+         */
+        public Piece[][] toGrid() {
+            Piece[][] view = getGridView();
+            Piece[][] copy = new Piece[SIZE][];
+            for (int i = 0; i < SIZE; i++) {
+                copy[i] = view[i].clone();
             }
-            return moves;
+            return copy;
         }
 
         /**
@@ -588,6 +1501,7 @@ public class Board {
          */
         @Override
         public String toString() {
+            Piece[][] grid = getGridView();
             StringBuilder sb = new StringBuilder();
             for (int i = 0; i < SIZE; i++) {
                 for (int j = 0; j < SIZE; j++) {
@@ -602,22 +1516,92 @@ public class Board {
             return sb.toString();
         }
 
+        /**
+         * Two positions are equal if they have the same pieces on the same cells, the same side to move, the same
+         * castling rights and the same en passant capture possibility, i.e. if they are the same position in the sense
+         * of the repetition rule. Move counts beyond the castling rights and the last move beyond the en passant
+         * capture do not matter.
+         */
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Position)) {
+                return false;
+            }
+            Position other = (Position) o;
+            if (key != other.key || sideToMove != other.sideToMove || !Arrays.deepEquals(pieces, other.pieces)
+                    || getEnPassantSquare() != other.getEnPassantSquare()) {
+                return false;
+            }
+            for (Color color : COLORS) {
+                if (hasCastlingRight(color, MoveCategory.O_O) != other.hasCastlingRight(color, MoveCategory.O_O)
+                        || hasCastlingRight(color, MoveCategory.O_O_O)
+                        != other.hasCastlingRight(color, MoveCategory.O_O_O)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(key);
+        }
+
         @Override
         public Position clone() {
-            Position pos = new Position(grid);
-            for (int i = 0; i < SIZE; i++) {
-                System.arraycopy(movesMade[i], 0, pos.movesMade[i], 0, SIZE);
+            // Only the positions since the last capture or pawn move can occur again
+            int keys = Math.min(halfMoveClock, historySize);
+            Position pos = new Position(Math.max(keys, INITIAL_HISTORY_CAPACITY));
+            for (int i = 0; i < COLORS.length; i++) {
+                System.arraycopy(pieces[i], 0, pos.pieces[i], 0, TYPES.length);
+            }
+            System.arraycopy(colors, 0, pos.colors, 0, COLORS.length);
+            pos.occupied = occupied;
+            System.arraycopy(types, 0, pos.types, 0, types.length);
+            System.arraycopy(movesMade, 0, pos.movesMade, 0, movesMade.length);
+            for (int i = 0; i < COLORS.length; i++) {
+                pos.pieceLists[i].copyFrom(pieceLists[i]);
             }
-            // Cells are immutable, so possible to assign
-            pos.kings[0] = kings[0];
-            pos.kings[1] = kings[1];
             pos.lastMove = lastMove;
+            pos.sideToMove = sideToMove;
+            pos.halfMoveClock = halfMoveClock;
+            pos.fullMoveNumber = fullMoveNumber;
+            System.arraycopy(history, historySize - keys, pos.history, 0, keys);
+            pos.historySize = keys;
+            pos.key = key;
+            pos.stateKey = stateKey;
+            System.arraycopy(material, 0, pos.material, 0, COLORS.length);
+            pos.middlegame = middlegame;
+            pos.endgame = endgame;
+            pos.phase = phase;
             return pos;
         }
     }
 
+    private static final int INITIAL_UNDO_CAPACITY = 256;
+
     private final Position position;
 
+    // Undo stack: entry i describes the i-th move made with makeMove that was not taken back yet. The entries are kept
+    // in parallel arrays, so making and taking back moves does not allocate (except when the arrays grow).
+    private int[] undoMoves = new int[INITIAL_UNDO_CAPACITY];
+    // The last move of the position before the move (this also determines the former en passant state)
+    private int[] undoLastMoves = new int[INITIAL_UNDO_CAPACITY];
+    // The number of moves made before by the moving piece
+    private int[] undoMovedCounts = new int[INITIAL_UNDO_CAPACITY];
+    // The type index of the captured piece, or -1 if the move is not a capture
+    private int[] undoCapturedTypes = new int[INITIAL_UNDO_CAPACITY];
+    // The index of the captured piece in its piece list
+    private int[] undoCapturedIndices = new int[INITIAL_UNDO_CAPACITY];
+    // The number of moves made before by the captured piece, or by the rook in case of castling
+    private int[] undoCapturedCounts = new int[INITIAL_UNDO_CAPACITY];
+    // The half-move clock of the position before the move
+    private int[] undoHalfMoveClocks = new int[INITIAL_UNDO_CAPACITY];
+    private int undoSize = 0;
+
     /**
      * Default constructor of {@code Board}
      *
@@ -639,47 +1623,162 @@ public class Board {
      *
      * @param move a {@code Move}
      * @return {@code true} if {@code move} was valid, or {@code false} otherwise
+     * @see #unmakeMove()
      */
     public boolean makeMove(Move move) {
-        if (position.isLegalMove(move)) {
-            MoveCategory category = move.getCategory();
-            if (category == MoveCategory.ORDINARY) {
-                Cell start = move.getStart();
-                Cell target = move.getTarget();
-                Piece piece = move.getPiece();
-                position.move(start, target);
-                position.lastMove = move;
-                int dr = target.getRow() - start.getRow();
-                int dc = target.getCol() - start.getCol();
-                if (piece instanceof Pawn && piece.validCaptureDelta(dr, dc) && !position.isOccupied(target)) {
-                    // En passant
-                    position.clear(start.shift(0, dc));
-                }
-            } else if (category == MoveCategory.O_O || category == MoveCategory.O_O_O) {
-                Cell king = move.getStart();
-                int rookColumn = (category == MoveCategory.O_O ? SIZE - 1 : 0);
-                Cell rook = new Cell(king.getRow(), rookColumn);
-                int multiplier = category == MoveCategory.O_O ? 1 : -1;
-                position.move(rook, king.shift(0, multiplier));
-            } else {
-                Cell start = move.getStart();
-                Cell target = move.getTarget();
-                Color color = position.getColor(start);
-                position.move(start, target);
-                position.lastMove = move;
-                if (category == MoveCategory.PROMOTE_TO_KNIGHT) {
-                    position.set(target, new Knight(color), position.movesMade(target) - 1);
-                } else if (category == MoveCategory.PROMOTE_TO_BISHOP) {
-                    position.set(target, new Bishop(color), position.movesMade(target) - 1);
-                } else if (category == MoveCategory.PROMOTE_TO_ROOK) {
-                    position.set(target, new Rook(color), position.movesMade(target) - 1);
-                } else {
-                    position.set(target, new Queen(color), position.movesMade(target) - 1);
-                }
+        int packed = position.encode(move);
+        if (packed == PackedMove.NONE) {
+            return false;
+        }
+        makeMove(packed);
+        return true;
+    }
+
+    /**
+     * Makes a move given in packed form in the current position, without checking its legality. The move can be taken
+     * back with {@link #unmakeMove()}.<br><br>
+     *
+     * This is the method to use in search: the move must be a legal move of the current position generated by {@link
+     * Position#generateLegalMoves(Color, MoveList)} or returned by {@link Position#encode(Move)}, otherwise the
+     * position becomes inconsistent.
+     *
+     * @param move a legal packed move (see {@link PackedMove})
+     */
+    public void makeMove(int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        MoveCategory category = PackedMove.category(move);
+        if (undoSize == undoMoves.length) {
+            growUndoStack();
+        }
+        int entry = undoSize++;
+        position.pushHistory();
+        undoMoves[entry] = move;
+        undoLastMoves[entry] = position.lastMove;
+        undoMovedCounts[entry] = position.movesMade[from];
+        undoCapturedTypes[entry] = -1;
+        undoHalfMoveClocks[entry] = position.halfMoveClock;
+
+        if (category == MoveCategory.O_O || category == MoveCategory.O_O_O) {
+            // The king moves by CASTLING_DELTA cells, and the rook lands on the cell passed over by the king
+            int rook = getCastlingRookSquare(from, category);
+            int rookTarget = (from + to) / 2;
+            undoCapturedCounts[entry] = position.movesMade[rook];
+            position.relocate(from, to);
+            position.relocate(rook, rookTarget);
+            position.movesMade[from] = 0;
+            position.movesMade[to] = undoMovedCounts[entry] + 1;
+            position.movesMade[rook] = 0;
+            position.movesMade[rookTarget] = undoCapturedCounts[entry] + 1;
+        } else {
+            // The captured pawn of an en passant capture is not on the target cell, but beside the start cell
+            int captured = PackedMove.isEnPassant(move) ? Bitboards.square(Bitboards.row(from), Bitboards.col(to)) : to;
+            if (Bitboards.contains(position.occupied, captured)) {
+                undoCapturedTypes[entry] = position.typeAt(captured);
+                undoCapturedCounts[entry] = position.movesMade[captured];
+                undoCapturedIndices[entry] = position.remove(captured);
+                position.movesMade[captured] = 0;
+            }
+            position.relocate(from, to);
+            position.movesMade[from] = 0;
+            position.movesMade[to] = undoMovedCounts[entry] + 1;
+            PieceType promotion = PackedMove.getPromotionType(category);
+            if (promotion != null) {
+                position.retype(to, position.colorAt(to), promotion.ordinal());
             }
-            return true;
         }
-        return false;
+        position.lastMove = move;
+        position.halfMoveClock = PackedMove.isCapture(move) || PackedMove.piece(move) == PieceType.PAWN ? 0
+                : position.halfMoveClock + 1;
+        if (PackedMove.color(move) == Color.BLACK) {
+            position.fullMoveNumber++;
+        }
+        position.sideToMove = Color.getOppositeColor(PackedMove.color(move));
+        position.updateStateKey();
+        assert position.key == position.computeKey() : "incremental Zobrist key is out of sync";
+        assert position.hasConsistentEvaluation() : "incremental evaluation terms are out of sync";
+    }
+
+    /**
+     * Takes back the last move made with {@link #makeMove(Move)} or {@link #makeMove(int)}, restoring the position
+     * exactly as it was before the move: pieces, move counts (and hence castling rights), the last move (and hence the
+     * en passant state), the half-move clock, the history of keys, and even the order of the piece lists.
+     *
+     * @return {@code true} if a move was taken back, or {@code false} if there is no move to take back
+     */
+    public boolean unmakeMove() {
+        if (undoSize == 0) {
+            return false;
+        }
+        int entry = --undoSize;
+        int move = undoMoves[entry];
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        MoveCategory category = PackedMove.category(move);
+
+        if (category == MoveCategory.O_O || category == MoveCategory.O_O_O) {
+            int rook = getCastlingRookSquare(from, category);
+            int rookTarget = (from + to) / 2;
+            position.relocate(rookTarget, rook);
+            position.relocate(to, from);
+            position.movesMade[to] = 0;
+            position.movesMade[rookTarget] = 0;
+            position.movesMade[rook] = undoCapturedCounts[entry];
+        } else {
+            int color = position.colorAt(to);
+            if (PackedMove.getPromotionType(category) != null) {
+                position.retype(to, color, PieceType.PAWN.ordinal());
+            }
+            position.relocate(to, from);
+            position.movesMade[to] = 0;
+            if (undoCapturedTypes[entry] >= 0) {
+                int captured = PackedMove.isEnPassant(move) ? Bitboards.square(Bitboards.row(from), Bitboards.col(to))
+                        : to;
+                position.restore(captured, 1 - color, undoCapturedTypes[entry], undoCapturedIndices[entry]);
+                position.movesMade[captured] = undoCapturedCounts[entry];
+            }
+        }
+        position.movesMade[from] = undoMovedCounts[entry];
+        position.lastMove = undoLastMoves[entry];
+        position.halfMoveClock = undoHalfMoveClocks[entry];
+        if (PackedMove.color(move) == Color.BLACK) {
+            position.fullMoveNumber--;
+        }
+        position.popHistory();
+        position.sideToMove = PackedMove.color(move);
+        position.updateStateKey();
+        assert position.key == position.computeKey() : "incremental Zobrist key is out of sync";
+        assert position.hasConsistentEvaluation() : "incremental evaluation terms are out of sync";
+        return true;
+    }
+
+    /**
+     * @return the number of moves that can be taken back with {@link #unmakeMove()}
+     */
+    public int getUndoDepth() {
+        return undoSize;
+    }
+
+    /**
+     * Private method that returns the square of the rook taking part in a castling move, i.e. the corner of the back
+     * rank on the side of the castling.
+     */
+    private static int getCastlingRookSquare(int king, MoveCategory category) {
+        return Bitboards.square(Bitboards.row(king), category == MoveCategory.O_O ? SIZE - 1 : 0);
+    }
+
+    /**
+     * Private method that doubles the capacity of the undo stack.
+     */
+    private void growUndoStack() {
+        int capacity = undoMoves.length * 2;
+        undoMoves = Arrays.copyOf(undoMoves, capacity);
+        undoLastMoves = Arrays.copyOf(undoLastMoves, capacity);
+        undoMovedCounts = Arrays.copyOf(undoMovedCounts, capacity);
+        undoCapturedTypes = Arrays.copyOf(undoCapturedTypes, capacity);
+        undoCapturedIndices = Arrays.copyOf(undoCapturedIndices, capacity);
+        undoCapturedCounts = Arrays.copyOf(undoCapturedCounts, capacity);
+        undoHalfMoveClocks = Arrays.copyOf(undoHalfMoveClocks, capacity);
     }
 
     @Override
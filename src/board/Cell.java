@@ -3,6 +3,15 @@ package board;
 import static utils.Global.SIZE;
 
 public class Cell {
+    // Shared instances of all cells within bounds, indexed by square (see #getSquare())
+    private static final Cell[] cells = new Cell[SIZE * SIZE];
+
+    static {
+        for (int i = 0; i < SIZE * SIZE; i++) {
+            cells[i] = new Cell(i / SIZE, i % SIZE);
+        }
+    }
+
     // Coordinates of cell (0-indexed)
     private final int row, col;
 
@@ -37,6 +46,29 @@ public class Cell {
         }
     }
 
+    /**
+     * Returns the shared instance of the cell with a given square index. Since cells are immutable, this method can be
+     * used instead of the constructor in order to avoid allocations in performance-critical code.
+     *
+     * @param square the square index of the cell, as returned by {@link #getSquare()}
+     * @return the cell with square index {@code square}
+     */
+    public static Cell of(int square) {
+        return cells[square];
+    }
+
+    /**
+     * Returns the shared instance of the cell with given coordinates.
+     *
+     * @param row the cell's row index
+     * @param col the cell's column index
+     * @return the cell at {@code (row, col)}
+     * @see #of(int)
+     */
+    public static Cell of(int row, int col) {
+        return cells[row * SIZE + col];
+    }
+
     /**
      * @return the row index of this cell
      */
@@ -51,6 +83,17 @@ public class Cell {
         return col;
     }
 
+    /**
+     * Returns the square index of this cell, i.e. {@code row * SIZE + col}. Squares are numbered from {@code 0}
+     * (top-left corner, {@code a8} on the default board) to {@code SIZE * SIZE - 1} (bottom-right corner, {@code h1}),
+     * and are used as bit indices in the bitboard representation of a position.
+     *
+     * @return the square index of this cell
+     */
+    public int getSquare() {
+        return row * SIZE + col;
+    }
+
     /**
      * @param dr the row displacement
      * @param dc the column displacement
@@ -0,0 +1,302 @@
+package board;
+
+import board.Board.Position;
+import pieces.PieceType;
+
+import static utils.Global.SIZE;
+
+/**
+ * Import and export of positions in Forsyth-Edwards Notation (FEN), e.g. {@code
+ * rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1} for the initial position.<br><br>
+ *
+ * The six fields are mapped onto the state of a {@code Position} as follows:
+ * <ul>
+ *     <li>the piece placement, from the eighth row (square {@code 0}) to the first one, is set up with {@link
+ *     Position#clear()} and {@link Position#place(int, Color, PieceType)};</li>
+ *     <li>the side to move is set with {@link Position#setSideToMove(Color)};</li>
+ *     <li>the castling rights are mapped onto the move counts: a king and a rook on their initial cells have not
+ *     moved, and the rook (or the king) of a missing castling right is marked as moved;</li>
+ *     <li>the en passant cell is mapped onto the last move, as the double advance of the enemy pawn over it;</li>
+ *     <li>the half-move clock and the full move number are set with {@link Position#setHalfMoveClock(int)} and {@link
+ *     Position#setFullMoveNumber(int)}. Both fields may be omitted, as in EPD, and then default to {@code 0} and
+ *     {@code 1}.</li>
+ * </ul>
+ * Parsing reads the characters in place and fills an existing position, so it does not allocate (except for the
+ * message of an exception), and a single position can be reused for any number of FEN strings. The export writes the
+ * en passant cell after every double advance of a pawn, as required by the standard, so a parsed FEN is written back
+ * unchanged.
+ */
+class Fen {
+    private static final PieceType[] TYPES = PieceType.values();
+    private static final char[] CASTLING_LETTERS = {'K', 'Q', 'k', 'q'};
+
+    private Fen() {
+    }
+
+    /**
+     * Sets up a position from a FEN string. The position is cleared first, so it must not belong to a {@code Board}
+     * with moves that were not taken back. If the string is invalid, the position is left in an unspecified state.
+     *
+     * @param fen a FEN string, with four to six fields separated by single spaces
+     * @param position the {@code Position} to set up
+     * @throws IllegalArgumentException if {@code fen} is not a valid FEN string, or if its castling rights or its en
+     * passant cell do not match the placement of the pieces
+     */
+    static void parse(CharSequence fen, Position position) {
+        position.clear();
+        int length = fen.length();
+        int i = parsePlacement(fen, position);
+
+        i = expectSpace(fen, i);
+        Color sideToMove;
+        char side = i < length ? fen.charAt(i++) : ' ';
+        if (side == 'w') {
+            sideToMove = Color.WHITE;
+        } else if (side == 'b') {
+            sideToMove = Color.BLACK;
+        } else {
+            throw invalid(fen, "the side to move must be 'w' or 'b'");
+        }
+        position.setSideToMove(sideToMove);
+
+        i = expectSpace(fen, i);
+        i = parseCastling(fen, i, position);
+
+        i = expectSpace(fen, i);
+        i = parseEnPassant(fen, i, position, sideToMove);
+
+        int halfMoveClock = 0;
+        int fullMoveNumber = 1;
+        if (i < length) {
+            i = expectSpace(fen, i);
+            int start = i;
+            for (halfMoveClock = 0; i < length && isDigit(fen.charAt(i)); i++) {
+                halfMoveClock = addDigit(fen, halfMoveClock, fen.charAt(i));
+            }
+            if (i == start) {
+                throw invalid(fen, "the half-move clock must be a number");
+            }
+            if (i < length) {
+                i = expectSpace(fen, i);
+                start = i;
+                for (fullMoveNumber = 0; i < length && isDigit(fen.charAt(i)); i++) {
+                    fullMoveNumber = addDigit(fen, fullMoveNumber, fen.charAt(i));
+                }
+                if (i == start || i < length || fullMoveNumber < 1) {
+                    throw invalid(fen, "the full move number must be a positive number at the end");
+                }
+            }
+        }
+        position.setHalfMoveClock(halfMoveClock);
+        position.setFullMoveNumber(fullMoveNumber);
+    }
+
+    /**
+     * Appends the FEN string of a position to a {@code StringBuilder}, without any other allocation.
+     *
+     * @param position a {@code Position}
+     * @param builder the {@code StringBuilder} to append to
+     * @return {@code builder}
+     */
+    static StringBuilder append(Position position, StringBuilder builder) {
+        long occupied = position.getOccupancy();
+        long white = position.getOccupancy(Color.WHITE);
+        for (int row = 0; row < SIZE; row++) {
+            if (row > 0) {
+                builder.append('/');
+            }
+            int empty = 0;
+            for (int col = 0; col < SIZE; col++) {
+                int square = Bitboards.square(row, col);
+                if (!Bitboards.contains(occupied, square)) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    builder.append(empty);
+                    empty = 0;
+                }
+                Color color = Bitboards.contains(white, square) ? Color.WHITE : Color.BLACK;
+                char letter = getType(position, color, square).getLetter();
+                builder.append(color == Color.WHITE ? letter : Character.toLowerCase(letter));
+            }
+            if (empty > 0) {
+                builder.append(empty);
+            }
+        }
+
+        Color sideToMove = position.getSideToMove();
+        builder.append(' ').append(sideToMove == Color.WHITE ? 'w' : 'b').append(' ');
+        int rights = 0;
+        for (int i = 0; i < CASTLING_LETTERS.length; i++) {
+            Color color = i < 2 ? Color.WHITE : Color.BLACK;
+            if (position.hasCastlingRight(color, i % 2 == 0 ? MoveCategory.O_O : MoveCategory.O_O_O)) {
+                builder.append(CASTLING_LETTERS[i]);
+                rights++;
+            }
+        }
+        if (rights == 0) {
+            builder.append('-');
+        }
+
+        builder.append(' ');
+        int enPassant = MoveGenerator.getEnPassantTarget(position, sideToMove);
+        if (enPassant < 0) {
+            builder.append('-');
+        } else {
+            builder.append((char) ('a' + Bitboards.col(enPassant))).append(SIZE - Bitboards.row(enPassant));
+        }
+        return builder.append(' ').append(position.getHalfMoveClock()).append(' ')
+                .append(position.getFullMoveNumber());
+    }
+
+    /**
+     * Private method that places the pieces of the first field, and returns the index of the character after it.
+     */
+    private static int parsePlacement(CharSequence fen, Position position) {
+        int length = fen.length();
+        int i = 0;
+        for (int row = 0; row < SIZE; row++) {
+            if (row > 0) {
+                if (i >= length || fen.charAt(i) != '/') {
+                    throw invalid(fen, "the placement must have " + SIZE + " rows separated by '/'");
+                }
+                i++;
+            }
+            int col = 0;
+            while (i < length && fen.charAt(i) != '/' && fen.charAt(i) != ' ') {
+                char c = fen.charAt(i++);
+                if (c >= '1' && c <= '9') {
+                    col += c - '0';
+                } else if (col < SIZE) {
+                    PieceType type;
+                    try {
+                        type = PieceType.of(c);
+                    } catch (IllegalArgumentException e) {
+                        throw invalid(fen, "unknown piece letter '" + c + "'");
+                    }
+                    position.place(Bitboards.square(row, col++), Character.isUpperCase(c) ? Color.WHITE : Color.BLACK,
+                            type);
+                } else {
+                    col++;
+                }
+                if (col > SIZE) {
+                    break;
+                }
+            }
+            if (col != SIZE) {
+                throw invalid(fen, "row " + (SIZE - row) + " must have " + SIZE + " cells");
+            }
+        }
+        return i;
+    }
+
+    /**
+     * Private method that applies the castling field, and returns the index of the character after it. The position
+     * has the castling rights of all kings and rooks on their initial cells; the missing ones are removed.
+     */
+    private static int parseCastling(CharSequence fen, int i, Position position) {
+        int length = fen.length();
+        int present = 0;
+        if (i < length && fen.charAt(i) == '-') {
+            i++;
+        } else {
+            int start = i;
+            for (int next = 0; i < length && fen.charAt(i) != ' '; i++) {
+                // The letters must appear in the order KQkq, each at most once
+                while (next < CASTLING_LETTERS.length && CASTLING_LETTERS[next] != fen.charAt(i)) {
+                    next++;
+                }
+                if (next == CASTLING_LETTERS.length) {
+                    throw invalid(fen, "the castling rights must be '-' or a subset of 'KQkq' in this order");
+                }
+                present |= 1 << next++;
+            }
+            if (i == start) {
+                throw invalid(fen, "the castling rights must not be empty");
+            }
+        }
+        for (int r = 0; r < CASTLING_LETTERS.length; r++) {
+            Color color = r < 2 ? Color.WHITE : Color.BLACK;
+            MoveCategory category = r % 2 == 0 ? MoveCategory.O_O : MoveCategory.O_O_O;
+            boolean wanted = (present & 1 << r) != 0;
+            if (wanted && !position.hasCastlingRight(color, category)) {
+                throw invalid(fen, "castling right '" + CASTLING_LETTERS[r] + "' without a king and a rook in place");
+            }
+            if (!wanted && position.hasCastlingRight(color, category)) {
+                int backRank = color == Color.WHITE ? SIZE - 1 : 0;
+                position.markMoved(Bitboards.square(backRank, category == MoveCategory.O_O ? SIZE - 1 : 0));
+            }
+        }
+        return i;
+    }
+
+    /**
+     * Private method that applies the en passant field, and returns the index of the character after it. The cell
+     * must be on the row passed over by a double advance of the enemy pawn, which must stand in front of it.
+     */
+    private static int parseEnPassant(CharSequence fen, int i, Position position, Color sideToMove) {
+        int length = fen.length();
+        if (i < length && fen.charAt(i) == '-') {
+            return i + 1;
+        }
+        if (i + 1 >= length || fen.charAt(i) < 'a' || fen.charAt(i) >= 'a' + SIZE || !isDigit(fen.charAt(i + 1))) {
+            throw invalid(fen, "the en passant cell must be '-' or a cell such as 'e3'");
+        }
+        int col = fen.charAt(i) - 'a';
+        int row = SIZE - (fen.charAt(i + 1) - '0');
+        Color enemy = Color.getOppositeColor(sideToMove);
+        // The enemy pawn advanced from the row behind the cell to the row in front of it
+        int dir = enemy == Color.WHITE ? -SIZE : SIZE;
+        int expectedRow = enemy == Color.WHITE ? SIZE - 3 : 2;
+        int square = Bitboards.square(row, col);
+        if (row != expectedRow || !Bitboards.contains(position.getPieces(enemy, PieceType.PAWN), square + dir)
+                || Bitboards.contains(position.getOccupancy(), square)
+                || Bitboards.contains(position.getOccupancy(), square - dir)) {
+            throw invalid(fen, "the en passant cell does not follow a double advance of a pawn");
+        }
+        position.setLastPackedMove(PackedMove.encode(square - dir, square + dir, MoveCategory.ORDINARY,
+                PieceType.PAWN, enemy, null, false));
+        return i + 2;
+    }
+
+    /**
+     * Private method that returns the type of the piece of a given color on an occupied square.
+     */
+    private static PieceType getType(Position position, Color color, int square) {
+        for (PieceType type : TYPES) {
+            if (Bitboards.contains(position.getPieces(color, type), square)) {
+                return type;
+            }
+        }
+        throw new IllegalStateException("no piece on square " + square);
+    }
+
+    /**
+     * Private method that checks that a field separator follows, and returns the index after it.
+     */
+    private static int expectSpace(CharSequence fen, int i) {
+        if (i >= fen.length() || fen.charAt(i) != ' ') {
+            throw invalid(fen, "the fields must be separated by single spaces");
+        }
+        return i + 1;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Private method that appends a decimal digit to a non-negative number, rejecting overflows.
+     */
+    private static int addDigit(CharSequence fen, int number, char digit) {
+        if (number > (Integer.MAX_VALUE - 9) / 10) {
+            throw invalid(fen, "move counter out of range");
+        }
+        return 10 * number + digit - '0';
+    }
+
+    private static IllegalArgumentException invalid(CharSequence fen, String reason) {
+        return new IllegalArgumentException("invalid FEN \"" + fen + "\": " + reason);
+    }
+}
@@ -1,9 +1,9 @@
 package board;
 
-import pieces.Pawn;
 import player.Player;
 import board.Board.Position;
 import utils.Status;
+import utils.Termination;
 
 public class Game {
     private final Board board;
@@ -11,8 +11,9 @@ public class Game {
     private Color currentTurn = Color.WHITE;
     private Status gameResult = Status.UNFINISHED;
     private final StringBuilder notation = new StringBuilder();
-    private int moveNumber = 1;
-    private int halfMovesUntilDraw = 100;
+    // Number of the current full move, incremented after every move of black
+    private int moveNumber;
+    private Termination termination = null;
 
     /**
      * Default constructor of {@code Game} from two players and a default chessboard.
@@ -25,7 +26,9 @@ public class Game {
     }
 
     /**
-     * Initializes a new {@code Game} from two players and a given board.
+     * Initializes a new {@code Game} from two players and a given board. The game starts with the player whose turn it
+     * is to move in the position of the board, e.g. after the moves of an opening, and its notation continues the
+     * move numbers of that position (see {@link Position#getFullMoveNumber()}).
      *
      * @param board a {@code Board}
      * @param white the white {@code Player}
@@ -35,6 +38,8 @@ public class Game {
         this.board = board;
         this.white = white;
         this.black = black;
+        this.currentTurn = board.getPosition().getSideToMove();
+        this.moveNumber = board.getPosition().getFullMoveNumber();
     }
 
     /**
@@ -45,43 +50,41 @@ public class Game {
     private Status makeMove() {
         Player current = (currentTurn == Color.WHITE ? white : black);
         Move move = current.makeMove(board.getPosition(), currentTurn);
-        if (move.isCapture(board.getPosition()) || move.getPiece() instanceof Pawn) {
-            halfMovesUntilDraw = 100;
-        } else {
-            halfMovesUntilDraw--;
+        if (move == null) {
+            // A player that does not move forfeits, like a player that makes an illegal move
+            return currentTurn == Color.WHITE ? Status.BLACK_WON : Status.WHITE_WON;
         }
         StringBuilder str = new StringBuilder(move.toString());
         while (str.length() < 10) {
             str.append(' ');
         }
         if (currentTurn == Color.WHITE) {
-            if (moveNumber != 0) notation.append('\n');
-            notation.append(moveNumber).append('.');
-            if (moveNumber < 10) {
-                notation.append("     ");
-            } else if (moveNumber < 100) {
-                notation.append("    ");
-            } else if (moveNumber < 1000) {
-                notation.append("   ");
-            } else {
-                notation.append("  ");
-            }
+            appendMoveNumber();
             notation.append(str);
         } else {
+            if (notation.length() == 0) {
+                // The game starts with a move of black, so the move of white is left out
+                appendMoveNumber();
+                notation.append("...       ");
+            }
             notation.append("\t\t").append(str);
         }
         boolean result = board.makeMove(move);
         // If move is legal, continue the game. Otherwise - automatic forfeit (since it is the Player's responsibility
         // to provide legal moves; he has all the necessary information
         if (result) {
+            if (currentTurn == Color.BLACK) {
+                moveNumber++;
+            }
             currentTurn = Color.getOppositeColor(currentTurn);
             Position position = board.getPosition();
-            if (position.isKingInCheckmate(currentTurn)) {
+            termination = position.getTerminationStatus();
+            if (termination == null) {
+                return Status.UNFINISHED;
+            } else if (termination == Termination.CHECKMATE) {
                 return currentTurn == Color.WHITE ? Status.BLACK_WON : Status.WHITE_WON;
-            } else if (position.isStalemate(currentTurn) || halfMovesUntilDraw <= 0) {
-                return Status.DRAW;
             } else {
-                return Status.UNFINISHED;
+                return Status.DRAW;
             }
         } else if (currentTurn == Color.WHITE) {
             return Status.BLACK_WON;
@@ -91,7 +94,24 @@ public class Game {
     }
 
     /**
-     * Makes a full move in the game (first white's turn, then black's).
+     * Private method that starts a new line of the notation with the number of the current full move.
+     */
+    private void appendMoveNumber() {
+        notation.append('\n').append(moveNumber).append('.');
+        if (moveNumber < 10) {
+            notation.append("     ");
+        } else if (moveNumber < 100) {
+            notation.append("    ");
+        } else if (moveNumber < 1000) {
+            notation.append("   ");
+        } else {
+            notation.append("  ");
+        }
+    }
+
+    /**
+     * Makes a full move in the game, i.e. two half-moves (first white's turn, then black's, unless the game started
+     * with black to move).
      *
      * @return the status of the game after the full move
      */
@@ -100,11 +120,69 @@ public class Game {
         if (result == Status.UNFINISHED) {
             // Game not decided, we can make the next half-move
             result = makeMove();
-            moveNumber++;
         }
         return result;
     }
 
+    /**
+     * Makes a half-move in the game on the behalf of the player whose turn it is to move. Unlike {@link #nextTurn()},
+     * this lets the caller inspect the position after every half-move, e.g. to adjudicate the game.
+     *
+     * @return the status of the game after the half-move
+     * @throws IllegalStateException if the game is already finished
+     */
+    public Status nextHalfMove() {
+        if (gameResult != Status.UNFINISHED) {
+            throw new IllegalStateException("the game is already finished");
+        }
+        Status result = makeMove();
+        if (result != Status.UNFINISHED) {
+            finish(result);
+        }
+        return result;
+    }
+
+    /**
+     * Ends an unfinished game with a given result, e.g. a draw when the game is too long or a win for a player with an
+     * overwhelming advantage.
+     *
+     * @param result {@link Status#WHITE_WON}, {@link Status#BLACK_WON} or {@link Status#DRAW}
+     * @throws IllegalArgumentException if {@code result} is {@link Status#UNFINISHED}
+     * @throws IllegalStateException if the game is already finished
+     */
+    public void adjudicate(Status result) {
+        if (result == Status.UNFINISHED) {
+            throw new IllegalArgumentException("an adjudicated game must be finished");
+        }
+        if (gameResult != Status.UNFINISHED) {
+            throw new IllegalStateException("the game is already finished");
+        }
+        finish(result);
+    }
+
+    /**
+     * @return the color of the player whose turn it is to move
+     */
+    public Color getCurrentTurn() {
+        return currentTurn;
+    }
+
+    /**
+     * @return the result of the game, or {@link Status#UNFINISHED} if it is not finished yet
+     */
+    public Status getResult() {
+        return gameResult;
+    }
+
+    /**
+     * @return the rule that ended the game (checkmate, stalemate, the 50-move rule, threefold repetition or
+     * insufficient material), or {@code null} if the game is not finished or ended otherwise, i.e. by an illegal move
+     * or by adjudication
+     */
+    public Termination getTermination() {
+        return gameResult == Status.UNFINISHED ? null : termination;
+    }
+
     /**
      * Plays the game from the beginning up to the end and returns the result.<br><br>
      *
@@ -121,19 +199,26 @@ public class Game {
         while (true) {
             Status result = nextTurn();
             if (result != Status.UNFINISHED) {
-                gameResult = result;
-                if (gameResult == Status.BLACK_WON) {
-                    notation.append('\n').append("0-1");
-                } else if (gameResult == Status.WHITE_WON) {
-                    notation.append('\n').append("1-0");
-                } else {
-                    notation.append('\n').append("½-½");
-                }
+                finish(result);
                 return gameResult;
             }
         }
     }
 
+    /**
+     * Private method that records the result of the game and appends it to the notation.
+     */
+    private void finish(Status result) {
+        gameResult = result;
+        if (gameResult == Status.BLACK_WON) {
+            notation.append('\n').append("0-1");
+        } else if (gameResult == Status.WHITE_WON) {
+            notation.append('\n').append("1-0");
+        } else {
+            notation.append('\n').append("½-½");
+        }
+    }
+
     public String getGameNotation() {
         return notation.toString();
     }
@@ -0,0 +1,20 @@
+package board;
+
+/**
+ * The subsets of the legal moves that {@link Board.Position#generateMoves(Color, GenerationMode, MoveList)} can
+ * generate. {@link #CAPTURES} and {@link #QUIETS} partition the legal moves, so a search can generate the quiet moves
+ * only when no capture caused a cutoff.
+ */
+public enum GenerationMode {
+    // All legal moves
+    ALL,
+    // Captures (en passant included) and promotions
+    CAPTURES,
+    // Moves that are neither captures nor promotions, castling included
+    QUIETS,
+    // All legal moves if the side is in check, or no moves otherwise
+    EVASIONS,
+    // Quiet moves that give check, generated from the cells that attack the enemy king and the pieces that can uncover
+    // a check
+    QUIET_CHECKS
+}
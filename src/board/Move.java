@@ -11,6 +11,7 @@ public class Move {
     // To avoid unnecessary recalculations in .hashCode()
     private static final int BOARD_SIZE = SIZE * SIZE;
     private static final int BOARD_SIZE_SQ = BOARD_SIZE * BOARD_SIZE;
+    private static final int CATEGORIES = MoveCategory.values().length;
 
     // Immutable fields representing the structure of the move
     private final Cell start, target;
@@ -180,17 +181,41 @@ public class Move {
 
     /**
      * This method allows to store objects of type {@code Move} correctly in collections, since not all fields
-     * are used to determine whether two moves are the same.
+     * are used to determine whether two moves are the same.<br><br>
+     *
+     * Two moves are equal if and only if their representations in full chess notation (see {@link #toString()}) are
+     * equal, but the comparison is made field by field, without building any strings.
      */
     @Override
     public boolean equals(Object other) {
         if (other instanceof Move) {
             Move move = (Move) other;
-            return toString().equals(move.toString());
+            if (category != move.category) {
+                return false;
+            }
+            if (isCastling()) {
+                // Castling notation does not depend on the cells
+                return true;
+            }
+            return getPieceType() == move.getPieceType() && start.equals(move.start) && target.equals(move.target);
         }
         return false;
     }
 
+    /**
+     * Private method that determines whether this move is a castling move.
+     */
+    private boolean isCastling() {
+        return category == MoveCategory.O_O || category == MoveCategory.O_O_O;
+    }
+
+    /**
+     * Private method that returns the type of the piece making this move, or {@code null} if the piece is unknown.
+     */
+    private PieceType getPieceType() {
+        return piece == null ? null : piece.getType();
+    }
+
     /**
      * Represents a move in full chess notation, {@code Ax0-y0}, where:
      * <ul>
@@ -210,13 +235,13 @@ public class Move {
         } else {
             String basic = FigureSetManager.getNotationSymbol(piece) + "" + start + "-" + target;
             if (category == MoveCategory.PROMOTE_TO_KNIGHT) {
-                return basic + "=" + FigureSetManager.getNotationSymbol(new Knight(Color.WHITE));
+                return basic + "=" + FigureSetManager.getNotationSymbol(Piece.of(PieceType.KNIGHT, Color.WHITE));
             } else if (category == MoveCategory.PROMOTE_TO_BISHOP) {
-                return basic + "=" + FigureSetManager.getNotationSymbol(new Bishop(Color.WHITE));
+                return basic + "=" + FigureSetManager.getNotationSymbol(Piece.of(PieceType.BISHOP, Color.WHITE));
             } else if (category == MoveCategory.PROMOTE_TO_ROOK) {
-                return basic + "=" + FigureSetManager.getNotationSymbol(new Rook(Color.WHITE));
+                return basic + "=" + FigureSetManager.getNotationSymbol(Piece.of(PieceType.ROOK, Color.WHITE));
             } else if (category == MoveCategory.PROMOTE_TO_QUEEN) {
-                return basic + "=" + FigureSetManager.getNotationSymbol(new Queen(Color.WHITE));
+                return basic + "=" + FigureSetManager.getNotationSymbol(Piece.of(PieceType.QUEEN, Color.WHITE));
             } else {
                 return basic;
             }
@@ -234,6 +259,12 @@ public class Move {
      */
     @Override
     public int hashCode() {
-        return piece.hashCode() * BOARD_SIZE_SQ + start.hashCode() * BOARD_SIZE + target.hashCode();
+        if (isCastling()) {
+            return category.ordinal();
+        }
+        PieceType type = getPieceType();
+        int value = (type == null ? 0 : type.ordinal() + 1) * BOARD_SIZE_SQ + start.hashCode() * BOARD_SIZE
+                + target.hashCode();
+        return value * CATEGORIES + category.ordinal();
     }
 }
\ No newline at end of file
@@ -0,0 +1,533 @@
+package board;
+
+import board.Board.Position;
+import pieces.Piece;
+import pieces.PieceType;
+
+import static utils.Global.CASTLING_DELTA;
+import static utils.Global.SIZE;
+
+/**
+ * Legal move generator based on check and pin masks.<br><br>
+ *
+ * Instead of making every candidate move and testing whether the own king is left in check, the generator computes
+ * once per call:
+ * <ul>
+ *     <li>the pieces giving check to the king (if there are two of them, only the king can move),</li>
+ *     <li>the evasion mask: the cells where a non-king piece must move to block or capture a single checker,</li>
+ *     <li>the pinned pieces, which can only move along the line between the king and the pinning piece.</li>
+ * </ul>
+ * With these masks the moves of every piece except the king are legal as soon as they are generated. King moves are
+ * checked against the attacks of the opponent (with the king removed from the board, so that it cannot hide behind
+ * itself), and en passant captures, which remove two pieces from one line, are checked by recomputing the attacks on
+ * the king.<br><br>
+ *
+ * Moves are appended to a {@link MoveList} in packed form (see {@link PackedMove}), so generation does not allocate.
+ */
+class MoveGenerator {
+    private static final PieceType[] TYPES = PieceType.values();
+    private static final MoveCategory[] PROMOTIONS = {MoveCategory.PROMOTE_TO_QUEEN, MoveCategory.PROMOTE_TO_ROOK,
+            MoveCategory.PROMOTE_TO_BISHOP, MoveCategory.PROMOTE_TO_KNIGHT};
+
+    /**
+     * Generates all legal moves of the pieces of a given color located on a given set of cells.
+     *
+     * @param position a {@code Position}
+     * @param color the color of the pieces to move
+     * @param fromMask the bitboard of cells whose pieces should be considered ({@link Bitboards#ALL} for all pieces)
+     * @param moves the list to append the moves to
+     */
+    static void generateLegalMoves(Position position, Color color, long fromMask, MoveList moves) {
+        generate(position, color, fromMask, true, true, false, moves);
+    }
+
+    /**
+     * Generates the legal moves of the pieces of a given color that belong to a given subset of moves.
+     *
+     * @param position a {@code Position}
+     * @param color the color of the pieces to move
+     * @param mode the subset of the legal moves to generate
+     * @param moves the list to append the moves to
+     */
+    static void generateMoves(Position position, Color color, GenerationMode mode, MoveList moves) {
+        switch (mode) {
+            case ALL -> generate(position, color, Bitboards.ALL, true, true, false, moves);
+            case CAPTURES -> generate(position, color, Bitboards.ALL, true, false, false, moves);
+            case QUIETS -> generate(position, color, Bitboards.ALL, false, true, false, moves);
+            case EVASIONS -> {
+                if (position.isKingInCheck(color)) {
+                    generate(position, color, Bitboards.ALL, true, true, false, moves);
+                }
+            }
+            case QUIET_CHECKS -> generateChecks(position, color, false, true, moves);
+        }
+    }
+
+    /**
+     * Private method that generates the legal moves of the pieces of a given color located on a given set of cells,
+     * restricted to captures and promotions, to quiet moves, or both. If {@code checks} is set, only the moves that
+     * give check directly are generated (the enemy king must be on the board): every piece only moves to the cells
+     * from which it attacks the enemy king, promotions, castling and en passant captures are tested with {@link
+     * #givesCheck(Position, int)}, and the king does not move except by castling. Discovered checks are left to the
+     * caller.
+     */
+    private static void generate(Position position, Color color, long fromMask, boolean captures, boolean quiets,
+                                 boolean checks, MoveList moves) {
+        Color enemy = Color.getOppositeColor(color);
+        long occupied = position.getOccupancy();
+        long enemies = position.getOccupancy(enemy);
+        long kingBitboard = position.getPieces(color, PieceType.KING);
+        int king = kingBitboard == 0 ? -1 : Bitboards.lowest(kingBitboard);
+
+        // Cells from which a piece of each kind attacks the enemy king (all cells if checks are not required)
+        long pawnChecks = Bitboards.ALL;
+        long knightChecks = Bitboards.ALL;
+        long bishopChecks = Bitboards.ALL;
+        long rookChecks = Bitboards.ALL;
+        if (checks) {
+            int enemyKing = Bitboards.lowest(position.getPieces(enemy, PieceType.KING));
+            pawnChecks = Attacks.pawn(enemy, enemyKing);
+            knightChecks = Attacks.knight(enemyKing);
+            bishopChecks = Attacks.bishop(enemyKing, occupied);
+            rookChecks = Attacks.rook(enemyKing, occupied);
+        }
+
+        long checkers = 0;
+        long pinned = 0;
+        long evasionMask = Bitboards.ALL;
+        // Target cells of the moves of pieces other than pawns
+        long targetMask = (captures ? enemies : Bitboards.EMPTY) | (quiets ? ~occupied : Bitboards.EMPTY);
+        if (king >= 0) {
+            checkers = position.getAttackers(king, occupied) & enemies;
+            pinned = getPinned(position, color, king);
+            if (Bitboards.count(checkers) > 1) {
+                // Double check: only the king can move
+                evasionMask = Bitboards.EMPTY;
+            } else if (checkers != 0) {
+                evasionMask = checkers | Attacks.between(king, Bitboards.lowest(checkers));
+            }
+        }
+
+        // Pieces other than pawns and kings
+        for (int t = PieceType.KNIGHT.ordinal(); t <= PieceType.QUEEN.ordinal(); t++) {
+            Piece piece = Piece.of(TYPES[t], color);
+            long checkMask = switch (TYPES[t]) {
+                case KNIGHT -> knightChecks;
+                case BISHOP -> bishopChecks;
+                case ROOK -> rookChecks;
+                default -> bishopChecks | rookChecks;
+            };
+            for (long b = position.getPieces(color, TYPES[t]) & fromMask; b != 0; b = Bitboards.popLowest(b)) {
+                int from = Bitboards.lowest(b);
+                long targets = piece.getAttacks(from, occupied) & targetMask & evasionMask & checkMask;
+                if (Bitboards.contains(pinned, from)) {
+                    targets &= Attacks.line(king, from);
+                }
+                addMoves(position, from, targets, TYPES[t], color, moves);
+            }
+        }
+
+        generatePawnMoves(position, color, fromMask, king, pinned, evasionMask, captures, quiets, checks, pawnChecks,
+                moves);
+
+        if (king >= 0 && Bitboards.contains(fromMask, king)) {
+            if (!checks) {
+                long withoutKing = occupied ^ kingBitboard;
+                long targets = 0;
+                for (long b = Attacks.king(king) & targetMask; b != 0; b = Bitboards.popLowest(b)) {
+                    int to = Bitboards.lowest(b);
+                    if (!position.isAttacked(to, enemy, withoutKing)) {
+                        targets |= Bitboards.bit(to);
+                    }
+                }
+                addMoves(position, king, targets, PieceType.KING, color, moves);
+            }
+            if (checkers == 0 && quiets) {
+                generateCastling(position, color, king, MoveCategory.O_O, checks, moves);
+                generateCastling(position, color, king, MoveCategory.O_O_O, checks, moves);
+            }
+        }
+    }
+
+    /**
+     * Determines whether the pieces of a given color have at least one legal move, with the same masks as the
+     * generator but without generating any move: the search stops at the first piece with a legal target. The pieces
+     * other than the king are tried first, since their targets need no attack test. Castling is never needed to decide,
+     * because a legal castling implies a legal king move to the cell passed over.
+     *
+     * @param position a {@code Position}
+     * @param color the color of the pieces to move
+     * @return {@code true} if {@code color} has a legal move, or {@code false} otherwise
+     */
+    static boolean hasLegalMove(Position position, Color color) {
+        Color enemy = Color.getOppositeColor(color);
+        long occupied = position.getOccupancy();
+        long enemies = position.getOccupancy(enemy);
+        long kingBitboard = position.getPieces(color, PieceType.KING);
+        int king = kingBitboard == 0 ? -1 : Bitboards.lowest(kingBitboard);
+        long targetMask = ~position.getOccupancy(color);
+
+        long pinned = 0;
+        long evasionMask = Bitboards.ALL;
+        if (king >= 0) {
+            long checkers = position.getAttackers(king, occupied) & enemies;
+            pinned = getPinned(position, color, king);
+            if (Bitboards.count(checkers) > 1) {
+                evasionMask = Bitboards.EMPTY;
+            } else if (checkers != 0) {
+                evasionMask = checkers | Attacks.between(king, Bitboards.lowest(checkers));
+            }
+        }
+
+        if (evasionMask != Bitboards.EMPTY) {
+            for (int t = PieceType.KNIGHT.ordinal(); t <= PieceType.QUEEN.ordinal(); t++) {
+                Piece piece = Piece.of(TYPES[t], color);
+                for (long b = position.getPieces(color, TYPES[t]); b != 0; b = Bitboards.popLowest(b)) {
+                    int from = Bitboards.lowest(b);
+                    long targets = piece.getAttacks(from, occupied) & targetMask & evasionMask;
+                    if (Bitboards.contains(pinned, from)) {
+                        targets &= Attacks.line(king, from);
+                    }
+                    if (targets != 0) {
+                        return true;
+                    }
+                }
+            }
+            if (hasPawnMove(position, color, king, pinned, evasionMask)) {
+                return true;
+            }
+        }
+
+        if (king >= 0) {
+            long withoutKing = occupied ^ kingBitboard;
+            for (long b = Attacks.king(king) & targetMask; b != 0; b = Bitboards.popLowest(b)) {
+                if (!position.isAttacked(Bitboards.lowest(b), enemy, withoutKing)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Private method that determines whether a pawn of a given color has a legal advance, capture or en passant
+     * capture, given the pinned pieces and the evasion mask.
+     */
+    private static boolean hasPawnMove(Position position, Color color, int king, long pinned, long evasionMask) {
+        long occupied = position.getOccupancy();
+        long enemies = position.getOccupancy(Color.getOppositeColor(color));
+        int dir = color == Color.WHITE ? -SIZE : SIZE;
+        int initRow = color == Color.WHITE ? SIZE - 2 : 1;
+        int enPassant = getEnPassantTarget(position, color);
+        for (long b = position.getPieces(color, PieceType.PAWN); b != 0; b = Bitboards.popLowest(b)) {
+            int from = Bitboards.lowest(b);
+            long allowed = evasionMask;
+            if (Bitboards.contains(pinned, from)) {
+                allowed &= Attacks.line(king, from);
+            }
+            long targets = Attacks.pawn(color, from) & enemies;
+            int single = from + dir;
+            if (single >= 0 && single < SIZE * SIZE && !Bitboards.contains(occupied, single)) {
+                targets |= Bitboards.bit(single);
+                int pushed = single + dir;
+                if (Bitboards.row(from) == initRow && !Bitboards.contains(occupied, pushed)) {
+                    targets |= Bitboards.bit(pushed);
+                }
+            }
+            if ((targets & allowed) != 0) {
+                return true;
+            }
+            if (enPassant >= 0 && Bitboards.contains(Attacks.pawn(color, from), enPassant)
+                    && isLegalEnPassant(position, color, king, from, enPassant)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Generates the legal moves of the pieces of a given color that give check to the enemy king, without generating
+     * the other moves. The pieces that stand alone between the enemy king and a bishop, rook or queen of their color
+     * uncover a check with every move that leaves that line, so all their moves are generated and only the ones along
+     * the line are tested with {@link #givesCheck(Position, int)}. The other pieces only move to the cells from which
+     * they attack the enemy king, and the few moves that can give check otherwise (promotions, castling and en passant
+     * captures) are tested.
+     *
+     * @param position a {@code Position}
+     * @param color the color of the pieces to move
+     * @param moves the list to append the moves to
+     * @see #givesCheck(Position, int)
+     */
+    static void generateChecks(Position position, Color color, MoveList moves) {
+        generateChecks(position, color, true, true, moves);
+    }
+
+    /**
+     * Private method that generates the checks of the pieces of a given color (see {@link #generateChecks(Position,
+     * Color, MoveList)}), restricted to captures and promotions, to quiet moves, or both.
+     */
+    private static void generateChecks(Position position, Color color, boolean captures, boolean quiets,
+                                       MoveList moves) {
+        long enemyKingBitboard = position.getPieces(Color.getOppositeColor(color), PieceType.KING);
+        if (enemyKingBitboard == 0) {
+            return;
+        }
+        int enemyKing = Bitboards.lowest(enemyKingBitboard);
+        long discoverers = getBlockers(position, enemyKing, color) & position.getOccupancy(color);
+        generate(position, color, ~discoverers, captures, quiets, true, moves);
+        if (discoverers == 0) {
+            return;
+        }
+        int start = moves.size();
+        generate(position, color, discoverers, captures, quiets, false, moves);
+        int end = start;
+        for (int i = start; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (!Bitboards.contains(Attacks.line(enemyKing, PackedMove.from(move)), PackedMove.to(move))
+                    || givesCheck(position, move)) {
+                moves.set(end++, move);
+            }
+        }
+        moves.truncate(end);
+    }
+
+    /**
+     * Determines whether a legal move gives check to the enemy king, without making the move. The attacks on the
+     * enemy king are computed with the pieces and the occupancy after the move, which covers direct checks (also by a
+     * promoted piece or by the rook of a castling move) as well as discovered checks (also through the cell of a pawn
+     * captured en passant).
+     *
+     * @param position a {@code Position}
+     * @param move a legal move in packed form (see {@link PackedMove})
+     * @return {@code true} if {@code move} gives check, or {@code false} otherwise
+     */
+    static boolean givesCheck(Position position, int move) {
+        Color color = PackedMove.color(move);
+        long enemyKing = position.getPieces(Color.getOppositeColor(color), PieceType.KING);
+        if (enemyKing == 0) {
+            return false;
+        }
+        int king = Bitboards.lowest(enemyKing);
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        long fromBit = Bitboards.bit(from);
+        long toBit = Bitboards.bit(to);
+        long occupied = (position.getOccupancy() & ~fromBit) | toBit;
+        long queens = position.getPieces(color, PieceType.QUEEN);
+        long pawns = position.getPieces(color, PieceType.PAWN) & ~fromBit;
+        long knights = position.getPieces(color, PieceType.KNIGHT) & ~fromBit;
+        long diagonals = (position.getPieces(color, PieceType.BISHOP) | queens) & ~fromBit;
+        long orthogonals = (position.getPieces(color, PieceType.ROOK) | queens) & ~fromBit;
+        PieceType type = PackedMove.isPromotion(move) ? PackedMove.getPromotionType(PackedMove.category(move))
+                : PackedMove.piece(move);
+        switch (type) {
+            case PAWN -> pawns |= toBit;
+            case KNIGHT -> knights |= toBit;
+            case BISHOP -> diagonals |= toBit;
+            case ROOK -> orthogonals |= toBit;
+            case QUEEN -> {
+                diagonals |= toBit;
+                orthogonals |= toBit;
+            }
+            default -> {
+                // A king never gives check itself
+            }
+        }
+        if (PackedMove.isEnPassant(move)) {
+            occupied &= ~Bitboards.bit(Bitboards.square(Bitboards.row(from), Bitboards.col(to)));
+        } else if (PackedMove.isCastling(move)) {
+            long rookFrom = Bitboards.bit(Bitboards.square(Bitboards.row(from),
+                    PackedMove.category(move) == MoveCategory.O_O ? SIZE - 1 : 0));
+            long rookTo = Bitboards.bit((from + to) / 2);
+            occupied = (occupied & ~rookFrom) | rookTo;
+            orthogonals = (orthogonals & ~rookFrom) | rookTo;
+        }
+        return (Attacks.pawn(Color.getOppositeColor(color), king) & pawns) != 0
+                || (Attacks.knight(king) & knights) != 0
+                || (Attacks.bishop(king, occupied) & diagonals) != 0
+                || (Attacks.rook(king, occupied) & orthogonals) != 0;
+    }
+
+    /**
+     * Private method that computes the pieces of a given color that are pinned to their king, i.e. the pieces that are
+     * the only piece between the king and an enemy sliding piece attacking along that line.
+     */
+    private static long getPinned(Position position, Color color, int king) {
+        return getBlockers(position, king, Color.getOppositeColor(color)) & position.getOccupancy(color);
+    }
+
+    /**
+     * Private method that computes the pieces of both colors that are the only piece between a king and a sliding
+     * piece of a given color attacking along that line: the pinned pieces if the slider is an enemy of the king, and
+     * the pieces that can uncover a check otherwise.
+     */
+    private static long getBlockers(Position position, int king, Color sliderColor) {
+        long queens = position.getPieces(sliderColor, PieceType.QUEEN);
+        long rooks = position.getPieces(sliderColor, PieceType.ROOK) | queens;
+        long bishops = position.getPieces(sliderColor, PieceType.BISHOP) | queens;
+        long snipers = (Attacks.rook(king, Bitboards.EMPTY) & rooks)
+                | (Attacks.bishop(king, Bitboards.EMPTY) & bishops);
+        long occupied = position.getOccupancy();
+        long blockers = 0;
+        for (; snipers != 0; snipers = Bitboards.popLowest(snipers)) {
+            long between = Attacks.between(king, Bitboards.lowest(snipers)) & occupied;
+            if (between != 0 && Bitboards.popLowest(between) == 0) {
+                blockers |= between;
+            }
+        }
+        return blockers;
+    }
+
+    /**
+     * Private method that generates the pawn moves: single and double advances, captures, promotions and en passant
+     * captures. Captures and promotions are generated if {@code captures} is set, and the other advances if {@code
+     * quiets} is set. If {@code checks} is set, the moves other than promotions only go to the cells of {@code
+     * pawnChecks}, and promotions and en passant captures are only generated if they give check.
+     */
+    private static void generatePawnMoves(Position position, Color color, long fromMask, int king, long pinned,
+                                          long evasionMask, boolean captures, boolean quiets, boolean checks,
+                                          long pawnChecks, MoveList moves) {
+        Color enemy = Color.getOppositeColor(color);
+        long occupied = position.getOccupancy();
+        long enemies = position.getOccupancy(enemy);
+        int dir = color == Color.WHITE ? -SIZE : SIZE;
+        int initRow = color == Color.WHITE ? SIZE - 2 : 1;
+        int promotionRow = position.getPromotionRow(color);
+        int enPassant = captures ? getEnPassantTarget(position, color) : -1;
+        // An advance to the promotion row is a promotion, and thus belongs to the captures
+        long promotionCells = Bitboards.rowMask(promotionRow);
+        long advanceMask = (captures ? promotionCells : Bitboards.EMPTY) | (quiets ? ~promotionCells : Bitboards.EMPTY);
+        long checkMask = checks ? pawnChecks | promotionCells : Bitboards.ALL;
+
+        for (long b = position.getPieces(color, PieceType.PAWN) & fromMask; b != 0; b = Bitboards.popLowest(b)) {
+            int from = Bitboards.lowest(b);
+            long allowed = evasionMask & checkMask;
+            if (Bitboards.contains(pinned, from)) {
+                allowed &= Attacks.line(king, from);
+            }
+            long targets = captures ? Attacks.pawn(color, from) & enemies : Bitboards.EMPTY;
+            int single = from + dir;
+            if (single >= 0 && single < SIZE * SIZE && !Bitboards.contains(occupied, single)) {
+                long advances = Bitboards.bit(single);
+                int pushed = single + dir;
+                if (Bitboards.row(from) == initRow && !Bitboards.contains(occupied, pushed)) {
+                    advances |= Bitboards.bit(pushed);
+                }
+                targets |= advances & advanceMask;
+            }
+            for (targets &= allowed; targets != 0; targets = Bitboards.popLowest(targets)) {
+                int to = Bitboards.lowest(targets);
+                int move = PackedMove.encode(from, to, MoveCategory.ORDINARY, PieceType.PAWN, color,
+                        getCaptured(position, to), false);
+                if (Bitboards.row(to) == promotionRow) {
+                    for (MoveCategory category : PROMOTIONS) {
+                        int promotion = PackedMove.withCategory(move, category);
+                        if (!checks || givesCheck(position, promotion)) {
+                            moves.add(promotion);
+                        }
+                    }
+                } else {
+                    moves.add(move);
+                }
+            }
+            if (enPassant >= 0 && Bitboards.contains(Attacks.pawn(color, from), enPassant)
+                    && isLegalEnPassant(position, color, king, from, enPassant)) {
+                int move = PackedMove.encode(from, enPassant, MoveCategory.ORDINARY, PieceType.PAWN, color,
+                        PieceType.PAWN, true);
+                if (!checks || givesCheck(position, move)) {
+                    moves.add(move);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the cell where a pawn of a given color could currently capture en passant, i.e. the cell passed over by
+     * an enemy pawn that advanced by two cells with the last move.
+     *
+     * @param position a {@code Position}
+     * @param color the color of the capturing side
+     * @return the square index of the en passant target cell, or {@code -1} if there is none
+     */
+    static int getEnPassantTarget(Position position, Color color) {
+        int last = position.getLastPackedMove();
+        if (last == PackedMove.NONE || PackedMove.piece(last) != PieceType.PAWN || PackedMove.color(last) == color) {
+            return -1;
+        }
+        int start = PackedMove.from(last);
+        int target = PackedMove.to(last);
+        if (Math.abs(target - start) != 2 * SIZE
+                || !Bitboards.contains(position.getPieces(PackedMove.color(last), PieceType.PAWN), target)) {
+            return -1;
+        }
+        return (start + target) / 2;
+    }
+
+    /**
+     * Private method that checks whether an en passant capture leaves the own king safe. Two cells of one row are
+     * vacated at once, so pins cannot be used here; the attacks on the king are computed for the resulting occupancy.
+     */
+    private static boolean isLegalEnPassant(Position position, Color color, int king, int from, int to) {
+        if (king < 0) {
+            return true;
+        }
+        Color enemy = Color.getOppositeColor(color);
+        int captured = Bitboards.square(Bitboards.row(from), Bitboards.col(to));
+        long occupied = (position.getOccupancy() ^ Bitboards.bit(from) ^ Bitboards.bit(captured)) | Bitboards.bit(to);
+        long enemies = position.getOccupancy(enemy) & ~Bitboards.bit(captured);
+        return (position.getAttackers(king, occupied) & enemies) == 0;
+    }
+
+    /**
+     * Private method that generates a castling move, if it is legal. The player must have the castling right (see
+     * {@link Position#hasCastlingRight(Color, MoveCategory)}), all cells between the king and the rook must be empty,
+     * and the king must not pass over or land on an attacked cell (the king is known not to be in check). If {@code
+     * checks} is set, the move is only generated if it gives check.
+     */
+    private static void generateCastling(Position position, Color color, int king, MoveCategory category,
+                                         boolean checks, MoveList moves) {
+        int row = Bitboards.row(king);
+        int side = category == MoveCategory.O_O ? 1 : -1;
+        int rook = Bitboards.square(row, category == MoveCategory.O_O ? SIZE - 1 : 0);
+        int landingCol = Bitboards.col(king) + side * CASTLING_DELTA;
+        if (!position.hasCastlingRight(color, category)
+                || (Attacks.between(king, rook) & position.getOccupancy()) != 0
+                || (landingCol - Bitboards.col(rook)) * side >= 0) {
+            // The landing cell of the king must lie strictly between the king and the rook
+            return;
+        }
+        Color enemy = Color.getOppositeColor(color);
+        long occupied = position.getOccupancy();
+        for (int col = Bitboards.col(king) + side; col != landingCol + side; col += side) {
+            if (position.isAttacked(Bitboards.square(row, col), enemy, occupied)) {
+                return;
+            }
+        }
+        int move = PackedMove.encode(king, Bitboards.square(row, landingCol), category, PieceType.KING, color, null,
+                false);
+        if (!checks || givesCheck(position, move)) {
+            moves.add(move);
+        }
+    }
+
+    /**
+     * Private method that returns the type of the piece on a given cell, or {@code null} if the cell is empty.
+     */
+    private static PieceType getCaptured(Position position, int square) {
+        Piece piece = position.get(square);
+        return piece == null ? null : piece.getType();
+    }
+
+    /**
+     * Private method that adds an ordinary move from a given cell to every cell of a given set.
+     */
+    private static void addMoves(Position position, int from, long targets, PieceType type, Color color,
+                                 MoveList moves) {
+        long enemies = position.getOccupancy(Color.getOppositeColor(color));
+        for (; targets != 0; targets = Bitboards.popLowest(targets)) {
+            int to = Bitboards.lowest(targets);
+            PieceType captured = Bitboards.contains(enemies, to) ? getCaptured(position, to) : null;
+            moves.add(PackedMove.encode(from, to, MoveCategory.ORDINARY, type, color, captured, false));
+        }
+    }
+}
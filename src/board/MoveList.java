@@ -0,0 +1,151 @@
+package board;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+/**
+ * A growable list of packed moves (see {@link PackedMove}), backed by an {@code int} array.<br><br>
+ *
+ * Move generators append to a {@code MoveList} supplied by the caller, so a search can reuse one list per ply and
+ * generate moves without allocating anything.
+ */
+public class MoveList {
+    // The maximum number of legal moves in a chess position is 218, so this capacity is rarely exceeded
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private int[] moves;
+    private int size = 0;
+
+    /**
+     * Default constructor of {@code MoveList}.
+     */
+    public MoveList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Initializes an empty {@code MoveList} with a given initial capacity.
+     *
+     * @param capacity the initial capacity
+     */
+    public MoveList(int capacity) {
+        moves = new int[Math.max(capacity, 1)];
+    }
+
+    /**
+     * Appends a packed move to the end of this list.
+     *
+     * @param move a packed move
+     */
+    public void add(int move) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, size * 2);
+        }
+        moves[size++] = move;
+    }
+
+    /**
+     * @param i an index in the range {@code [0, size())}
+     * @return the {@code i}-th move of this list
+     */
+    public int get(int i) {
+        if (i >= size) {
+            throw new IndexOutOfBoundsException("index " + i + " is out of bounds for size " + size);
+        }
+        return moves[i];
+    }
+
+    /**
+     * Replaces the {@code i}-th move of this list.
+     *
+     * @param i an index in the range {@code [0, size())}
+     * @param move a packed move
+     */
+    public void set(int i, int move) {
+        if (i >= size) {
+            throw new IndexOutOfBoundsException("index " + i + " is out of bounds for size " + size);
+        }
+        moves[i] = move;
+    }
+
+    /**
+     * Swaps two moves of this list.
+     *
+     * @param i an index in the range {@code [0, size())}
+     * @param j an index in the range {@code [0, size())}
+     */
+    public void swap(int i, int j) {
+        int move = get(i);
+        moves[i] = get(j);
+        moves[j] = move;
+    }
+
+    /**
+     * @return the number of moves in this list
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return {@code true} if this list contains no moves, or {@code false} otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param move a packed move
+     * @return {@code true} if this list contains {@code move}, or {@code false} otherwise
+     */
+    public boolean contains(int move) {
+        for (int i = 0; i < size; i++) {
+            if (moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes all moves from this list, keeping its capacity.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Shrinks this list to a given size, discarding the moves after it.
+     *
+     * @param size the new size, not greater than the current one
+     */
+    public void truncate(int size) {
+        if (size > this.size) {
+            throw new IllegalArgumentException("cannot truncate a list of size " + this.size + " to size " + size);
+        }
+        this.size = size;
+    }
+
+    /**
+     * Builds the {@code Move} objects corresponding to the moves of this list.
+     *
+     * @return the set of moves in this list
+     * @see PackedMove#toMove(int)
+     */
+    public HashSet<Move> toMoves() {
+        HashSet<Move> set = new HashSet<>();
+        for (int i = 0; i < size; i++) {
+            set.add(PackedMove.toMove(moves[i]));
+        }
+        return set;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            sb.append(i == 0 ? "" : ", ").append(PackedMove.toString(moves[i]));
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -0,0 +1,226 @@
+package board;
+
+import pieces.Piece;
+import pieces.PieceType;
+
+/**
+ * Compact encoding of a move as an {@code int}, used by the move generator and other performance-critical code
+ * instead of {@link Move} objects.<br><br>
+ *
+ * The bits of a packed move are laid out as follows:
+ * <ul>
+ *     <li>bits 0-5: the square index of the start cell,</li>
+ *     <li>bits 6-11: the square index of the target cell,</li>
+ *     <li>bits 12-15: the ordinal of the {@link MoveCategory},</li>
+ *     <li>bits 16-18: the ordinal of the {@link PieceType} of the moving piece,</li>
+ *     <li>bit 19: the color of the moving piece ({@code 0} for white, {@code 1} for black),</li>
+ *     <li>bits 20-22: the ordinal of the {@link PieceType} of the captured piece plus one, or {@code 0} if the move is
+ *     not a capture,</li>
+ *     <li>bit 23: set if the move is an en passant capture.</li>
+ * </ul>
+ * A packed move determines the corresponding {@code Move} completely (see {@link #toMove(int)}). The value {@link
+ * #NONE} does not denote any move.
+ */
+public class PackedMove {
+    public static final int NONE = 0;
+
+    private static final MoveCategory[] CATEGORIES = MoveCategory.values();
+    private static final PieceType[] TYPES = PieceType.values();
+    private static final Color[] COLORS = Color.values();
+
+    private static final int TO_SHIFT = 6;
+    private static final int CATEGORY_SHIFT = 12;
+    private static final int PIECE_SHIFT = 16;
+    private static final int COLOR_SHIFT = 19;
+    private static final int CAPTURED_SHIFT = 20;
+    private static final int EN_PASSANT = 1 << 23;
+
+    /**
+     * Encodes a move.
+     *
+     * @param from the square index of the start cell
+     * @param to the square index of the target cell
+     * @param category a {@code MoveCategory}
+     * @param piece the type of the moving piece
+     * @param color the color of the moving piece
+     * @param captured the type of the captured piece, or {@code null} if the move is not a capture
+     * @param enPassant {@code true} if the move is an en passant capture
+     * @return the packed move
+     */
+    public static int encode(int from, int to, MoveCategory category, PieceType piece, Color color,
+                             PieceType captured, boolean enPassant) {
+        return from
+                | to << TO_SHIFT
+                | category.ordinal() << CATEGORY_SHIFT
+                | piece.ordinal() << PIECE_SHIFT
+                | color.ordinal() << COLOR_SHIFT
+                | (captured == null ? 0 : captured.ordinal() + 1) << CAPTURED_SHIFT
+                | (enPassant ? EN_PASSANT : 0);
+    }
+
+    /**
+     * Encodes a {@code Move} object as it is, without looking at any position. Therefore the packed move carries no
+     * information about captures; use {@link Board.Position#encode(Move)} to encode a move that is about to be made.
+     *
+     * @param move a {@code Move}, or {@code null}
+     * @return the packed move, or {@link #NONE} if {@code move} is {@code null} or has no piece
+     */
+    public static int encode(Move move) {
+        if (move == null || move.getPiece() == null) {
+            return NONE;
+        }
+        return encode(move.getStart().getSquare(), move.getTarget().getSquare(), move.getCategory(),
+                move.getPiece().getType(), move.getPiece().getColor(), null, false);
+    }
+
+    /**
+     * Returns the packed move with the same start cell, target cell and moving piece as a given packed move, but with
+     * another category. Useful for generating the four promotions of a pawn.
+     *
+     * @param move a packed move
+     * @param category a {@code MoveCategory}
+     * @return the packed move with category {@code category}
+     */
+    public static int withCategory(int move, MoveCategory category) {
+        return (move & ~(0xF << CATEGORY_SHIFT)) | category.ordinal() << CATEGORY_SHIFT;
+    }
+
+    /**
+     * @param move a packed move
+     * @return the square index of the start cell of {@code move}
+     */
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    /**
+     * @param move a packed move
+     * @return the square index of the target cell of {@code move}
+     */
+    public static int to(int move) {
+        return (move >>> TO_SHIFT) & 0x3F;
+    }
+
+    /**
+     * @param move a packed move
+     * @return the category of {@code move}
+     */
+    public static MoveCategory category(int move) {
+        return CATEGORIES[(move >>> CATEGORY_SHIFT) & 0xF];
+    }
+
+    /**
+     * @param move a packed move
+     * @return the type of the piece making {@code move}
+     */
+    public static PieceType piece(int move) {
+        return TYPES[(move >>> PIECE_SHIFT) & 0x7];
+    }
+
+    /**
+     * @param move a packed move
+     * @return the color of the piece making {@code move}
+     */
+    public static Color color(int move) {
+        return COLORS[(move >>> COLOR_SHIFT) & 0x1];
+    }
+
+    /**
+     * @param move a packed move
+     * @return the type of the piece captured by {@code move}, or {@code null} if {@code move} is not a capture
+     */
+    public static PieceType captured(int move) {
+        int captured = (move >>> CAPTURED_SHIFT) & 0x7;
+        return captured == 0 ? null : TYPES[captured - 1];
+    }
+
+    /**
+     * @param move a packed move
+     * @return {@code true} if {@code move} captures a piece (including en passant), or {@code false} otherwise
+     */
+    public static boolean isCapture(int move) {
+        return ((move >>> CAPTURED_SHIFT) & 0x7) != 0;
+    }
+
+    /**
+     * @param move a packed move
+     * @return {@code true} if {@code move} is an en passant capture, or {@code false} otherwise
+     */
+    public static boolean isEnPassant(int move) {
+        return (move & EN_PASSANT) != 0;
+    }
+
+    /**
+     * @param move a packed move
+     * @return {@code true} if {@code move} is a castling move, or {@code false} otherwise
+     */
+    public static boolean isCastling(int move) {
+        MoveCategory category = category(move);
+        return category == MoveCategory.O_O || category == MoveCategory.O_O_O;
+    }
+
+    /**
+     * @param move a packed move
+     * @return {@code true} if {@code move} is a pawn promotion, or {@code false} otherwise
+     */
+    public static boolean isPromotion(int move) {
+        return getPromotionType(category(move)) != null;
+    }
+
+    /**
+     * @param category a {@code MoveCategory}
+     * @return the type of the piece that a pawn promotes to with a move of category {@code category}, or {@code null}
+     * if {@code category} is not a promotion
+     */
+    public static PieceType getPromotionType(MoveCategory category) {
+        return switch (category) {
+            case PROMOTE_TO_QUEEN -> PieceType.QUEEN;
+            case PROMOTE_TO_ROOK -> PieceType.ROOK;
+            case PROMOTE_TO_BISHOP -> PieceType.BISHOP;
+            case PROMOTE_TO_KNIGHT -> PieceType.KNIGHT;
+            default -> null;
+        };
+    }
+
+    /**
+     * Determines whether a packed move and a {@code Move} denote the same move, in the sense of {@link
+     * Move#equals(Object)}.
+     *
+     * @param move a packed move
+     * @param other a {@code Move}
+     * @return {@code true} if {@code move} and {@code other} denote the same move, or {@code false} otherwise
+     */
+    public static boolean matches(int move, Move other) {
+        MoveCategory category = category(move);
+        if (category != other.getCategory()) {
+            return false;
+        }
+        if (category == MoveCategory.O_O || category == MoveCategory.O_O_O) {
+            return true;
+        }
+        return other.getPiece() != null
+                && other.getPiece().getType() == piece(move)
+                && other.getStart().getSquare() == from(move)
+                && other.getTarget().getSquare() == to(move);
+    }
+
+    /**
+     * Builds the {@code Move} object corresponding to a packed move. This is the only place where packed moves are
+     * converted to objects, which should only happen at API boundaries (e.g. when a {@code Player} returns a move).
+     *
+     * @param move a packed move
+     * @return the corresponding {@code Move}
+     */
+    public static Move toMove(int move) {
+        Piece piece = Piece.of(piece(move), color(move));
+        return new Move(Cell.of(from(move)), Cell.of(to(move)), piece, category(move));
+    }
+
+    /**
+     * @param move a packed move
+     * @return the representation of {@code move} in full chess notation (see {@link Move#toString()})
+     */
+    public static String toString(int move) {
+        return move == NONE ? "none" : toMove(move).toString();
+    }
+}
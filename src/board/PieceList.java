@@ -0,0 +1,184 @@
+package board;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import static utils.Global.SIZE;
+
+/**
+ * A read-only view of the cells occupied by the pieces of one color in a {@code Position}.<br><br>
+ *
+ * The list is owned by its position and is kept up to date incrementally as pieces are placed, removed and moved, so
+ * obtaining it never scans the board and never allocates. Since it is a live view, it reflects all changes made to the
+ * position. A piece that moves keeps its index in the list, so iterating over the list while moves are being made and
+ * taken back (e.g. while checking the legality of moves) is safe and never throws a
+ * {@code ConcurrentModificationException}.<br><br>
+ *
+ * The order of the cells in the list is unspecified.
+ */
+public class PieceList implements Iterable<Cell> {
+    private final int[] squares = new int[SIZE * SIZE];
+    // index[square] is the position of square in squares (only meaningful for squares in the list)
+    private final int[] index = new int[SIZE * SIZE];
+    private int size = 0;
+
+    /**
+     * Package-private constructor: piece lists are only created by {@code Position}.
+     */
+    PieceList() {
+    }
+
+    /**
+     * @return the number of pieces in this list
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return {@code true} if this list contains no pieces, or {@code false} otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param i an index in the range {@code [0, size())}
+     * @return the square index of the {@code i}-th piece in this list
+     */
+    public int getSquare(int i) {
+        if (i >= size) {
+            throw new IndexOutOfBoundsException("index " + i + " is out of bounds for size " + size);
+        }
+        return squares[i];
+    }
+
+    /**
+     * @param i an index in the range {@code [0, size())}
+     * @return the cell of the {@code i}-th piece in this list
+     */
+    public Cell get(int i) {
+        return Cell.of(getSquare(i));
+    }
+
+    /**
+     * @param cell a {@code Cell}
+     * @return {@code true} if {@code cell} contains one of the pieces in this list, or {@code false} otherwise
+     */
+    public boolean contains(Cell cell) {
+        if (!cell.withinBounds()) {
+            return false;
+        }
+        int square = cell.getSquare();
+        int i = index[square];
+        return i < size && squares[i] == square;
+    }
+
+    /**
+     * Adds a square to this list. The square must not be in the list already.
+     *
+     * @param square a square index
+     */
+    void add(int square) {
+        index[square] = size;
+        squares[size++] = square;
+    }
+
+    /**
+     * Removes a square from this list, replacing it with the last square in the list. The square must be in the list.
+     *
+     * @param square a square index
+     * @return the former index of {@code square} in this list, which can be passed to {@link #insert(int, int)} to
+     * undo the removal
+     */
+    int remove(int square) {
+        int i = index[square];
+        int last = squares[--size];
+        squares[i] = last;
+        index[last] = i;
+        return i;
+    }
+
+    /**
+     * Inserts a square into this list at a given index, moving the square found at that index to the end of the list.
+     * This is the exact inverse of {@link #remove(int)}, so removing squares and inserting them back in reverse order
+     * restores the original order of the list.
+     *
+     * @param square a square index, not in the list
+     * @param i an index in the range {@code [0, size()]}
+     */
+    void insert(int square, int i) {
+        if (i < size) {
+            int displaced = squares[i];
+            squares[size] = displaced;
+            index[displaced] = size;
+        }
+        squares[i] = square;
+        index[square] = i;
+        size++;
+    }
+
+    /**
+     * Replaces a square in this list with another one, keeping its index. The source square must be in the list, and
+     * the target square must not be.
+     *
+     * @param from a square index
+     * @param to a square index
+     */
+    void move(int from, int to) {
+        int i = index[from];
+        squares[i] = to;
+        index[to] = i;
+    }
+
+    /**
+     * Removes all squares from this list.
+     */
+    void clear() {
+        size = 0;
+    }
+
+    /**
+     * Makes this list a copy of another list.
+     *
+     * @param other a {@code PieceList}
+     */
+    void copyFrom(PieceList other) {
+        System.arraycopy(other.squares, 0, squares, 0, other.size);
+        System.arraycopy(other.index, 0, index, 0, index.length);
+        size = other.size;
+    }
+
+    /**
+     * Returns an iterator over the cells in this list. Iterating by index (see {@link #size()} and {@link #get(int)})
+     * is an equivalent alternative that does not create an iterator.
+     */
+    @Override
+    public Iterator<Cell> iterator() {
+        return new Iterator<>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public Cell next() {
+                if (next >= size) {
+                    throw new NoSuchElementException();
+                }
+                return Cell.of(squares[next++]);
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            sb.append(i == 0 ? "" : ", ").append(Cell.of(squares[i]));
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -0,0 +1,182 @@
+package board;
+
+import pieces.PieceType;
+
+import static utils.Global.SIZE;
+
+/**
+ * The evaluation terms that {@code Position} maintains incrementally: material values, middlegame and endgame
+ * piece-square values, and the weights of the pieces in the game phase.<br><br>
+ *
+ * The values are those of the "Simplified Evaluation Function" by Tomasz Michniewski, in centipawns, with a separate
+ * endgame table for the king. The piece-square values include the material value and are negated for black pieces, so
+ * that the sum over all pieces is the score for white. The game phase is the sum of the weights of the pieces on the
+ * board, {@value #MAX_PHASE} in the initial position and decreasing towards the endgame.
+ */
+public class PieceSquareTables {
+    public static final int MAX_PHASE = 24;
+
+    private static final int[] VALUES = {100, 320, 330, 500, 900, 0};
+    private static final int[] PHASES = {0, 1, 1, 2, 4, 0};
+
+    // Tables for white, from a8 (square 0) to h1 (square 63), as seen from white's side of the board
+    private static final int[][] MIDDLEGAME_TABLES = {
+            {
+                    0, 0, 0, 0, 0, 0, 0, 0,
+                    50, 50, 50, 50, 50, 50, 50, 50,
+                    10, 10, 20, 30, 30, 20, 10, 10,
+                    5, 5, 10, 25, 25, 10, 5, 5,
+                    0, 0, 0, 20, 20, 0, 0, 0,
+                    5, -5, -10, 0, 0, -10, -5, 5,
+                    5, 10, 10, -20, -20, 10, 10, 5,
+                    0, 0, 0, 0, 0, 0, 0, 0
+            },
+            {
+                    -50, -40, -30, -30, -30, -30, -40, -50,
+                    -40, -20, 0, 0, 0, 0, -20, -40,
+                    -30, 0, 10, 15, 15, 10, 0, -30,
+                    -30, 5, 15, 20, 20, 15, 5, -30,
+                    -30, 0, 15, 20, 20, 15, 0, -30,
+                    -30, 5, 10, 15, 15, 10, 5, -30,
+                    -40, -20, 0, 5, 5, 0, -20, -40,
+                    -50, -40, -30, -30, -30, -30, -40, -50
+            },
+            {
+                    -20, -10, -10, -10, -10, -10, -10, -20,
+                    -10, 0, 0, 0, 0, 0, 0, -10,
+                    -10, 0, 5, 10, 10, 5, 0, -10,
+                    -10, 5, 5, 10, 10, 5, 5, -10,
+                    -10, 0, 10, 10, 10, 10, 0, -10,
+                    -10, 10, 10, 10, 10, 10, 10, -10,
+                    -10, 5, 0, 0, 0, 0, 5, -10,
+                    -20, -10, -10, -10, -10, -10, -10, -20
+            },
+            {
+                    0, 0, 0, 0, 0, 0, 0, 0,
+                    5, 10, 10, 10, 10, 10, 10, 5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    0, 0, 0, 5, 5, 0, 0, 0
+            },
+            {
+                    -20, -10, -10, -5, -5, -10, -10, -20,
+                    -10, 0, 0, 0, 0, 0, 0, -10,
+                    -10, 0, 5, 5, 5, 5, 0, -10,
+                    -5, 0, 5, 5, 5, 5, 0, -5,
+                    0, 0, 5, 5, 5, 5, 0, -5,
+                    -10, 5, 5, 5, 5, 5, 0, -10,
+                    -10, 0, 5, 0, 0, 0, 0, -10,
+                    -20, -10, -10, -5, -5, -10, -10, -20
+            },
+            {
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -20, -30, -30, -40, -40, -30, -30, -20,
+                    -10, -20, -20, -20, -20, -20, -20, -10,
+                    20, 20, 0, 0, 0, 0, 20, 20,
+                    20, 30, 10, 0, 0, 10, 30, 20
+            }
+    };
+    private static final int[] KING_ENDGAME_TABLE = {
+            -50, -40, -30, -20, -20, -30, -40, -50,
+            -30, -20, -10, 0, 0, -10, -20, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -30, 0, 0, 0, 0, -30, -30,
+            -50, -30, -30, -30, -30, -30, -30, -50
+    };
+
+    // MIDDLEGAME[color][type][square] and ENDGAME[color][type][square]: the signed value of a piece on a square
+    private static final int[][][] MIDDLEGAME = new int[Color.values().length][PieceType.values().length][SIZE * SIZE];
+    private static final int[][][] ENDGAME = new int[Color.values().length][PieceType.values().length][SIZE * SIZE];
+
+    static {
+        for (int type = 0; type < VALUES.length; type++) {
+            int[] endgameTable = type == PieceType.KING.ordinal() ? KING_ENDGAME_TABLE : MIDDLEGAME_TABLES[type];
+            for (int square = 0; square < SIZE * SIZE; square++) {
+                // Black pieces use the table mirrored vertically
+                int mirrored = Bitboards.square(SIZE - 1 - Bitboards.row(square), Bitboards.col(square));
+                MIDDLEGAME[0][type][square] = VALUES[type] + MIDDLEGAME_TABLES[type][square];
+                MIDDLEGAME[1][type][square] = -(VALUES[type] + MIDDLEGAME_TABLES[type][mirrored]);
+                ENDGAME[0][type][square] = VALUES[type] + endgameTable[square];
+                ENDGAME[1][type][square] = -(VALUES[type] + endgameTable[mirrored]);
+            }
+        }
+    }
+
+    private PieceSquareTables() {
+    }
+
+    /**
+     * @param type a {@code PieceType}
+     * @return the material value of a piece of type {@code type}, in centipawns ({@code 0} for the king)
+     */
+    public static int getValue(PieceType type) {
+        return VALUES[type.ordinal()];
+    }
+
+    /**
+     * @param color a {@code Color}
+     * @param type a {@code PieceType}
+     * @param square a square index
+     * @return the middlegame value of the piece on {@code square}, material included, positive for white and negative
+     * for black
+     */
+    public static int getMiddlegame(Color color, PieceType type, int square) {
+        return MIDDLEGAME[color.ordinal()][type.ordinal()][square];
+    }
+
+    /**
+     * @param color a {@code Color}
+     * @param type a {@code PieceType}
+     * @param square a square index
+     * @return the endgame value of the piece on {@code square}, material included, positive for white and negative for
+     * black
+     */
+    public static int getEndgame(Color color, PieceType type, int square) {
+        return ENDGAME[color.ordinal()][type.ordinal()][square];
+    }
+
+    /**
+     * @param type a {@code PieceType}
+     * @return the weight of a piece of type {@code type} in the game phase
+     */
+    public static int getPhase(PieceType type) {
+        return PHASES[type.ordinal()];
+    }
+
+    /**
+     * Package-private method that returns the material value of a piece, by type index.
+     */
+    static int value(int type) {
+        return VALUES[type];
+    }
+
+    /**
+     * Package-private method that returns the middlegame value of a piece, by color and type index.
+     */
+    static int middlegame(int color, int type, int square) {
+        return MIDDLEGAME[color][type][square];
+    }
+
+    /**
+     * Package-private method that returns the endgame value of a piece, by color and type index.
+     */
+    static int endgame(int color, int type, int square) {
+        return ENDGAME[color][type][square];
+    }
+
+    /**
+     * Package-private method that returns the weight of a piece in the game phase, by type index.
+     */
+    static int phase(int type) {
+        return PHASES[type];
+    }
+}
@@ -0,0 +1,116 @@
+package board;
+
+import board.Board.Position;
+import pieces.PieceType;
+
+import static utils.Global.SIZE;
+
+/**
+ * Static exchange evaluation (SEE): the material balance of the sequence of captures on one square that starts with a
+ * given move, computed without making any move.<br><br>
+ *
+ * The exchange is played out on attacker sets only: the set of pieces attacking the square is computed once, and every
+ * capture removes the least valuable attacker of the side to capture from the occupancy, which reveals the bishops,
+ * rooks and queens that were behind it on the same line (x-rays). Each side may stop capturing when continuing would
+ * lose material, so the value of an exchange is the minimax of the captured material. A king only captures if the
+ * opponent has no attacker left, and a pawn that captures on the last row becomes a queen. Pins are ignored.<br><br>
+ *
+ * Material is counted with the values of {@link PieceSquareTables}. The evaluation works on bitboards with a recursion
+ * depth of at most the number of pieces, so it does not allocate.
+ */
+class StaticExchange {
+    private static final PieceType[] TYPES = PieceType.values();
+
+    /**
+     * Computes the material balance of the exchange that starts with a move.
+     *
+     * @param position a {@code Position}
+     * @param move a legal move in {@code position}, in packed form (see {@link PackedMove})
+     * @return the material won by the moving side at the end of the exchange (negative if it loses material), or
+     * {@code 0} for castling
+     */
+    static int evaluate(Position position, int move) {
+        if (PackedMove.isCastling(move)) {
+            return 0;
+        }
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        Color color = PackedMove.color(move);
+        long occupied = position.getOccupancy() & ~Bitboards.bit(from);
+        int gain = 0;
+        if (PackedMove.isCapture(move)) {
+            gain = PieceSquareTables.getValue(PackedMove.captured(move));
+            if (PackedMove.isEnPassant(move)) {
+                // The captured pawn stands beside the pawn that captures, behind the target cell
+                occupied &= ~Bitboards.bit(color == Color.WHITE ? to + SIZE : to - SIZE);
+            }
+        }
+        PieceType onSquare = PackedMove.piece(move);
+        PieceType promotion = PackedMove.getPromotionType(PackedMove.category(move));
+        if (promotion != null) {
+            gain += PieceSquareTables.getValue(promotion) - PieceSquareTables.getValue(PieceType.PAWN);
+            onSquare = promotion;
+        }
+        long queens = position.getPieces(Color.WHITE, PieceType.QUEEN)
+                | position.getPieces(Color.BLACK, PieceType.QUEEN);
+        long diagonals = queens | position.getPieces(Color.WHITE, PieceType.BISHOP)
+                | position.getPieces(Color.BLACK, PieceType.BISHOP);
+        long orthogonals = queens | position.getPieces(Color.WHITE, PieceType.ROOK)
+                | position.getPieces(Color.BLACK, PieceType.ROOK);
+        long attackers = position.getAttackers(to, occupied) & occupied;
+        return gain - capture(position, to, Color.getOppositeColor(color), onSquare, occupied, attackers, diagonals,
+                orthogonals);
+    }
+
+    /**
+     * Private method that returns what a side gains by capturing the piece on a square with its least valuable
+     * attacker and then continuing the exchange as long as it pays, or {@code 0} if it is better not to capture.
+     *
+     * @param position the position of the exchange
+     * @param square the square of the exchange
+     * @param side the side to capture
+     * @param target the type of the piece on the square
+     * @param occupied the occupancy after the previous captures
+     * @param attackers the pieces of both sides that attack the square and were not used yet
+     * @param diagonals the bishops and queens of both sides
+     * @param orthogonals the rooks and queens of both sides
+     */
+    private static int capture(Position position, int square, Color side, PieceType target, long occupied,
+                               long attackers, long diagonals, long orthogonals) {
+        long own = attackers & position.getOccupancy(side);
+        if (own == 0) {
+            return 0;
+        }
+        Color enemy = Color.getOppositeColor(side);
+        for (PieceType type : TYPES) {
+            long candidates = own & position.getPieces(side, type);
+            if (candidates == 0) {
+                continue;
+            }
+            if (type == PieceType.KING && (attackers & position.getOccupancy(enemy)) != 0) {
+                // The king cannot capture a defended piece
+                return 0;
+            }
+            long bit = Bitboards.bit(Bitboards.lowest(candidates));
+            occupied &= ~bit;
+            // Removing the attacker may reveal a slider behind it on the same line
+            if (type == PieceType.PAWN || type == PieceType.BISHOP || type == PieceType.QUEEN) {
+                attackers |= Attacks.bishop(square, occupied) & diagonals;
+            }
+            if (type == PieceType.ROOK || type == PieceType.QUEEN) {
+                attackers |= Attacks.rook(square, occupied) & orthogonals;
+            }
+            attackers &= occupied;
+            int gain = PieceSquareTables.getValue(target);
+            PieceType onSquare = type;
+            int row = Bitboards.row(square);
+            if (type == PieceType.PAWN && (row == 0 || row == SIZE - 1)) {
+                gain += PieceSquareTables.getValue(PieceType.QUEEN) - PieceSquareTables.getValue(PieceType.PAWN);
+                onSquare = PieceType.QUEEN;
+            }
+            return Math.max(0, gain - capture(position, square, enemy, onSquare, occupied, attackers, diagonals,
+                    orthogonals));
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,92 @@
+package board;
+
+import pieces.PieceType;
+
+import java.util.SplittableRandom;
+
+import static utils.Global.SIZE;
+
+/**
+ * Random keys for Zobrist hashing of positions.<br><br>
+ *
+ * The key of a position is the XOR of one random 64-bit number per feature of the position: one for every piece
+ * (depending on its color, type and square), one if black is to move, one per available castling right and one for the
+ * file of a possible en passant capture. Since XOR is its own inverse, a {@code Position} updates its key in constant
+ * time whenever a piece is placed, removed or moved (see {@link Board.Position#getKey()}).<br><br>
+ *
+ * The keys are generated from a fixed seed, so keys of equal positions are equal across runs.
+ */
+public class Zobrist {
+    private static final int SQUARES = SIZE * SIZE;
+    private static final int COLORS = Color.values().length;
+    private static final int TYPES = PieceType.values().length;
+
+    // Indexed by [color][type][square]
+    private static final long[][][] PIECES = new long[COLORS][TYPES][SQUARES];
+    private static final long BLACK_TO_MOVE;
+    // Indexed by [color][side], where side 0 is O-O and side 1 is O-O-O
+    private static final long[][] CASTLING = new long[COLORS][2];
+    // Indexed by column
+    private static final long[] EN_PASSANT = new long[SIZE];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x2088B157L);
+        for (long[][] byType : PIECES) {
+            for (long[] bySquare : byType) {
+                for (int square = 0; square < SQUARES; square++) {
+                    bySquare[square] = random.nextLong();
+                }
+            }
+        }
+        BLACK_TO_MOVE = random.nextLong();
+        for (long[] bySide : CASTLING) {
+            bySide[0] = random.nextLong();
+            bySide[1] = random.nextLong();
+        }
+        for (int col = 0; col < SIZE; col++) {
+            EN_PASSANT[col] = random.nextLong();
+        }
+    }
+
+    /**
+     * @param color a {@code Color}
+     * @param type a {@code PieceType}
+     * @param square a square index
+     * @return the key of a piece of color {@code color} and type {@code type} located at {@code square}
+     */
+    public static long piece(Color color, PieceType type, int square) {
+        return PIECES[color.ordinal()][type.ordinal()][square];
+    }
+
+    /**
+     * Same as {@link #piece(Color, PieceType, int)}, with the color and type given by their ordinals.
+     */
+    static long piece(int color, int type, int square) {
+        return PIECES[color][type][square];
+    }
+
+    /**
+     * @return the key included if black is to move
+     */
+    public static long blackToMove() {
+        return BLACK_TO_MOVE;
+    }
+
+    /**
+     * @param color a {@code Color}
+     * @param category {@link MoveCategory#O_O} or {@link MoveCategory#O_O_O}
+     * @return the key of the right of the player of color {@code color} to castle on the side given by {@code
+     * category}
+     */
+    public static long castling(Color color, MoveCategory category) {
+        return CASTLING[color.ordinal()][category == MoveCategory.O_O ? 0 : 1];
+    }
+
+    /**
+     * @param col a column index
+     * @return the key of a possible en passant capture on column {@code col}
+     */
+    public static long enPassant(int col) {
+        return EN_PASSANT[col];
+    }
+}
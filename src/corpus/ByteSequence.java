@@ -0,0 +1,60 @@
+package corpus;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A reusable {@code CharSequence} view of a range of bytes of a buffer, read as ASCII (or ISO-8859-1) characters. It
+ * lets records of a memory-mapped file be parsed in place, without decoding them into strings.
+ */
+class ByteSequence implements CharSequence {
+    private ByteBuffer buffer;
+    private int start;
+    private int end;
+
+    /**
+     * Package-private method that points this view to a range of bytes.
+     *
+     * @param buffer the buffer holding the bytes (its position and limit are ignored)
+     * @param start the index of the first byte
+     * @param end the index after the last byte
+     * @return this view
+     */
+    ByteSequence set(ByteBuffer buffer, int start, int end) {
+        this.buffer = buffer;
+        this.start = start;
+        this.end = end;
+        return this;
+    }
+
+    @Override
+    public int length() {
+        return end - start;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= end - start) {
+            throw new IndexOutOfBoundsException("index " + index + " out of range [0, " + (end - start) + ")");
+        }
+        return (char) (buffer.get(start + index) & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(int from, int to) {
+        if (from < 0 || to > end - start || from > to) {
+            throw new IndexOutOfBoundsException("range [" + from + ", " + to + ") out of range [0, " + (end - start)
+                    + ")");
+        }
+        return new ByteSequence().set(buffer, start + from, start + to);
+    }
+
+    @Override
+    public String toString() {
+        byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(start + i);
+        }
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+}
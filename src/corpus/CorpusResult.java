@@ -0,0 +1,60 @@
+package corpus;
+
+/**
+ * The summary of a run of a {@link CorpusRunner}: the number of records processed, the number of records that were
+ * not valid FEN or EPD, the size of the input and the time taken.
+ */
+public class CorpusResult {
+    private final long records;
+    private final long invalid;
+    private final long bytes;
+    private final long nanos;
+
+    CorpusResult(long records, long invalid, long bytes, long nanos) {
+        this.records = records;
+        this.invalid = invalid;
+        this.bytes = bytes;
+        this.nanos = nanos;
+    }
+
+    /**
+     * @return the number of records (lines other than blank lines and comments), including the invalid ones
+     */
+    public long getRecords() {
+        return records;
+    }
+
+    /**
+     * @return the number of records that could not be parsed
+     */
+    public long getInvalid() {
+        return invalid;
+    }
+
+    /**
+     * @return the size of the input, in bytes
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return the time taken, in nanoseconds
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * @return the number of records processed per second
+     */
+    public double getRecordsPerSecond() {
+        return records * 1e9 / Math.max(1, nanos);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d records (%d invalid), %.1f MB in %d ms, %.0f records/s, %.1f MB/s", records, invalid,
+                bytes / 1e6, nanos / 1_000_000, getRecordsPerSecond(), bytes * 1e3 / Math.max(1, nanos));
+    }
+}
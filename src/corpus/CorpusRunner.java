@@ -0,0 +1,305 @@
+package corpus;
+
+import board.Board;
+import board.Board.Position;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Runs a {@link PositionTask} on every position of a file of FEN or EPD records, one record per line, on all cores.
+ * <br><br>
+ *
+ * The file is split into chunks of a fixed number of bytes, which are memory-mapped one at a time by the threads that
+ * process them, so files of any size can be read without loading them. A line belongs to the chunk in which it starts:
+ * a thread skips the end of the line that started in the previous chunk, and reads past the end of its chunk to finish
+ * its last line. Every record is parsed in place from the mapped bytes into one reused {@code Position} per thread
+ * (see {@link Position#loadFen(CharSequence)}); an EPD record is cut after its four position fields, and a FEN record
+ * after its move counters. Blank lines and lines starting with {@code #} are skipped.<br><br>
+ *
+ * The task writes one line per record, and the lines are written to the output in the order of the input. Every chunk
+ * collects its output separately, and a chunk is written as soon as all chunks before it are written. A thread does
+ * not start a chunk more than twice the number of threads ahead of the first chunk not written yet, so the memory use
+ * depends on the chunk size and the number of threads, but not on the size of the file.
+ */
+public class CorpusRunner {
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 22;
+    // Every chunk maps up to this many bytes past its end, so smaller chunks would mostly map the next chunks
+    public static final int MIN_CHUNK_SIZE = 1 << 16;
+    // The greatest number of bytes by which a line may extend past the end of its chunk
+    private static final int MAX_LINE_LENGTH = MIN_CHUNK_SIZE;
+
+    private final Supplier<? extends PositionTask> tasks;
+    private final int threads;
+    private final int chunkSize;
+
+    /**
+     * @param tasks creates the task of every thread
+     * @param threads the number of threads processing chunks
+     * @param chunkSize the number of bytes of a chunk, at least {@value #MIN_CHUNK_SIZE}
+     */
+    public CorpusRunner(Supplier<? extends PositionTask> tasks, int threads, int chunkSize) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("number of threads must be positive, got " + threads);
+        }
+        if (chunkSize < MIN_CHUNK_SIZE) {
+            throw new IllegalArgumentException("chunk size must be at least " + MIN_CHUNK_SIZE + ", got " + chunkSize);
+        }
+        this.tasks = tasks;
+        this.threads = threads;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Creates a runner that uses all available processors and chunks of {@value #DEFAULT_CHUNK_SIZE} bytes.
+     *
+     * @param tasks creates the task of every thread
+     */
+    public CorpusRunner(Supplier<? extends PositionTask> tasks) {
+        this(tasks, Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Processes every record of a file and writes one line per record to an output stream. A record that is not valid
+     * FEN or EPD gets a line starting with {@code invalid:} instead of the output of the task.
+     *
+     * @param input a file of FEN or EPD records, in ASCII
+     * @param output the stream the results are written to (it is flushed, but not closed)
+     * @return the summary of the run
+     * @throws IOException if the input cannot be read or the output cannot be written
+     * @throws IllegalStateException if a line is longer than the greatest supported length, or a task failed
+     */
+    public CorpusResult run(Path input, OutputStream output) throws IOException {
+        long start = System.nanoTime();
+        AtomicLong records = new AtomicLong();
+        AtomicLong invalid = new AtomicLong();
+        long size;
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            size = channel.size();
+            long chunks = (size + chunkSize - 1) / chunkSize;
+            int window = 2 * threads;
+            // The outputs of the chunks that are done but not written yet, by chunk index modulo the window
+            byte[][] pending = new byte[window][];
+            // The index of the first chunk not written yet, and whether a thread failed
+            long[] written = {0};
+            boolean[] failed = {false};
+            AtomicLong next = new AtomicLong();
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<?>> workers = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    workers.add(executor.submit(() -> {
+                        // Every thread has its own task, board and output buffer, reused for all its chunks
+                        PositionTask task = tasks.get();
+                        Board board = new Board(new Position());
+                        ChunkReader reader = new ChunkReader();
+                        StringBuilder text = new StringBuilder();
+                        try {
+                            for (long chunk = next.getAndIncrement(); chunk < chunks; chunk = next.getAndIncrement()) {
+                                synchronized (pending) {
+                                    while (!failed[0] && chunk >= written[0] + window) {
+                                        pending.wait();
+                                    }
+                                    if (failed[0]) {
+                                        return null;
+                                    }
+                                }
+                                text.setLength(0);
+                                reader.read(channel, size, chunk, task, board, text);
+                                byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+                                synchronized (pending) {
+                                    pending[(int) (chunk % window)] = bytes;
+                                    for (int slot = (int) (written[0] % window); pending[slot] != null;
+                                         slot = (int) (written[0] % window)) {
+                                        output.write(pending[slot]);
+                                        pending[slot] = null;
+                                        written[0]++;
+                                    }
+                                    pending.notifyAll();
+                                }
+                            }
+                        } catch (IOException e) {
+                            fail(pending, failed);
+                            throw new UncheckedIOException(e);
+                        } catch (RuntimeException | InterruptedException e) {
+                            fail(pending, failed);
+                            throw e;
+                        } finally {
+                            records.addAndGet(reader.records);
+                            invalid.addAndGet(reader.invalid);
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> worker : workers) {
+                    worker.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof UncheckedIOException) {
+                    throw ((UncheckedIOException) e.getCause()).getCause();
+                }
+                throw new IllegalStateException("processing the corpus failed", e.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+        output.flush();
+        return new CorpusResult(records.get(), invalid.get(), size, System.nanoTime() - start);
+    }
+
+    /**
+     * Private method that signals the other threads that a thread failed, so that none of them waits for a chunk that
+     * will never be written.
+     */
+    private static void fail(byte[][] pending, boolean[] failed) {
+        synchronized (pending) {
+            failed[0] = true;
+            pending.notifyAll();
+        }
+    }
+
+    /**
+     * The state of one thread while it reads chunks: views of the current record and of its position fields, and the
+     * numbers of records read so far.
+     */
+    private class ChunkReader {
+        private final ByteSequence record = new ByteSequence();
+        private final ByteSequence fen = new ByteSequence();
+        private long records = 0;
+        private long invalid = 0;
+
+        /**
+         * Maps a chunk of the input and processes the lines that start in it, appending one line per record.
+         */
+        void read(FileChannel channel, long size, long chunk, PositionTask task, Board board, StringBuilder text)
+                throws IOException {
+            long chunkStart = chunk * chunkSize;
+            long chunkEnd = Math.min(size, chunkStart + chunkSize);
+            // The byte before the chunk tells whether a line starts right at the beginning of the chunk
+            long mapStart = Math.max(0, chunkStart - 1);
+            long mapEnd = Math.min(size, chunkEnd + MAX_LINE_LENGTH);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, mapStart, mapEnd - mapStart);
+            int limit = (int) (mapEnd - mapStart);
+            int last = (int) (chunkEnd - mapStart);
+            int pos = 0;
+            if (chunkStart > 0) {
+                while (pos < limit && buffer.get(pos) != '\n') {
+                    pos++;
+                }
+                pos++;
+            }
+            while (pos < last) {
+                int eol = pos;
+                while (eol < limit && buffer.get(eol) != '\n') {
+                    eol++;
+                }
+                if (eol == limit && mapEnd < size) {
+                    throw new IllegalStateException("line at byte " + (mapStart + pos) + " is longer than "
+                            + MAX_LINE_LENGTH + " bytes");
+                }
+                int end = eol > pos && buffer.get(eol - 1) == '\r' ? eol - 1 : eol;
+                if (end > pos && buffer.get(pos) != '#') {
+                    process(buffer, pos, end, task, board, text);
+                }
+                pos = eol + 1;
+            }
+        }
+
+        /**
+         * Private method that sets up the position of one record and runs the task on it.
+         */
+        private void process(MappedByteBuffer buffer, int start, int end, PositionTask task, Board board,
+                             StringBuilder text) {
+            records++;
+            record.set(buffer, start, end);
+            fen.set(buffer, start, getPositionEnd(buffer, start, end));
+            try {
+                board.getPosition().loadFen(fen);
+            } catch (IllegalArgumentException e) {
+                invalid++;
+                text.append("invalid: ").append(e.getMessage()).append('\n');
+                return;
+            }
+            task.process(board, record, text);
+            if (board.getUndoDepth() != 0) {
+                throw new IllegalStateException("the task did not take back its moves");
+            }
+            text.append('\n');
+        }
+
+        /**
+         * Private method that returns the end of the position fields of a record: the four fields of an EPD record,
+         * followed by the half-move clock and the full move number if they are present, as in a FEN record. The
+         * operations of an EPD record start with a letter, so they cannot be taken for move counters.
+         */
+        private int getPositionEnd(MappedByteBuffer buffer, int start, int end) {
+            int i = start;
+            for (int field = 0; field < 4; field++) {
+                if (field > 0) {
+                    if (i == end) {
+                        return end;
+                    }
+                    i++;
+                }
+                while (i < end && buffer.get(i) != ' ') {
+                    i++;
+                }
+            }
+            for (int counter = 0; counter < 2 && i < end; counter++) {
+                int j = i + 1;
+                while (j < end && buffer.get(j) >= '0' && buffer.get(j) <= '9') {
+                    j++;
+                }
+                if (j == i + 1 || (j < end && buffer.get(j) != ' ')) {
+                    break;
+                }
+                i = j;
+            }
+            return i;
+        }
+    }
+
+    /**
+     * Usage: {@code CorpusRunner input [task [threads [output]]]}, where {@code task} is written as in {@link
+     * PositionTasks#parse(String)} ({@code classify} by default). Writes the results to the output file, or to the
+     * standard output, and the summary to the standard error.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: CorpusRunner input [task [threads [output]]]");
+            return;
+        }
+        Path input = Paths.get(args[0]);
+        Supplier<PositionTask> task = PositionTasks.parse(args.length > 1 ? args[1] : "classify");
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        CorpusRunner runner = new CorpusRunner(task, threads, DEFAULT_CHUNK_SIZE);
+        CorpusResult result;
+        if (args.length > 3) {
+            try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(Paths.get(args[3])))) {
+                result = runner.run(input, output);
+            }
+        } else {
+            result = runner.run(input, System.out);
+        }
+        System.err.println(result);
+    }
+}
@@ -0,0 +1,21 @@
+package corpus;
+
+import board.Board;
+
+/**
+ * The work done by a {@link CorpusRunner} on every position of a corpus, which produces one line of output per
+ * position. A runner creates one task per thread, so a task may keep mutable state (move lists, a search, a hash
+ * table) and reuse it for every position it processes.
+ */
+public interface PositionTask {
+    /**
+     * Processes one position and appends its result to the output, as a single line without the line separator.
+     *
+     * @param board a board whose position is set up from the record; moves may be made on it, but they must be taken
+     *              back before returning
+     * @param record the whole line of the input, e.g. with the operations of an EPD record; it is only valid during
+     *               the call
+     * @param output the builder to append the result to
+     */
+    void process(Board board, CharSequence record, StringBuilder output);
+}
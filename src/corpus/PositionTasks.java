@@ -0,0 +1,200 @@
+package corpus;
+
+import analysis.PositionClass;
+import board.Bitboards;
+import board.Board;
+import board.Board.Position;
+import board.MoveList;
+import board.PackedMove;
+import engine.Search;
+import engine.SearchLimits;
+import engine.SearchResult;
+import engine.TranspositionTable;
+import pieces.PieceType;
+
+import java.util.function.Supplier;
+
+import static utils.Global.SIZE;
+
+/**
+ * The standard tasks of a {@link CorpusRunner}. Every method returns a factory, which creates a task with its own
+ * state for every thread. Except for the legality check and the classification, the tasks write {@code illegal} for a
+ * position that is not legal (see {@link PositionClass}), since such a position cannot be searched.
+ */
+public class PositionTasks {
+    private static final PositionClass[] CLASSES = PositionClass.values();
+    private static final String[] CLASS_NAMES = new String[CLASSES.length];
+
+    static {
+        for (int i = 0; i < CLASSES.length; i++) {
+            CLASS_NAMES[i] = CLASSES[i].name().toLowerCase();
+        }
+    }
+
+    private PositionTasks() {
+    }
+
+    /**
+     * @return a task that writes {@code legal} or {@code illegal}
+     */
+    public static Supplier<PositionTask> legality() {
+        return () -> (board, record, output) -> output.append(
+                PositionClass.of(board.getPosition()) == PositionClass.ILLEGAL ? "illegal" : "legal");
+    }
+
+    /**
+     * @return a task that writes the class of the position: {@code illegal}, {@code ordinary}, {@code check}, {@code
+     * checkmate} or {@code stalemate}
+     */
+    public static Supplier<PositionTask> classification() {
+        return () -> (board, record, output) -> output.append(
+                CLASS_NAMES[PositionClass.of(board.getPosition()).ordinal()]);
+    }
+
+    /**
+     * @return a task that writes the number of legal moves of the side to move
+     */
+    public static Supplier<PositionTask> moveCount() {
+        return () -> {
+            MoveList moves = new MoveList();
+            return (board, record, output) -> {
+                Position position = board.getPosition();
+                if (PositionClass.of(position) == PositionClass.ILLEGAL) {
+                    output.append("illegal");
+                    return;
+                }
+                moves.clear();
+                position.generateLegalMoves(position.getSideToMove(), moves);
+                output.append(moves.size());
+            };
+        };
+    }
+
+    /**
+     * Creates a task that counts the leaf nodes of the game tree of a given depth (see {@link analysis.Perft}). The
+     * tree is walked on the board of the thread with one move list per ply, so the task does not allocate.
+     *
+     * @param depth a positive depth
+     * @return a task that writes the number of leaf nodes
+     */
+    public static Supplier<PositionTask> perft(int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("depth must be positive, got " + depth);
+        }
+        return () -> {
+            MoveList[] moves = new MoveList[depth];
+            for (int i = 0; i < depth; i++) {
+                moves[i] = new MoveList();
+            }
+            return (board, record, output) -> {
+                if (PositionClass.of(board.getPosition()) == PositionClass.ILLEGAL) {
+                    output.append("illegal");
+                } else {
+                    output.append(count(board, depth, moves));
+                }
+            };
+        };
+    }
+
+    /**
+     * Creates a task that searches every position from scratch, with an empty hash table, so that the result of a
+     * position depends neither on the positions searched before nor on the number of threads.
+     *
+     * @param limits the budget of every search
+     * @param hashMegabytes the size of the hash table of every thread, in megabytes
+     * @return a task that writes the best move in coordinate notation (e.g. {@code e2e4} or {@code e7e8q}) and its
+     * score, or {@code none} if there is no legal move
+     */
+    public static Supplier<PositionTask> bestMove(SearchLimits limits, int hashMegabytes) {
+        return () -> {
+            TranspositionTable table = new TranspositionTable(hashMegabytes);
+            Search search = new Search(table);
+            return (board, record, output) -> {
+                Position position = board.getPosition();
+                if (PositionClass.of(position) == PositionClass.ILLEGAL) {
+                    output.append("illegal");
+                    return;
+                }
+                table.clear();
+                SearchResult result = search.search(position, limits, null);
+                if (result == null || result.getPackedBestMove() == PackedMove.NONE) {
+                    output.append("none");
+                    return;
+                }
+                appendMove(result.getPackedBestMove(), output);
+                if (result.isMate()) {
+                    output.append(" mate ").append(result.getMateDistance());
+                } else {
+                    output.append(' ').append(String.format("%+.2f", result.getScore() / 100.0));
+                }
+            };
+        };
+    }
+
+    /**
+     * Creates a task from a short description: {@code legal}, {@code classify}, {@code moves}, {@code perft:<depth>}
+     * or {@code bestmove:<depth>} (with a hash table of 16 MB per thread).
+     *
+     * @param description the description of the task
+     * @return the factory of the task
+     * @throws IllegalArgumentException if {@code description} does not describe a task
+     */
+    public static Supplier<PositionTask> parse(String description) {
+        String[] parts = description.split(":", 2);
+        try {
+            switch (parts[0]) {
+                case "legal":
+                    return legality();
+                case "classify":
+                    return classification();
+                case "moves":
+                    return moveCount();
+                case "perft":
+                    return perft(Integer.parseInt(parts[1]));
+                case "bestmove":
+                    return bestMove(SearchLimits.depth(Integer.parseInt(parts[1])), 16);
+                default:
+                    break;
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            throw new IllegalArgumentException("task '" + description + "' needs a depth, e.g. " + parts[0] + ":4");
+        }
+        throw new IllegalArgumentException("unknown task '" + description + "'");
+    }
+
+    /**
+     * Private method that counts the leaf nodes below the position of a board. The moves of the last ply are counted
+     * without being made.
+     */
+    private static long count(Board board, int depth, MoveList[] moves) {
+        Position position = board.getPosition();
+        MoveList list = moves[depth - 1];
+        list.clear();
+        position.generateLegalMoves(position.getSideToMove(), list);
+        if (depth == 1) {
+            return list.size();
+        }
+        long nodes = 0;
+        for (int i = 0; i < list.size(); i++) {
+            board.makeMove(list.get(i));
+            nodes += count(board, depth - 1, moves);
+            board.unmakeMove();
+        }
+        return nodes;
+    }
+
+    /**
+     * Private method that appends a move in coordinate notation: the start and target cells, and the letter of the
+     * promotion piece in lowercase.
+     */
+    private static void appendMove(int move, StringBuilder output) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        output.append((char) ('a' + Bitboards.col(from))).append(SIZE - Bitboards.row(from))
+                .append((char) ('a' + Bitboards.col(to))).append(SIZE - Bitboards.row(to));
+        PieceType promotion = PackedMove.getPromotionType(PackedMove.category(move));
+        if (promotion != null) {
+            output.append(Character.toLowerCase(promotion.getLetter()));
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package engine;
+
+/**
+ * The meaning of a score stored in a {@link TranspositionTable}: the exact value of the position, or only a lower or
+ * an upper bound of it (after a beta or an alpha cutoff respectively).
+ */
+public enum Bound {
+    EXACT,
+    LOWER,
+    UPPER
+}
@@ -0,0 +1,40 @@
+package engine;
+
+import board.Board.Position;
+import board.Color;
+import board.PieceSquareTables;
+import pieces.PieceType;
+
+/**
+ * Static evaluation of positions for {@link Search}, in centipawns from the point of view of the side to move.
+ * <br><br>
+ *
+ * The evaluation is tapered: it interpolates between the middlegame and the endgame piece-square scores (material
+ * included, see {@link PieceSquareTables}) according to the game phase. All three are maintained incrementally by
+ * {@code Position} as pieces are placed, moved and removed, so the evaluation runs in constant time.
+ */
+public class Evaluation {
+    private Evaluation() {
+    }
+
+    /**
+     * @param type a {@code PieceType}
+     * @return the material value of a piece of type {@code type}, in centipawns
+     */
+    public static int getValue(PieceType type) {
+        return PieceSquareTables.getValue(type);
+    }
+
+    /**
+     * Evaluates a position.
+     *
+     * @param position a {@code Position}
+     * @return the score of {@code position} for the side to move, in centipawns
+     */
+    public static int evaluate(Position position) {
+        int phase = Math.min(position.getPhase(), PieceSquareTables.MAX_PHASE);
+        int score = (position.getMiddlegameScore() * phase
+                + position.getEndgameScore() * (PieceSquareTables.MAX_PHASE - phase)) / PieceSquareTables.MAX_PHASE;
+        return position.getSideToMove() == Color.WHITE ? score : -score;
+    }
+}
@@ -0,0 +1,283 @@
+package engine;
+
+import board.Bitboards;
+import board.Board.Position;
+import board.Color;
+import board.GenerationMode;
+import board.MoveList;
+import board.PackedMove;
+
+import static utils.Global.SIZE;
+
+/**
+ * Lazy staged move generation: a {@code MovePicker} returns the legal moves of a position one at a time, best first,
+ * and only generates a group of moves when the previous groups are exhausted. Out of check, the stages are:
+ * <ol>
+ *     <li>the move of the hash table, if it is legal (only its start cell is generated to check it),</li>
+ *     <li>the captures and promotions that do not lose material according to the static exchange evaluation (see
+ *     {@link Position#getExchangeValue(int)}), by most valuable victim and least valuable attacker,</li>
+ *     <li>the killer moves, if they are legal quiet moves,</li>
+ *     <li>the other quiet moves, by their history of cutoffs,</li>
+ *     <li>the captures that lose material.</li>
+ * </ol>
+ * In check, the hash move is followed by all evasions, ordered in the same way. In a quiescence search, only the
+ * captures and promotions that do not lose material are returned (or all evasions in check), optionally followed by
+ * the quiet checks that do not lose material, which are generated only when the captures are exhausted.<br><br>
+ *
+ * A search that cuts off after the hash move or a capture thus never generates the quiet moves. A picker is reused
+ * for every node of one ply with {@link #init}, so it does not allocate.
+ */
+public class MovePicker {
+    private static final int HASH = 0;
+    private static final int GENERATE_CAPTURES = 1;
+    private static final int GOOD_CAPTURES = 2;
+    private static final int KILLERS = 3;
+    private static final int GENERATE_QUIETS = 4;
+    private static final int QUIETS = 5;
+    private static final int BAD_CAPTURES = 6;
+    private static final int GENERATE_EVASIONS = 7;
+    private static final int EVASIONS = 8;
+    private static final int GENERATE_QUIET_CHECKS = 9;
+    private static final int QUIET_CHECKS = 10;
+    private static final int DONE = 11;
+
+    private static final int CAPTURE_SCORE = 1 << 29;
+    private static final int KILLER_SCORE = 1 << 28;
+
+    // History of cutoffs of quiet moves, indexed by [color][from][to], or null
+    private final int[][][] history;
+    private final MoveList moves = new MoveList();
+    private final MoveList badCaptures = new MoveList();
+    // Moves of the start cell of the hash move or a killer move, to check that it is legal
+    private final MoveList candidates = new MoveList();
+    // Ordering scores of the moves of the current stage
+    private int[] scores = new int[0];
+
+    private Position position;
+    private Color color;
+    private boolean inCheck;
+    private boolean quiescence;
+    private boolean quietChecks;
+    private int hashMove;
+    private int firstKiller;
+    private int secondKiller;
+    private int stage;
+    private int index;
+
+    /**
+     * @param history the history of cutoffs of quiet moves, indexed by color, start square and target square, that
+     *                orders the quiet moves; it is read when the quiet moves are generated. If {@code null}, quiet
+     *                moves are returned in the order of generation.
+     */
+    public MovePicker(int[][][] history) {
+        this.history = history;
+    }
+
+    /**
+     * Prepares the picker for a new node. The position must not change between calls to {@link #next()}, except by
+     * moves that are taken back before the next call.
+     *
+     * @param position the position of the node
+     * @param inCheck whether the side to move is in check
+     * @param hashMove the move of the hash table, or {@link PackedMove#NONE}
+     * @param firstKiller a quiet move that caused a cutoff at the same ply, or {@link PackedMove#NONE}
+     * @param secondKiller another such move, or {@link PackedMove#NONE}
+     * @param quiescence {@code true} to return only the captures and promotions that do not lose material (unless the
+     *                   side to move is in check)
+     * @param quietChecks {@code true} to also return the quiet checks that do not lose material in a quiescence
+     *                    search, after the captures
+     */
+    public void init(Position position, boolean inCheck, int hashMove, int firstKiller, int secondKiller,
+                     boolean quiescence, boolean quietChecks) {
+        this.position = position;
+        this.color = position.getSideToMove();
+        this.inCheck = inCheck;
+        this.quiescence = quiescence;
+        this.quietChecks = quietChecks;
+        this.hashMove = hashMove;
+        this.firstKiller = firstKiller;
+        this.secondKiller = secondKiller == firstKiller ? PackedMove.NONE : secondKiller;
+        stage = HASH;
+    }
+
+    /**
+     * Returns the next move, generating the moves of the next stages if needed. Every legal move (or every move of the
+     * quiescence search) is returned exactly once.
+     *
+     * @return the next move in packed form, or {@link PackedMove#NONE} if there are no more moves
+     */
+    public int next() {
+        while (true) {
+            switch (stage) {
+                case HASH -> {
+                    stage = inCheck ? GENERATE_EVASIONS : GENERATE_CAPTURES;
+                    if (hashMove != PackedMove.NONE && (!quiescence || inCheck || isTactical(hashMove))
+                            && isLegal(hashMove)) {
+                        return hashMove;
+                    }
+                    hashMove = PackedMove.NONE;
+                }
+                case GENERATE_CAPTURES -> {
+                    generate(GenerationMode.CAPTURES);
+                    badCaptures.clear();
+                    stage = GOOD_CAPTURES;
+                }
+                case GOOD_CAPTURES -> {
+                    while (index < moves.size()) {
+                        int move = pickBest();
+                        if (move == hashMove) {
+                            continue;
+                        }
+                        if (losesMaterial(move)) {
+                            badCaptures.add(move);
+                            continue;
+                        }
+                        return move;
+                    }
+                    stage = !quiescence ? KILLERS : quietChecks ? GENERATE_QUIET_CHECKS : DONE;
+                    index = 0;
+                }
+                case KILLERS -> {
+                    while (index < 2) {
+                        int killer = index++ == 0 ? firstKiller : secondKiller;
+                        if (killer != PackedMove.NONE && killer != hashMove && !isTactical(killer)
+                                && isLegal(killer)) {
+                            return killer;
+                        }
+                    }
+                    stage = GENERATE_QUIETS;
+                }
+                case GENERATE_QUIETS -> {
+                    generate(GenerationMode.QUIETS);
+                    stage = QUIETS;
+                }
+                case QUIETS -> {
+                    while (index < moves.size()) {
+                        int move = pickBest();
+                        if (move != hashMove && move != firstKiller && move != secondKiller) {
+                            return move;
+                        }
+                    }
+                    stage = BAD_CAPTURES;
+                    index = 0;
+                }
+                case BAD_CAPTURES -> {
+                    if (index < badCaptures.size()) {
+                        return badCaptures.get(index++);
+                    }
+                    stage = DONE;
+                }
+                case GENERATE_EVASIONS -> {
+                    generate(GenerationMode.EVASIONS);
+                    stage = EVASIONS;
+                }
+                case EVASIONS -> {
+                    while (index < moves.size()) {
+                        int move = pickBest();
+                        if (move != hashMove) {
+                            return move;
+                        }
+                    }
+                    stage = DONE;
+                }
+                case GENERATE_QUIET_CHECKS -> {
+                    generate(GenerationMode.QUIET_CHECKS);
+                    stage = QUIET_CHECKS;
+                }
+                case QUIET_CHECKS -> {
+                    while (index < moves.size()) {
+                        int move = pickBest();
+                        if (move != hashMove && !losesMaterial(move)) {
+                            return move;
+                        }
+                    }
+                    stage = DONE;
+                }
+                default -> {
+                    return PackedMove.NONE;
+                }
+            }
+        }
+    }
+
+    /**
+     * Private method that generates the moves of a stage and computes their ordering scores.
+     */
+    private void generate(GenerationMode mode) {
+        moves.clear();
+        position.generateMoves(color, mode, moves);
+        if (scores.length < moves.size()) {
+            scores = new int[Math.max(moves.size(), 2 * scores.length)];
+        }
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (isTactical(move)) {
+                int gain = PackedMove.isCapture(move) ? Evaluation.getValue(PackedMove.captured(move)) : 0;
+                if (PackedMove.isPromotion(move)) {
+                    gain += Evaluation.getValue(PackedMove.getPromotionType(PackedMove.category(move)));
+                }
+                scores[i] = CAPTURE_SCORE + 16 * gain - PackedMove.piece(move).ordinal();
+            } else if (move == firstKiller || move == secondKiller) {
+                scores[i] = move == firstKiller ? KILLER_SCORE + 1 : KILLER_SCORE;
+            } else {
+                scores[i] = history == null ? 0
+                        : history[color.ordinal()][PackedMove.from(move)][PackedMove.to(move)];
+            }
+        }
+        index = 0;
+    }
+
+    /**
+     * Private method that moves the move with the highest ordering score among the moves from the current index on to
+     * the current index, and returns it.
+     */
+    private int pickBest() {
+        int best = index;
+        for (int j = index + 1; j < moves.size(); j++) {
+            if (scores[j] > scores[best]) {
+                best = j;
+            }
+        }
+        if (best != index) {
+            moves.swap(index, best);
+            int swapped = scores[index];
+            scores[index] = scores[best];
+            scores[best] = swapped;
+        }
+        return moves.get(index++);
+    }
+
+    /**
+     * Private method that determines whether a move remembered from another position is legal in the current one, by
+     * generating the moves of its start cell.
+     */
+    private boolean isLegal(int move) {
+        if (PackedMove.color(move) != color) {
+            return false;
+        }
+        candidates.clear();
+        position.generateLegalMoves(color, Bitboards.bit(PackedMove.from(move)), candidates);
+        return candidates.contains(move);
+    }
+
+    /**
+     * Private method that determines whether a move loses material. A capture of a piece worth at least the capturing
+     * piece cannot lose material, unless a pawn recaptures and promotes, so the static exchange evaluation is only
+     * needed for the other captures, for captures on the first and last rows, and for quiet moves.
+     */
+    private boolean losesMaterial(int move) {
+        int row = Bitboards.row(PackedMove.to(move));
+        if (PackedMove.isCapture(move) && !PackedMove.isPromotion(move) && row != 0 && row != SIZE - 1
+                && Evaluation.getValue(PackedMove.captured(move)) >= Evaluation.getValue(PackedMove.piece(move))) {
+            return false;
+        }
+        return position.getExchangeValue(move) < 0;
+    }
+
+    /**
+     * Private method that determines whether a move is a capture or a promotion.
+     */
+    private static boolean isTactical(int move) {
+        return PackedMove.isCapture(move) || PackedMove.isPromotion(move);
+    }
+}
@@ -0,0 +1,165 @@
+package engine;
+
+import board.Board.Position;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Multi-threaded search with the "Lazy SMP" scheme: the calling thread runs the main {@link Search}, and helper
+ * threads run independent searches of their own copies of the position at the same time. The threads do not
+ * communicate except through the shared lock-free {@link TranspositionTable}, in which the helpers leave results and
+ * move orderings that speed up the main thread. Helpers skip some iterations depending on their number (see {@link
+ * Search}), so that they work ahead of the main thread at several depths instead of duplicating its work.<br><br>
+ *
+ * The search ends when the main thread reaches a limit; the helpers are then stopped. The result is the deepest
+ * completed iteration of any thread, preferring the main thread at equal depth.<br><br>
+ *
+ * The helpers run as tasks of an {@code ExecutorService}, either created from a {@code ThreadFactory} or supplied by
+ * the caller (e.g. an executor running each task in a new thread). An instance must not run several searches at once.
+ */
+public class ParallelSearch implements AutoCloseable {
+    private final Search[] searches;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+
+    /**
+     * Creates a parallel search whose helpers run on daemon threads of a fixed pool.
+     *
+     * @param table the hash table shared by all threads
+     * @param threads the total number of threads, including the calling thread
+     */
+    public ParallelSearch(TranspositionTable table, int threads) {
+        this(table, threads, runnable -> {
+            Thread thread = Executors.defaultThreadFactory().newThread(runnable);
+            thread.setDaemon(true);
+            thread.setName("search-helper-" + thread.getName());
+            return thread;
+        });
+    }
+
+    /**
+     * Creates a parallel search whose helpers run on a fixed pool of threads created by a given factory. The pool is
+     * shut down by {@link #close()}.
+     *
+     * @param table the hash table shared by all threads
+     * @param threads the total number of threads, including the calling thread
+     * @param factory the factory of the helper threads
+     */
+    public ParallelSearch(TranspositionTable table, int threads, ThreadFactory factory) {
+        this(table, threads, threads > 1 ? Executors.newFixedThreadPool(threads - 1, factory) : null, true);
+    }
+
+    /**
+     * Creates a parallel search whose helpers run as tasks of a given executor, which must be able to run {@code
+     * threads - 1} tasks at the same time. The executor is not shut down by {@link #close()}.
+     *
+     * @param table the hash table shared by all threads
+     * @param threads the total number of threads, including the calling thread
+     * @param executor the executor of the helpers
+     */
+    public ParallelSearch(TranspositionTable table, int threads, ExecutorService executor) {
+        this(table, threads, executor, false);
+    }
+
+    /**
+     * Private constructor that creates the searches of all threads.
+     */
+    private ParallelSearch(TranspositionTable table, int threads, ExecutorService executor, boolean ownsExecutor) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("number of threads must be positive, got " + threads);
+        }
+        searches = new Search[threads];
+        for (int i = 0; i < threads; i++) {
+            searches[i] = new Search(table);
+        }
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    /**
+     * Searches a position for the best move of the side to move with all threads.
+     *
+     * @param root the position to search; it is not modified
+     * @param limits the budget of the search, where the node limit counts the nodes of all threads
+     * @param listener called with the result of every completed iteration of the main thread, or {@code null}
+     * @return the deepest completed iteration of any thread, with the nodes of all threads
+     */
+    public SearchResult search(Position root, SearchLimits limits, Consumer<SearchResult> listener) {
+        long start = System.nanoTime();
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicLong totalNodes = new AtomicLong();
+        List<Future<SearchResult>> helpers = new ArrayList<>();
+        for (int i = 1; i < searches.length; i++) {
+            Search search = searches[i];
+            int helper = i;
+            helpers.add(executor.submit(() -> search.search(root, limits, null, helper, stop, totalNodes)));
+        }
+        SearchResult best;
+        try {
+            best = searches[0].search(root, limits, listener, 0, stop, totalNodes);
+        } finally {
+            stop.set(true);
+        }
+        try {
+            for (Future<SearchResult> helper : helpers) {
+                SearchResult result = helper.get();
+                if (result != null && result.getDepth() > best.getDepth()) {
+                    best = result;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("a helper search failed", e.getCause());
+        }
+        return best.withEffort(getNodes(), System.nanoTime() - start);
+    }
+
+    /**
+     * @return the number of threads of this search, including the calling thread
+     */
+    public int getThreads() {
+        return searches.length;
+    }
+
+    /**
+     * @return the number of nodes searched by every thread in the last search, the main thread first
+     */
+    public long[] getThreadNodes() {
+        long[] nodes = new long[searches.length];
+        for (int i = 0; i < searches.length; i++) {
+            nodes[i] = searches[i].getNodes();
+        }
+        return nodes;
+    }
+
+    /**
+     * @return the total number of nodes searched by all threads in the last search
+     */
+    public long getNodes() {
+        long total = 0;
+        for (Search search : searches) {
+            total += search.getNodes();
+        }
+        return total;
+    }
+
+    /**
+     * Shuts down the pool of helper threads, if it was created by this search.
+     */
+    @Override
+    public void close() {
+        if (ownsExecutor && executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,378 @@
+package engine;
+
+import board.Board;
+import board.Board.Position;
+import board.Color;
+import board.PackedMove;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static utils.Global.SIZE;
+
+/**
+ * Iterative-deepening alpha-beta search with principal variation search (PVS), a quiescence search of captures and
+ * promotions (and of quiet checks at its first ply), and a shared {@link TranspositionTable}.<br><br>
+ *
+ * Every iteration searches the first move with a full window and the other moves with a null window, which are
+ * searched again only if they turn out to be better. Moves are produced lazily in stages by a {@link MovePicker}: the
+ * move of the hash table, then captures that do not lose material, then killer moves, then quiet moves by their
+ * history of cutoffs, and last the captures that lose material according to the static exchange evaluation (see
+ * {@link Position#getExchangeValue(int)}), which the quiescence search skips. Checks extend the search by one ply.
+ * A position that repeats an earlier one, of the search or of the game before the root (see {@link
+ * Position#getRepetitionCount()}), is scored as a draw without being searched.
+ * The search works on a private copy of the position with packed moves (see {@link Board#makeMove(int)}), so it does
+ * not allocate while searching.<br><br>
+ *
+ * An instance is not thread-safe, but several instances can share one table, which is how {@link ParallelSearch} runs
+ * helper threads.
+ */
+public class Search {
+    public static final int MAX_PLY = 128;
+    public static final int INFINITY = 32_000;
+    public static final int MATE = 31_000;
+    // Scores beyond this bound (in absolute value) are mate scores
+    public static final int MATE_BOUND = MATE - MAX_PLY;
+
+    // Number of nodes between two readings of the clock
+    private static final int CHECK_INTERVAL = 1024;
+    private static final int HISTORY_LIMIT = 1 << 20;
+    // Depth staggering of helper threads (indexed by helper number modulo 20): a helper skips the iterations whose
+    // depth d satisfies ((d + SKIP_PHASE[i]) / SKIP_SIZE[i]) % 2 == 1, so that the helpers spread over several depths
+    private static final int[] SKIP_SIZE = {1, 1, 2, 2, 2, 2, 3, 3, 3, 3, 3, 3, 4, 4, 4, 4, 4, 4, 4, 4};
+    private static final int[] SKIP_PHASE = {0, 1, 0, 1, 2, 3, 0, 1, 2, 3, 4, 5, 0, 1, 2, 3, 4, 5, 6, 7};
+
+    private final TranspositionTable table;
+    private final MovePicker[] pickers = new MovePicker[MAX_PLY + 1];
+    // Triangular table of principal variations: pv[ply] holds the best line from ply on, of length pvLength[ply] - ply
+    private final int[][] pv = new int[MAX_PLY + 1][MAX_PLY + 1];
+    private final int[] pvLength = new int[MAX_PLY + 1];
+    private final int[][] killers = new int[MAX_PLY + 1][2];
+    private final int[][][] history = new int[Color.values().length][SIZE * SIZE][SIZE * SIZE];
+
+    private Board board;
+    private Position position;
+    private SearchLimits limits;
+    // 0 for the main thread of a search, or the number of a helper thread
+    private int helper;
+    // Shared with the other threads of a parallel search: the stop signal and the nodes counted so far (in steps of
+    // CHECK_INTERVAL)
+    private AtomicBoolean sharedStop;
+    private AtomicLong sharedNodes;
+    private long start;
+    private long deadline;
+    private int rootDepth;
+    private long nodes;
+    private boolean stopped;
+
+    /**
+     * @param table the hash table, which may be shared with other searches
+     */
+    public Search(TranspositionTable table) {
+        this.table = table;
+        for (int i = 0; i <= MAX_PLY; i++) {
+            pickers[i] = new MovePicker(history);
+        }
+    }
+
+    /**
+     * Searches a position for the best move of the side to move.
+     *
+     * @param root the position to search; it is not modified
+     * @param limits the budget of the search
+     * @param listener called with the result of every completed iteration, or {@code null}
+     * @return the result of the last completed iteration
+     */
+    public SearchResult search(Position root, SearchLimits limits, Consumer<SearchResult> listener) {
+        return search(root, limits, listener, 0, new AtomicBoolean(), new AtomicLong());
+    }
+
+    /**
+     * Package-private method that runs the main thread or a helper thread of a search. The main thread completes at
+     * least depth 1, stops when a limit is reached and then raises the stop signal; a helper searches the depths that
+     * it does not skip until the stop signal is raised or all depths are searched, and may stop at any time.
+     *
+     * @param root the position to search; it is not modified
+     * @param limits the budget of the search
+     * @param listener called with the result of every completed iteration, or {@code null}
+     * @param helper {@code 0} for the main thread, or the number of the helper thread
+     * @param stop the stop signal shared by all threads of the search
+     * @param totalNodes the node counter shared by all threads of the search
+     * @return the result of the last completed iteration, or {@code null} if a helper did not complete any
+     */
+    SearchResult search(Position root, SearchLimits limits, Consumer<SearchResult> listener, int helper,
+                        AtomicBoolean stop, AtomicLong totalNodes) {
+        this.limits = limits;
+        this.helper = helper;
+        this.sharedStop = stop;
+        this.sharedNodes = totalNodes;
+        start = System.nanoTime();
+        deadline = limits.getMaxMillis() > 0 ? start + limits.getMaxMillis() * 1_000_000 : Long.MAX_VALUE;
+        position = root.clone();
+        board = new Board(position);
+        nodes = 0;
+        stopped = false;
+        for (int[] plyKillers : killers) {
+            Arrays.fill(plyKillers, PackedMove.NONE);
+        }
+        for (int[][] colorHistory : history) {
+            for (int[] fromHistory : colorHistory) {
+                Arrays.fill(fromHistory, 0);
+            }
+        }
+        if (helper == 0) {
+            table.newSearch();
+        }
+
+        int maxDepth = limits.getMaxDepth() > 0 ? Math.min(limits.getMaxDepth(), MAX_PLY - 1) : MAX_PLY - 1;
+        SearchResult result = null;
+        for (rootDepth = 1; rootDepth <= maxDepth; rootDepth++) {
+            if (helper > 0) {
+                int i = (helper - 1) % SKIP_SIZE.length;
+                if (sharedStop.get()) {
+                    break;
+                } else if (((rootDepth + SKIP_PHASE[i]) / SKIP_SIZE[i]) % 2 == 1) {
+                    continue;
+                }
+            }
+            int score = alphaBeta(rootDepth, 0, -INFINITY, INFINITY);
+            if (stopped) {
+                break;
+            }
+            // The nodes of this thread, plus the nodes of the other threads as far as they were counted
+            long allNodes = sharedNodes.get() + nodes % CHECK_INTERVAL;
+            result = new SearchResult(Arrays.copyOf(pv[0], pvLength[0]), score, rootDepth, allNodes,
+                    System.nanoTime() - start);
+            if (listener != null) {
+                listener.accept(result);
+            }
+            if (helper > 0) {
+                continue;
+            }
+            if (pvLength[0] == 0 || (result.isMate() && Math.abs(result.getMateDistance()) * 2 <= rootDepth)) {
+                // No legal move, or a forced mate that deeper iterations cannot improve
+                break;
+            }
+            if (limits.getMaxMillis() > 0 && 2 * (System.nanoTime() - start) > limits.getMaxMillis() * 1_000_000) {
+                // The next iteration would most likely not complete
+                break;
+            }
+        }
+        if (helper == 0) {
+            sharedStop.set(true);
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of nodes searched so far by the current or last search
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Private method that searches a position with a given depth and window, and returns its score for the side to
+     * move.
+     */
+    private int alphaBeta(int depth, int ply, int alpha, int beta) {
+        pvLength[ply] = ply;
+        if (depth <= 0) {
+            return quiesce(ply, alpha, beta, true);
+        }
+        nodes++;
+        if (shouldStop()) {
+            return 0;
+        }
+        if (ply > 0 && position.getRepetitionCount() > 0) {
+            // The side to move can repeat the moves that led here, so the position is a draw
+            return 0;
+        }
+        if (ply >= MAX_PLY - 1) {
+            return Evaluation.evaluate(position);
+        }
+        boolean pvNode = beta - alpha > 1;
+        long key = position.getKey();
+        int hashMove = PackedMove.NONE;
+        long entry = table.probe(key);
+        if (entry != TranspositionTable.MISS && TranspositionTable.getBound(entry) != null) {
+            hashMove = TranspositionTable.getMove(entry);
+            if (ply > 0 && !pvNode && TranspositionTable.getDepth(entry) >= depth) {
+                int score = fromTable(TranspositionTable.getScore(entry), ply);
+                Bound bound = TranspositionTable.getBound(entry);
+                if (bound == Bound.EXACT || (bound == Bound.LOWER && score >= beta)
+                        || (bound == Bound.UPPER && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        Color color = position.getSideToMove();
+        boolean inCheck = position.isKingInCheck(color);
+        if (inCheck) {
+            depth++;
+        }
+        MovePicker picker = pickers[ply];
+        picker.init(position, inCheck, hashMove, killers[ply][0], killers[ply][1], false, false);
+
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = PackedMove.NONE;
+        int searched = 0;
+        for (int move = picker.next(); move != PackedMove.NONE; move = picker.next()) {
+            board.makeMove(move);
+            int score;
+            if (searched++ == 0) {
+                score = -alphaBeta(depth - 1, ply + 1, -beta, -alpha);
+            } else {
+                score = -alphaBeta(depth - 1, ply + 1, -alpha - 1, -alpha);
+                if (score > alpha && score < beta) {
+                    score = -alphaBeta(depth - 1, ply + 1, -beta, -alpha);
+                }
+            }
+            board.unmakeMove();
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePrincipalVariation(ply, move);
+                    if (score >= beta) {
+                        if (!PackedMove.isCapture(move) && !PackedMove.isPromotion(move)) {
+                            updateQuietCutoff(move, ply, depth);
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+        if (searched == 0) {
+            return inCheck ? -MATE + ply : 0;
+        }
+        Bound bound = best >= beta ? Bound.LOWER : best > originalAlpha ? Bound.EXACT : Bound.UPPER;
+        table.store(key, bestMove, toTable(best, ply), depth, bound);
+        return best;
+    }
+
+    /**
+     * Private method that searches captures and promotions only, until the position is quiet, so that the static
+     * evaluation is not taken in the middle of an exchange. The side to move may also "stand pat", i.e. keep the
+     * static evaluation, unless it is in check, in which case all evasions are searched. At the first ply of the
+     * quiescence search ({@code checks} set), the quiet checks that do not lose material are searched as well, so that
+     * a mating or forking check just beyond the horizon is not missed; the replies to a check are all evasions, but
+     * the quiescence search does not look for checks again after them.
+     */
+    private int quiesce(int ply, int alpha, int beta, boolean checks) {
+        pvLength[ply] = ply;
+        nodes++;
+        if (shouldStop()) {
+            return 0;
+        }
+        if (ply >= MAX_PLY - 1) {
+            return Evaluation.evaluate(position);
+        }
+        Color color = position.getSideToMove();
+        boolean inCheck = position.isKingInCheck(color);
+        int best = -INFINITY;
+        if (!inCheck) {
+            best = Evaluation.evaluate(position);
+            if (best >= beta) {
+                return best;
+            }
+            alpha = Math.max(alpha, best);
+        }
+        MovePicker picker = pickers[ply];
+        picker.init(position, inCheck, PackedMove.NONE, PackedMove.NONE, PackedMove.NONE, true, checks);
+        int searched = 0;
+        for (int move = picker.next(); move != PackedMove.NONE; move = picker.next()) {
+            searched++;
+            board.makeMove(move);
+            int score = -quiesce(ply + 1, -beta, -alpha, false);
+            board.unmakeMove();
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    if (score >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        if (inCheck && searched == 0) {
+            return -MATE + ply;
+        }
+        return best;
+    }
+
+    /**
+     * Private method that checks the budget of the search and the stop signal. The nodes are added to the shared
+     * counter, and the clock and the signal are read, only every {@link #CHECK_INTERVAL} nodes; the main thread never
+     * interrupts depth 1.
+     */
+    private boolean shouldStop() {
+        if (!stopped && nodes % CHECK_INTERVAL == 0) {
+            long total = sharedNodes.addAndGet(CHECK_INTERVAL);
+            if (helper > 0 || rootDepth > 1) {
+                stopped = sharedStop.get() || (limits.getMaxNodes() > 0 && total >= limits.getMaxNodes())
+                        || System.nanoTime() > deadline;
+            }
+        }
+        return stopped;
+    }
+
+    /**
+     * Private method that makes a move followed by the principal variation of the next ply the principal variation of
+     * a ply.
+     */
+    private void updatePrincipalVariation(int ply, int move) {
+        pv[ply][ply] = move;
+        System.arraycopy(pv[ply + 1], ply + 1, pv[ply], ply + 1, pvLength[ply + 1] - ply - 1);
+        pvLength[ply] = Math.max(pvLength[ply + 1], ply + 1);
+    }
+
+    /**
+     * Private method that records a quiet move that caused a beta cutoff as a killer move of its ply and in the
+     * history table.
+     */
+    private void updateQuietCutoff(int move, int ply, int depth) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        int[] fromHistory = history[PackedMove.color(move).ordinal()][PackedMove.from(move)];
+        fromHistory[PackedMove.to(move)] += depth * depth;
+        if (fromHistory[PackedMove.to(move)] > HISTORY_LIMIT) {
+            for (int[][] colorHistory : history) {
+                for (int[] h : colorHistory) {
+                    for (int to = 0; to < h.length; to++) {
+                        h[to] /= 2;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Private method that converts a score relative to the root into a score relative to the current node, as stored
+     * in the table, so that mate scores remain valid when the position is reached at another ply.
+     */
+    private static int toTable(int score, int ply) {
+        return score > MATE_BOUND ? score + ply : score < -MATE_BOUND ? score - ply : score;
+    }
+
+    /**
+     * Private method that converts a score read from the table back into a score relative to the root.
+     */
+    private static int fromTable(int score, int ply) {
+        return score > MATE_BOUND ? score - ply : score < -MATE_BOUND ? score + ply : score;
+    }
+}
@@ -0,0 +1,82 @@
+package engine;
+
+/**
+ * The budget of a {@link Search}: a maximal depth, a maximal number of nodes and a maximal duration. The search stops
+ * as soon as one of the limits is reached; a limit of {@code 0} means no limit, but at least one limit must be set.
+ * <br><br>
+ *
+ * A search always completes depth 1, so that it has a move to play even with a tiny budget.
+ */
+public class SearchLimits {
+    private final int maxDepth;
+    private final long maxNodes;
+    private final long maxMillis;
+
+    /**
+     * @param maxDepth the maximal depth in plies, or {@code 0}
+     * @param maxNodes the maximal number of nodes, or {@code 0}
+     * @param maxMillis the maximal duration in milliseconds, or {@code 0}
+     */
+    public SearchLimits(int maxDepth, long maxNodes, long maxMillis) {
+        if (maxDepth < 0 || maxNodes < 0 || maxMillis < 0) {
+            throw new IllegalArgumentException("search limits must not be negative");
+        }
+        if (maxDepth == 0 && maxNodes == 0 && maxMillis == 0) {
+            throw new IllegalArgumentException("at least one search limit must be set");
+        }
+        this.maxDepth = maxDepth;
+        this.maxNodes = maxNodes;
+        this.maxMillis = maxMillis;
+    }
+
+    /**
+     * @param depth the maximal depth in plies
+     * @return limits with only a maximal depth
+     */
+    public static SearchLimits depth(int depth) {
+        return new SearchLimits(depth, 0, 0);
+    }
+
+    /**
+     * @param nodes the maximal number of nodes
+     * @return limits with only a maximal number of nodes
+     */
+    public static SearchLimits nodes(long nodes) {
+        return new SearchLimits(0, nodes, 0);
+    }
+
+    /**
+     * @param millis the maximal duration in milliseconds
+     * @return limits with only a maximal duration
+     */
+    public static SearchLimits millis(long millis) {
+        return new SearchLimits(0, 0, millis);
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public long getMaxNodes() {
+        return maxNodes;
+    }
+
+    public long getMaxMillis() {
+        return maxMillis;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        if (maxDepth > 0) {
+            sb.append("depth ").append(maxDepth);
+        }
+        if (maxNodes > 0) {
+            sb.append(sb.length() > 0 ? ", " : "").append(maxNodes).append(" nodes");
+        }
+        if (maxMillis > 0) {
+            sb.append(sb.length() > 0 ? ", " : "").append(maxMillis).append(" ms");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,126 @@
+package engine;
+
+import board.Move;
+import board.PackedMove;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The result of one completed iteration of a {@link Search}: the principal variation, its score, the depth and the
+ * effort spent since the start of the search.
+ */
+public class SearchResult {
+    private final int[] principalVariation;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final long nanos;
+
+    SearchResult(int[] principalVariation, int score, int depth, long nodes, long nanos) {
+        this.principalVariation = principalVariation;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.nanos = nanos;
+    }
+
+    /**
+     * Package-private method that returns a copy of this result with other numbers of nodes and of nanoseconds, e.g.
+     * the effort of all threads of a {@link ParallelSearch}.
+     */
+    SearchResult withEffort(long nodes, long nanos) {
+        return new SearchResult(principalVariation, score, depth, nodes, nanos);
+    }
+
+    /**
+     * @return the best move found, or {@code null} if there are no legal moves
+     */
+    public Move getBestMove() {
+        return principalVariation.length == 0 ? null : PackedMove.toMove(principalVariation[0]);
+    }
+
+    /**
+     * @return the best move found in packed form (see {@link PackedMove}), or {@link PackedMove#NONE} if there are no
+     * legal moves
+     */
+    public int getPackedBestMove() {
+        return principalVariation.length == 0 ? PackedMove.NONE : principalVariation[0];
+    }
+
+    /**
+     * @return the expected line of play, starting with the best move
+     */
+    public List<Move> getPrincipalVariation() {
+        List<Move> moves = new ArrayList<>(principalVariation.length);
+        for (int move : principalVariation) {
+            moves.add(PackedMove.toMove(move));
+        }
+        return moves;
+    }
+
+    /**
+     * @return the score of the best move in centipawns, from the point of view of the side to move; mate scores are
+     * beyond {@link Search#MATE_BOUND}
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * @return whether the score announces a forced mate (by either side)
+     */
+    public boolean isMate() {
+        return Math.abs(score) > Search.MATE_BOUND;
+    }
+
+    /**
+     * @return the number of moves until mate, positive if the side to move mates and negative if it is mated, or
+     * {@code 0} if the score is not a mate score
+     */
+    public int getMateDistance() {
+        if (!isMate()) {
+            return 0;
+        }
+        return score > 0 ? (Search.MATE - score + 1) / 2 : -(Search.MATE + score) / 2;
+    }
+
+    /**
+     * @return the depth of the iteration, in plies
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return the number of nodes searched since the start of the search
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return the time elapsed since the start of the search, in nanoseconds
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * @return the number of nodes searched per second
+     */
+    public double getNodesPerSecond() {
+        return nodes * 1e9 / Math.max(1, nanos);
+    }
+
+    @Override
+    public String toString() {
+        String value = isMate() ? "mate " + getMateDistance() : String.format("%+.2f", score / 100.0);
+        StringBuilder sb = new StringBuilder(String.format("depth %d score %s nodes %d nps %.0f time %d ms pv", depth,
+                value, nodes, getNodesPerSecond(), nanos / 1_000_000));
+        for (int move : principalVariation) {
+            sb.append(' ').append(PackedMove.toMove(move));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,408 @@
+package engine;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size hash table of search results, indexed by the Zobrist keys of positions (see {@link
+ * board.Board.Position#getKey()}), that can be shared by any number of threads without locking.<br><br>
+ *
+ * The table consists of buckets of {@value #BUCKET_SIZE} entries, one bucket per 64 bytes (a typical cache line). An
+ * entry is a pair of {@code long} values: the data word, and the key XOR the data word. Threads read and write the two
+ * words without synchronization, so an entry may be torn by a concurrent write; such an entry simply fails the XOR
+ * check on the next probe and counts as a miss. The data word contains:
+ * <ul>
+ *     <li>bits 0-23: the best move in packed form (see {@link board.PackedMove}),</li>
+ *     <li>bits 24-39: the score, as a signed 16-bit value,</li>
+ *     <li>bits 48-55: the depth of the search,</li>
+ *     <li>bits 56-61: the age, i.e. the value of a counter increased by {@link #newSearch()},</li>
+ *     <li>bits 62-63: the ordinal of the {@link Bound} plus one.</li>
+ * </ul>
+ * Entries used for counting nodes (see {@link #storeCount(long, int, long)}) keep a 48-bit count in bits 0-47 instead,
+ * and have {@code 0} in the bound bits. A data word is never {@code 0}, which is what {@link #probe(long)} returns on a
+ * miss.<br><br>
+ *
+ * When an entry is stored, it replaces the entry of the same position if there is one in the bucket; otherwise it
+ * replaces the entry with the least depth, where entries from older searches count as shallower.<br><br>
+ *
+ * The table is backed either by a {@code long[]} on the heap, or by direct buffers outside the heap, which is better
+ * suited for tables of several gigabytes, as the garbage collector never has to look at them (the size of direct
+ * memory may have to be raised with {@code -XX:MaxDirectMemorySize}).
+ */
+public class TranspositionTable {
+    public static final int BUCKET_SIZE = 4;
+    public static final long MISS = 0;
+
+    private static final int BUCKET_LONGS = 2 * BUCKET_SIZE;
+    private static final int BUCKET_BYTES = BUCKET_LONGS * Long.BYTES;
+    private static final int SCORE_SHIFT = 24;
+    private static final int DEPTH_SHIFT = 48;
+    private static final int AGE_SHIFT = 56;
+    private static final int BOUND_SHIFT = 62;
+    private static final long MOVE_MASK = (1L << SCORE_SHIFT) - 1;
+    private static final long COUNT_MASK = (1L << DEPTH_SHIFT) - 1;
+    private static final int MAX_DEPTH = 0xFF;
+    private static final int AGES = 1 << (BOUND_SHIFT - AGE_SHIFT);
+    private static final Bound[] BOUNDS = Bound.values();
+    // Number of buckets examined to estimate how full the table is
+    private static final int FILL_SAMPLE = 1000;
+
+    private final Storage storage;
+    private final long bucketMask;
+    private volatile int age = 0;
+
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+    private final LongAdder collisions = new LongAdder();
+
+    /**
+     * Creates a table on the heap of a given size.
+     *
+     * @param megabytes the size of the table in megabytes (rounded down to a power of two)
+     * @see #TranspositionTable(long, boolean)
+     */
+    public TranspositionTable(int megabytes) {
+        this(megabytes, false);
+    }
+
+    /**
+     * Creates a table of a given size, on the heap or off the heap. The number of buckets is the largest power of two
+     * that fits into the given size.
+     *
+     * @param megabytes the size of the table in megabytes
+     * @param offHeap {@code true} to allocate the table in direct memory, or {@code false} to allocate it on the heap
+     */
+    public TranspositionTable(long megabytes, boolean offHeap) {
+        if (megabytes <= 0) {
+            throw new IllegalArgumentException("table size must be positive, got " + megabytes + " MB");
+        }
+        long buckets = Long.highestOneBit((megabytes << 20) / BUCKET_BYTES);
+        bucketMask = buckets - 1;
+        long longs = buckets * BUCKET_LONGS;
+        if (offHeap) {
+            storage = new DirectStorage(longs);
+        } else if (longs <= Integer.MAX_VALUE - BUCKET_LONGS) {
+            storage = new HeapStorage((int) longs);
+        } else {
+            throw new IllegalArgumentException("a table of " + megabytes + " MB is too large for the heap, use the" +
+                    " off-heap storage instead");
+        }
+    }
+
+    /**
+     * @return the number of entries in this table
+     */
+    public long getCapacity() {
+        return (bucketMask + 1) * BUCKET_SIZE;
+    }
+
+    /**
+     * Looks up the data stored for a position.
+     *
+     * @param key the Zobrist key of the position
+     * @return the data word of the entry of the position (see {@link #getMove(long)}, {@link #getScore(long)}, {@link
+     * #getDepth(long)} and {@link #getBound(long)}), or {@link #MISS} if there is none
+     */
+    public long probe(long key) {
+        probes.increment();
+        long base = getBucket(key);
+        for (int i = 0; i < BUCKET_SIZE; i++) {
+            long data = storage.get(base + 2 * i + 1);
+            if (data != MISS && (storage.get(base + 2 * i) ^ data) == key) {
+                hits.increment();
+                return data;
+            }
+        }
+        return MISS;
+    }
+
+    /**
+     * Stores the result of a search of a position.
+     *
+     * @param key the Zobrist key of the position
+     * @param move the best move found, in packed form (see {@link board.PackedMove}), or {@link
+     *             board.PackedMove#NONE}
+     * @param score the score of the position, in the range of a {@code short}
+     * @param depth the depth of the search (clamped to the range {@code [0, 255]})
+     * @param bound the meaning of {@code score}
+     */
+    public void store(long key, int move, int score, int depth, Bound bound) {
+        if (score < Short.MIN_VALUE || score > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("score " + score + " does not fit into an entry");
+        }
+        int clamped = Math.max(0, Math.min(depth, MAX_DEPTH));
+        long data = (move & MOVE_MASK)
+                | (score & 0xFFFFL) << SCORE_SHIFT
+                | (long) clamped << DEPTH_SHIFT
+                | (long) age << AGE_SHIFT
+                | (long) (bound.ordinal() + 1) << BOUND_SHIFT;
+        write(key, data);
+    }
+
+    /**
+     * Stores the number of nodes of a subtree, e.g. for perft. Since the count depends on the depth of the subtree, the
+     * depth is mixed into the key.
+     *
+     * @param key the Zobrist key of the root of the subtree
+     * @param depth the depth of the subtree, in the range {@code [1, 255]}
+     * @param count the number of nodes, less than {@code 2^48}
+     * @see #probeCount(long, int)
+     */
+    public void storeCount(long key, int depth, long count) {
+        if (depth < 1 || depth > MAX_DEPTH || count < 0 || count > COUNT_MASK) {
+            throw new IllegalArgumentException("cannot store a count of " + count + " at depth " + depth);
+        }
+        write(countKey(key, depth), count | (long) depth << DEPTH_SHIFT | (long) age << AGE_SHIFT);
+    }
+
+    /**
+     * Looks up the number of nodes of a subtree stored with {@link #storeCount(long, int, long)}.
+     *
+     * @param key the Zobrist key of the root of the subtree
+     * @param depth the depth of the subtree
+     * @return the number of nodes, or {@code -1} if it is not stored
+     */
+    public long probeCount(long key, int depth) {
+        long data = probe(countKey(key, depth));
+        if (data == MISS || getBound(data) != null || getDepth(data) != depth) {
+            return -1;
+        }
+        return data & COUNT_MASK;
+    }
+
+    /**
+     * Private method that mixes a depth into a key, so that the counts of one position at different depths are stored
+     * in different entries (and usually in different buckets).
+     */
+    private static long countKey(long key, int depth) {
+        return key ^ (depth * 0x9E3779B97F4A7C15L);
+    }
+
+    /**
+     * Private method that writes a data word into the bucket of a key, choosing the entry to replace.
+     */
+    private void write(long key, long data) {
+        stores.increment();
+        long base = getBucket(key);
+        int victim = 0;
+        int victimValue = Integer.MAX_VALUE;
+        for (int i = 0; i < BUCKET_SIZE; i++) {
+            long old = storage.get(base + 2 * i + 1);
+            if (old == MISS || (storage.get(base + 2 * i) ^ old) == key) {
+                // An empty entry, or the entry of the same position
+                victim = i;
+                victimValue = Integer.MIN_VALUE;
+                break;
+            }
+            int relativeAge = (age - (int) (old >>> AGE_SHIFT)) & (AGES - 1);
+            int value = getDepth(old) - 8 * relativeAge;
+            if (value < victimValue) {
+                victim = i;
+                victimValue = value;
+            }
+        }
+        if (victimValue != Integer.MIN_VALUE) {
+            collisions.increment();
+        }
+        storage.set(base + 2 * victim, key ^ data);
+        storage.set(base + 2 * victim + 1, data);
+    }
+
+    /**
+     * Private method that returns the index of the first {@code long} of the bucket of a key.
+     */
+    private long getBucket(long key) {
+        // The low bits of the key select the bucket; the whole key is verified on probing
+        return (key & bucketMask) * BUCKET_LONGS;
+    }
+
+    /**
+     * Starts a new search: entries stored from now on are younger than all entries in the table, so that the old ones
+     * are replaced first.
+     */
+    public void newSearch() {
+        age = (age + 1) & (AGES - 1);
+    }
+
+    /**
+     * Removes all entries from this table and resets the statistics. Must not be called while other threads use the
+     * table.
+     */
+    public void clear() {
+        storage.clear();
+        age = 0;
+        probes.reset();
+        hits.reset();
+        stores.reset();
+        collisions.reset();
+    }
+
+    /**
+     * @param data a data word returned by {@link #probe(long)}
+     * @return the packed best move stored in {@code data}
+     */
+    public static int getMove(long data) {
+        return (int) (data & MOVE_MASK);
+    }
+
+    /**
+     * @param data a data word returned by {@link #probe(long)}
+     * @return the score stored in {@code data}
+     */
+    public static int getScore(long data) {
+        return (short) (data >>> SCORE_SHIFT);
+    }
+
+    /**
+     * @param data a data word returned by {@link #probe(long)}
+     * @return the depth stored in {@code data}
+     */
+    public static int getDepth(long data) {
+        return (int) (data >>> DEPTH_SHIFT) & MAX_DEPTH;
+    }
+
+    /**
+     * @param data a data word returned by {@link #probe(long)}
+     * @return the bound stored in {@code data}, or {@code null} if {@code data} holds a node count
+     */
+    public static Bound getBound(long data) {
+        int bound = (int) (data >>> BOUND_SHIFT);
+        return bound == 0 ? null : BOUNDS[bound - 1];
+    }
+
+    /**
+     * @return the number of probes since the table was created or cleared
+     */
+    public long getProbes() {
+        return probes.sum();
+    }
+
+    /**
+     * @return the fraction of probes that found an entry, or {@code 0} if there were no probes
+     */
+    public double getHitRate() {
+        long total = probes.sum();
+        return total == 0 ? 0 : (double) hits.sum() / total;
+    }
+
+    /**
+     * @return the fraction of stores that replaced the entry of another position, or {@code 0} if there were no stores
+     */
+    public double getCollisionRate() {
+        long total = stores.sum();
+        return total == 0 ? 0 : (double) collisions.sum() / total;
+    }
+
+    /**
+     * Estimates how full the table is from a sample of buckets at its start.
+     *
+     * @param currentOnly {@code true} to count only the entries stored since the last call of {@link #newSearch()}
+     * @return the estimated fraction of used entries, in the range {@code [0, 1]}
+     */
+    public double getFillRate(boolean currentOnly) {
+        long buckets = Math.min(FILL_SAMPLE, bucketMask + 1);
+        long used = 0;
+        for (long bucket = 0; bucket < buckets; bucket++) {
+            for (int i = 0; i < BUCKET_SIZE; i++) {
+                long data = storage.get(bucket * BUCKET_LONGS + 2 * i + 1);
+                if (data != MISS && (!currentOnly || ((int) (data >>> AGE_SHIFT) & (AGES - 1)) == age)) {
+                    used++;
+                }
+            }
+        }
+        return (double) used / (buckets * BUCKET_SIZE);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d entries, hit rate %.1f%%, collision rate %.1f%%, fill %.1f%%", getCapacity(),
+                100 * getHitRate(), 100 * getCollisionRate(), 100 * getFillRate(false));
+    }
+
+    /**
+     * The memory holding the entries of a table, seen as an array of {@code long} values. Single values are read and
+     * written atomically, but without any ordering guarantees.
+     */
+    private interface Storage {
+        long get(long index);
+
+        void set(long index, long value);
+
+        void clear();
+    }
+
+    /**
+     * Storage in a {@code long[]} on the heap.
+     */
+    private static class HeapStorage implements Storage {
+        private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+        private final long[] array;
+
+        HeapStorage(int size) {
+            array = new long[size];
+        }
+
+        @Override
+        public long get(long index) {
+            return (long) LONGS.getOpaque(array, (int) index);
+        }
+
+        @Override
+        public void set(long index, long value) {
+            LONGS.setOpaque(array, (int) index, value);
+        }
+
+        @Override
+        public void clear() {
+            Arrays.fill(array, 0);
+        }
+    }
+
+    /**
+     * Storage in direct buffers outside the heap. A single buffer holds at most 2 GB, so the storage is split into
+     * chunks of 1 GB (buckets never cross the boundary of a chunk).
+     */
+    private static class DirectStorage implements Storage {
+        private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class,
+                ByteOrder.nativeOrder());
+        private static final int CHUNK_SHIFT = 27;
+        private static final long CHUNK_MASK = (1L << CHUNK_SHIFT) - 1;
+
+        private final ByteBuffer[] chunks;
+
+        DirectStorage(long size) {
+            int count = (int) ((size + CHUNK_MASK) >>> CHUNK_SHIFT);
+            chunks = new ByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                long longs = Math.min(size - ((long) i << CHUNK_SHIFT), 1L << CHUNK_SHIFT);
+                chunks[i] = ByteBuffer.allocateDirect((int) (longs * Long.BYTES)).order(ByteOrder.nativeOrder());
+            }
+        }
+
+        @Override
+        public long get(long index) {
+            return (long) LONGS.getOpaque(chunks[(int) (index >>> CHUNK_SHIFT)],
+                    (int) (index & CHUNK_MASK) * Long.BYTES);
+        }
+
+        @Override
+        public void set(long index, long value) {
+            LONGS.setOpaque(chunks[(int) (index >>> CHUNK_SHIFT)], (int) (index & CHUNK_MASK) * Long.BYTES, value);
+        }
+
+        @Override
+        public void clear() {
+            for (ByteBuffer chunk : chunks) {
+                for (int offset = 0; offset < chunk.capacity(); offset += Long.BYTES) {
+                    chunk.putLong(offset, 0);
+                }
+            }
+        }
+    }
+}
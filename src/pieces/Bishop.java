@@ -1,6 +1,7 @@
 package pieces;
 
 import java.util.HashSet;
+import board.Attacks;
 import board.Color;
 import utils.Pair;
 import static utils.Global.SIZE;
@@ -24,6 +25,16 @@ public class Bishop extends Piece {
         return Math.abs(dr) == Math.abs(dc);
     }
 
+    @Override
+    public PieceType getType() {
+        return PieceType.BISHOP;
+    }
+
+    @Override
+    public long getAttacks(int square, long occupied) {
+        return Attacks.bishop(square, occupied);
+    }
+
     @Override
     public HashSet<Pair> getBasicDeltas() {
         return deltas;
@@ -1,6 +1,7 @@
 package pieces;
 
 import java.util.HashSet;
+import board.Attacks;
 import board.Board.Position;
 import board.Color;
 import board.Cell;
@@ -28,6 +29,16 @@ public class King extends Piece {
         super(color);
     }
 
+    @Override
+    public PieceType getType() {
+        return PieceType.KING;
+    }
+
+    @Override
+    public long getAttacks(int square, long occupied) {
+        return Attacks.king(square);
+    }
+
     @Override
     public HashSet<Pair> getBasicDeltas() {
         return deltas;
@@ -1,6 +1,7 @@
 package pieces;
 
 import java.util.HashSet;
+import board.Attacks;
 import board.Color;
 import utils.Pair;
 
@@ -33,6 +34,16 @@ public class Knight extends Piece {
                (Math.abs(dr) == 2 && Math.abs(dc) == 1);
     }
 
+    @Override
+    public PieceType getType() {
+        return PieceType.KNIGHT;
+    }
+
+    @Override
+    public long getAttacks(int square, long occupied) {
+        return Attacks.knight(square);
+    }
+
     @Override
     public HashSet<Pair> getBasicDeltas() {
         return deltas;
@@ -1,6 +1,7 @@
 package pieces;
 
 import java.util.HashSet;
+import board.Attacks;
 import board.Board.Position;
 import board.Cell;
 import board.Color;
@@ -37,6 +38,16 @@ public class Pawn extends Piece {
         nextPromotion = (color == Color.WHITE ? 1 : SIZE - 2);
     }
 
+    @Override
+    public PieceType getType() {
+        return PieceType.PAWN;
+    }
+
+    @Override
+    public long getAttacks(int square, long occupied) {
+        return Attacks.pawn(color, square);
+    }
+
     @Override
     public HashSet<Pair> getBasicDeltas() {
         return color == Color.WHITE ? whiteDeltas : blackDeltas;
@@ -52,6 +63,23 @@ public class Pawn extends Piece {
         return dr == dir && Math.abs(dc) == 1;
     }
 
+    @Override
+    public HashSet<Move> getBasicLegalMoves(Cell initial, Position position) {
+        HashSet<Move> moves = new HashSet<>();
+        if (initial.getRow() == nextPromotion) {
+            // All moves of this pawn are promotions, which are additional moves
+            return moves;
+        }
+        for (Pair delta : getBasicDeltas()) {
+            // For each shift, check whether it is legal in the current position
+            Move move = new Move(initial, initial.shift(delta.first(), delta.second()), this);
+            if (position.isLegalMove(move)) {
+                moves.add(move);
+            }
+        }
+        return moves;
+    }
+
     /**
      * Private method that returns a list of all possible promotion moves of this pawn with a specified source and
      * destination cell, provided some initial condition is true.<br><br>
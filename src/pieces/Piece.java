@@ -2,6 +2,7 @@ package pieces;
 
 import java.util.HashSet;
 
+import board.Bitboards;
 import board.Board.Position;
 import board.Cell;
 import board.Color;
@@ -10,6 +11,26 @@ import utils.Pair;
 import figureset.FigureSetManager;
 
 public abstract class Piece {
+    /**
+     * Lazily initialized holder of the shared piece instances (pieces are immutable, so one instance per type and
+     * color combination is enough).
+     */
+    private static class Instances {
+        private static final Piece[][] PIECES = new Piece[Color.values().length][PieceType.values().length];
+
+        static {
+            for (Color color : Color.values()) {
+                Piece[] row = PIECES[color.ordinal()];
+                row[PieceType.PAWN.ordinal()] = new Pawn(color);
+                row[PieceType.KNIGHT.ordinal()] = new Knight(color);
+                row[PieceType.BISHOP.ordinal()] = new Bishop(color);
+                row[PieceType.ROOK.ordinal()] = new Rook(color);
+                row[PieceType.QUEEN.ordinal()] = new Queen(color);
+                row[PieceType.KING.ordinal()] = new King(color);
+            }
+        }
+    }
+
     protected final Color color;
 
     /**
@@ -22,6 +43,18 @@ public abstract class Piece {
         this.color = color;
     }
 
+    /**
+     * Returns the shared instance of a piece with the given type and color. Allocation-free alternative to the
+     * constructors of the descendants of {@code Piece}.
+     *
+     * @param type a {@code PieceType}
+     * @param color a {@code Color}
+     * @return a piece of type {@code type} and color {@code color}
+     */
+    public static Piece of(PieceType type, Color color) {
+        return Instances.PIECES[color.ordinal()][type.ordinal()];
+    }
+
     /**
      * @return the color of this piece
      */
@@ -29,6 +62,11 @@ public abstract class Piece {
         return color;
     }
 
+    /**
+     * @return the type of this piece
+     */
+    public abstract PieceType getType();
+
     /**
      * @return {@code true} if this is an instance of {@link Knight} (and thus is able to jump over other pieces during
      * a move), and {@code false} otherwise
@@ -71,6 +109,20 @@ public abstract class Piece {
         return validMoveDelta(dr, dc);
     }
 
+    /**
+     * Returns the set of cells attacked by this piece from a given square, i.e. the cells that this piece could capture
+     * on (if they contained an enemy piece), given the occupancy of the board. Sliding pieces are blocked by the first
+     * occupied cell in each direction.
+     *
+     * @param square the square index of this piece (see {@link Cell#getSquare()})
+     * @param occupied the bitboard of all occupied squares
+     *
+     * @return the bitboard of cells attacked by this piece
+     *
+     * @see board.Attacks Attacks
+     */
+    public abstract long getAttacks(int square, long occupied);
+
     /**
      * Returns a list of pairs representing all possible shifts of a chess piece of this type on a board with dimensions
      * {@code SIZE * SIZE}, where {@code SIZE} is global across the program. All types of moves are considered, except
@@ -105,15 +157,11 @@ public abstract class Piece {
      */
     public HashSet<Move> getBasicLegalMoves(Cell initial, Position position) {
         HashSet<Move> moves = new HashSet<>();
-        HashSet<Pair> deltas = getBasicDeltas();
-        for (Pair delta : deltas) {
-            // For each shift, check whether it is legal in the current position
-            Cell shifted = initial.shift(delta.first(), delta.second());
-            if (this instanceof Pawn && initial.getRow() == position.getRowBeforePromotion(color)) {
-                continue;
-            }
-            Move move = new Move(initial, shifted, this);
-            if (position.isLegalMove(move)) {
+        // Every piece except the pawn moves to the same cells it attacks (unless they contain pieces of its own color)
+        long targets = getAttacks(initial.getSquare(), position.getOccupancy()) & ~position.getOccupancy(color);
+        for (; targets != 0; targets = Bitboards.popLowest(targets)) {
+            Move move = new Move(initial, Cell.of(Bitboards.lowest(targets)), this);
+            if (position.isKingSafeMove(move)) {
                 moves.add(move);
             }
         }
@@ -175,15 +223,7 @@ public abstract class Piece {
      */
     @Override
     public int hashCode() {
-        int value;
-        switch(getSymbol()) {
-            case 'P' -> value = 0;
-            case 'R' -> value = 2;
-            case 'N' -> value = 4;
-            case 'B' -> value = 6;
-            case 'Q' -> value = 8;
-            default -> value = 10; // case 'K'
-        }
+        int value = getType().ordinal() * 2;
         return color == Color.WHITE ? value : value + 1;
     }
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package pieces;
+
+public enum PieceType {
+    // Order matters: ordinals are used as indices in the bitboard representation of a position
+    PAWN('P'),
+    KNIGHT('N'),
+    BISHOP('B'),
+    ROOK('R'),
+    QUEEN('Q'),
+    KING('K');
+
+    private final char letter;
+
+    PieceType(char letter) {
+        this.letter = letter;
+    }
+
+    /**
+     * @return the uppercase English letter of this type, as used in FEN
+     */
+    public char getLetter() {
+        return letter;
+    }
+
+    /**
+     * @param letter an English piece letter, in uppercase or lowercase
+     * @return the type denoted by {@code letter}
+     * @throws IllegalArgumentException if {@code letter} does not denote a piece
+     */
+    public static PieceType of(char letter) {
+        return switch (Character.toUpperCase(letter)) {
+            case 'P' -> PAWN;
+            case 'N' -> KNIGHT;
+            case 'B' -> BISHOP;
+            case 'R' -> ROOK;
+            case 'Q' -> QUEEN;
+            case 'K' -> KING;
+            default -> throw new IllegalArgumentException("unknown piece letter '" + letter + "'");
+        };
+    }
+}
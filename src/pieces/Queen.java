@@ -1,6 +1,7 @@
 package pieces;
 
 import java.util.HashSet;
+import board.Attacks;
 import board.Color;
 import utils.Pair;
 
@@ -27,6 +28,16 @@ public class Queen extends Piece {
         return Math.abs(dr) == Math.abs(dc) || dc == 0 || dr == 0;
     }
 
+    @Override
+    public PieceType getType() {
+        return PieceType.QUEEN;
+    }
+
+    @Override
+    public long getAttacks(int square, long occupied) {
+        return Attacks.queen(square, occupied);
+    }
+
     @Override
     public HashSet<Pair> getBasicDeltas() {
         return deltas;
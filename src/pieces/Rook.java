@@ -1,6 +1,7 @@
 package pieces;
 
 import java.util.HashSet;
+import board.Attacks;
 import board.Color;
 import utils.Pair;
 
@@ -25,6 +26,16 @@ public class Rook extends Piece {
         return dr == 0 || dc == 0;
     }
 
+    @Override
+    public PieceType getType() {
+        return PieceType.ROOK;
+    }
+
+    @Override
+    public long getAttacks(int square, long occupied) {
+        return Attacks.rook(square, occupied);
+    }
+
     @Override
     public HashSet<Pair> getBasicDeltas() {
         return deltas;
@@ -0,0 +1,145 @@
+package player;
+
+import board.Board.Position;
+import board.Color;
+import board.Move;
+import engine.ParallelSearch;
+import engine.Search;
+import engine.SearchLimits;
+import engine.SearchResult;
+import engine.TranspositionTable;
+
+import java.util.function.Consumer;
+
+/**
+ * A player that chooses its moves with an alpha-beta {@link Search} within a fixed budget of depth, nodes or time per
+ * move, optionally on several threads (see {@link ParallelSearch}).<br><br>
+ *
+ * The player keeps its hash table from move to move until {@link #newGame()}, and accumulates the nodes and the time
+ * of all its searches, so that the speed of the engine can be tracked over whole games.
+ */
+public class EnginePlayer implements Player {
+    public static final int DEFAULT_HASH_MEGABYTES = 64;
+
+    private final String nickname;
+    private final SearchLimits limits;
+    private final TranspositionTable table;
+    private final ParallelSearch search;
+    private Consumer<SearchResult> listener = null;
+    private SearchResult lastResult = null;
+    private long totalNodes = 0;
+    private long totalNanos = 0;
+
+    /**
+     * Initializes an {@code EnginePlayer} with a hash table of {@value #DEFAULT_HASH_MEGABYTES} MB.
+     *
+     * @param nickname the nickname of the player
+     * @param limits the budget of the search of every move
+     */
+    public EnginePlayer(String nickname, SearchLimits limits) {
+        this(nickname, limits, new TranspositionTable(DEFAULT_HASH_MEGABYTES));
+    }
+
+    /**
+     * Initializes a single-threaded {@code EnginePlayer}.
+     *
+     * @param nickname the nickname of the player
+     * @param limits the budget of the search of every move
+     * @param table the hash table of the search
+     */
+    public EnginePlayer(String nickname, SearchLimits limits, TranspositionTable table) {
+        this(nickname, limits, table, 1);
+    }
+
+    /**
+     * Initializes an {@code EnginePlayer} that searches on several threads, sharing one hash table. The helper threads
+     * are daemon threads, so they do not keep the program running, but they live until the player is closed.
+     *
+     * @param nickname the nickname of the player
+     * @param limits the budget of the search of every move
+     * @param table the hash table of the search
+     * @param threads the number of threads of every search
+     */
+    public EnginePlayer(String nickname, SearchLimits limits, TranspositionTable table, int threads) {
+        this.nickname = nickname;
+        this.limits = limits;
+        this.table = table;
+        this.search = new ParallelSearch(table, threads);
+    }
+
+    @Override
+    public String getNickname() {
+        return nickname;
+    }
+
+    /**
+     * Clears the hash table. The other heuristics of the search (killer moves and history) are already reset by every
+     * search.
+     */
+    @Override
+    public void newGame() {
+        table.clear();
+    }
+
+    /**
+     * Shuts down the helper threads of the search.
+     */
+    @Override
+    public void close() {
+        search.close();
+    }
+
+    /**
+     * Sets a listener that is called with the result of every completed iteration of every search, e.g. to print the
+     * depth, the speed and the principal variation.
+     *
+     * @param listener a {@code Consumer} of search results, or {@code null}
+     */
+    public void setListener(Consumer<SearchResult> listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Searches the position and returns the best move found within the budget of the player.
+     */
+    @Override
+    public Move makeMove(Position position, Color color) {
+        Position root = position;
+        if (position.getSideToMove() != color) {
+            root = position.clone();
+            root.setSideToMove(color);
+        }
+        lastResult = search.search(root, limits, listener);
+        totalNodes += lastResult.getNodes();
+        totalNanos += lastResult.getNanos();
+        return lastResult.getBestMove();
+    }
+
+    /**
+     * @return the result of the last search, or {@code null} if the player has not moved yet
+     */
+    public SearchResult getLastResult() {
+        return lastResult;
+    }
+
+    /**
+     * @return the number of nodes searched for all moves of this player
+     */
+    public long getTotalNodes() {
+        return totalNodes;
+    }
+
+    /**
+     * @return the number of nodes searched by every thread in the last search, the main thread first
+     */
+    public long[] getThreadNodes() {
+        return search.getThreadNodes();
+    }
+
+    /**
+     * @return the average number of nodes searched per second over all moves of this player
+     */
+    public double getNodesPerSecond() {
+        return totalNodes * 1e9 / Math.max(1, totalNanos);
+    }
+}
@@ -5,6 +5,7 @@ import board.Cell;
 import board.Board.Position;
 import board.Color;
 import board.MoveCategory;
+import board.PieceList;
 import pieces.Piece;
 
 import java.io.InputStream;
@@ -40,7 +41,7 @@ public class HumanPlayer implements Player {
 
     private void info(Position position) {
         out.println("White pieces:");
-        java.util.HashSet<Cell> pl = position.getPieceList(Color.WHITE);
+        PieceList pl = position.getPieceList(Color.WHITE);
         for (Cell cell : pl) {
             out.print("* " + cell + ": ");
             java.util.HashSet<Move> hs = position.getLegalMoves(cell);
@@ -4,7 +4,7 @@ import board.Move;
 import board.Color;
 import board.Board.Position;
 
-public interface Player {
+public interface Player extends AutoCloseable {
     /**
      * Returns a legal move to be made in a given position with pieces of a given color. Different classes may provide
      * their own logic behind choosing a candidate move.
@@ -16,4 +16,19 @@ public interface Player {
      */
     Move makeMove(final Position position, final Color color);
     String getNickname();
+
+    /**
+     * Prepares the player for a new game, forgetting what it learned in the previous ones (e.g. the hash table of an
+     * {@link EnginePlayer}), so that a game does not depend on the games played before it. Does nothing by default.
+     */
+    default void newGame() {
+    }
+
+    /**
+     * Releases the resources of the player (e.g. the helper threads of an {@link EnginePlayer}), which must not be used
+     * afterwards. Does nothing by default.
+     */
+    @Override
+    default void close() {
+    }
 }
@@ -3,14 +3,31 @@ package player;
 import board.Color;
 import board.Move;
 import board.Board.Position;
+import board.MoveList;
+import board.PackedMove;
 
-import java.util.HashSet;
+import java.util.SplittableRandom;
 
 public class RandomPlayer implements Player {
     private final String nickname;
+    private final SplittableRandom random;
+    // Reused for every move, so that choosing a move does not allocate
+    private final MoveList moves = new MoveList();
 
     public RandomPlayer(String nickname) {
+        this(nickname, new SplittableRandom());
+    }
+
+    /**
+     * Initializes a {@code RandomPlayer} that draws its moves from a given random number generator, so that its games
+     * can be reproduced. The generator is not thread-safe, so the player must not be used by several threads at once.
+     *
+     * @param nickname the nickname of the player
+     * @param random the source of randomness
+     */
+    public RandomPlayer(String nickname, SplittableRandom random) {
         this.nickname = nickname;
+        this.random = random;
     }
 
     @Override
@@ -18,12 +35,26 @@ public class RandomPlayer implements Player {
         return nickname;
     }
 
+    /**
+     * Chooses a move uniformly at random among all legal moves. Only the chosen move is converted to a {@code Move}
+     * object.
+     */
     @Override
     public Move makeMove(Position position, Color color) {
-        HashSet<Move> moves = position.getLegalMoves(color);
-        Move[] arr = new Move[moves.size()];
-        moves.toArray(arr);
-        int rand = (int)(Math.random() * arr.length);
-        return arr[rand];
+        int move = chooseMove(position, color);
+        return move == PackedMove.NONE ? null : PackedMove.toMove(move);
+    }
+
+    /**
+     * Chooses a move uniformly at random among all legal moves, in packed form. This method does not allocate.
+     *
+     * @param position the current game position
+     * @param color the color of the pieces whose move it is now
+     * @return a random legal move (see {@link PackedMove}), or {@link PackedMove#NONE} if there are no legal moves
+     */
+    public int chooseMove(Position position, Color color) {
+        moves.clear();
+        position.generateLegalMoves(color, moves);
+        return moves.isEmpty() ? PackedMove.NONE : moves.get(random.nextInt(moves.size()));
     }
-}
\ No newline at end of file
+}
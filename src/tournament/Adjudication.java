@@ -0,0 +1,62 @@
+package tournament;
+
+/**
+ * The rules by which a {@link Tournament} ends games that the players do not finish themselves: a draw when the game
+ * reaches a maximal length, and a win for a player that keeps a decisive material advantage for several consecutive
+ * half-moves. The material is that maintained by {@code Position} (see {@link board.PieceSquareTables}).
+ */
+public class Adjudication {
+    public static final Adjudication DEFAULT = new Adjudication(400, 1000, 10);
+    public static final Adjudication NONE = new Adjudication(0, 0, 0);
+
+    private final int maxPlies;
+    private final int materialMargin;
+    private final int materialPlies;
+
+    /**
+     * @param maxPlies the number of half-moves after the opening at which the game is drawn, or {@code 0} for no limit
+     * @param materialMargin the material advantage in centipawns that decides the game, or {@code 0} to never
+     *                       adjudicate a win
+     * @param materialPlies the number of consecutive half-moves during which the advantage must last
+     * @throws IllegalArgumentException if a parameter is negative, or if {@code materialMargin} is positive and {@code
+     * materialPlies} is not
+     */
+    public Adjudication(int maxPlies, int materialMargin, int materialPlies) {
+        if (maxPlies < 0 || materialMargin < 0 || materialPlies < 0) {
+            throw new IllegalArgumentException("adjudication parameters must not be negative");
+        }
+        if (materialMargin > 0 && materialPlies == 0) {
+            throw new IllegalArgumentException("a material advantage must last at least one half-move");
+        }
+        this.maxPlies = maxPlies;
+        this.materialMargin = materialMargin;
+        this.materialPlies = materialPlies;
+    }
+
+    /**
+     * @return the number of half-moves after the opening at which the game is drawn, or {@code 0} for no limit
+     */
+    public int getMaxPlies() {
+        return maxPlies;
+    }
+
+    /**
+     * @return the material advantage in centipawns that decides the game, or {@code 0} if wins are not adjudicated
+     */
+    public int getMaterialMargin() {
+        return materialMargin;
+    }
+
+    /**
+     * @return the number of consecutive half-moves during which the material advantage must last
+     */
+    public int getMaterialPlies() {
+        return materialPlies;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Adjudication(maxPlies %d, materialMargin %d, materialPlies %d)", maxPlies,
+                materialMargin, materialPlies);
+    }
+}
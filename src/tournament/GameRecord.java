@@ -0,0 +1,129 @@
+package tournament;
+
+import utils.Status;
+
+/**
+ * The record of a finished game of a {@link Tournament}, as written to its results file: one line of tab-separated
+ * fields with the index of the game in the schedule, the names of the players, the index of the opening, the result,
+ * the reason why the game ended and its number of half-moves after the opening.
+ */
+public class GameRecord {
+    private static final String SEPARATOR = "\t";
+
+    private final int id;
+    private final String white;
+    private final String black;
+    private final int opening;
+    private final Status result;
+    private final String reason;
+    private final int plies;
+
+    /**
+     * @param id the index of the game in the schedule of the tournament
+     * @param white the name of the white participant
+     * @param black the name of the black participant
+     * @param opening the index of the opening in the opening list
+     * @param result the result of the game
+     * @param reason why the game ended, e.g. {@code checkmate}
+     * @param plies the number of half-moves played after the opening
+     * @throws IllegalArgumentException if {@code result} is {@link Status#UNFINISHED}
+     */
+    public GameRecord(int id, String white, String black, int opening, Status result, String reason, int plies) {
+        if (result == Status.UNFINISHED) {
+            throw new IllegalArgumentException("a game record must have a result");
+        }
+        this.id = id;
+        this.white = white;
+        this.black = black;
+        this.opening = opening;
+        this.result = result;
+        // The reason must fit in a single field of a single line
+        this.reason = reason.replaceAll("[\\t\\r\\n]+", " ");
+        this.plies = plies;
+    }
+
+    /**
+     * Parses a line of a results file.
+     *
+     * @param line a line written by {@link #toLine()}
+     * @return the record of the line
+     * @throws IllegalArgumentException if the line is malformed, e.g. because it was cut short by a crash
+     */
+    public static GameRecord parse(String line) {
+        String[] fields = line.split(SEPARATOR, -1);
+        if (fields.length != 7) {
+            throw new IllegalArgumentException("malformed game record: " + line);
+        }
+        Status result = switch (fields[4]) {
+            case "1-0" -> Status.WHITE_WON;
+            case "0-1" -> Status.BLACK_WON;
+            case "1/2-1/2" -> Status.DRAW;
+            default -> throw new IllegalArgumentException("malformed game result: " + fields[4]);
+        };
+        try {
+            return new GameRecord(Integer.parseInt(fields[0]), fields[1], fields[2], Integer.parseInt(fields[3]),
+                    result, fields[5], Integer.parseInt(fields[6]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("malformed game record: " + line, e);
+        }
+    }
+
+    /**
+     * @return the line of this record in a results file, without a line terminator
+     */
+    public String toLine() {
+        return String.join(SEPARATOR, Integer.toString(id), white, black, Integer.toString(opening), getResultString(),
+                reason, Integer.toString(plies));
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getWhite() {
+        return white;
+    }
+
+    public String getBlack() {
+        return black;
+    }
+
+    public int getOpening() {
+        return opening;
+    }
+
+    public Status getResult() {
+        return result;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public int getPlies() {
+        return plies;
+    }
+
+    /**
+     * @return the result in PGN notation: {@code 1-0}, {@code 0-1} or {@code 1/2-1/2}
+     */
+    public String getResultString() {
+        return result == Status.WHITE_WON ? "1-0" : result == Status.BLACK_WON ? "0-1" : "1/2-1/2";
+    }
+
+    /**
+     * @param name the name of a participant of the game
+     * @return the points won by the participant: {@code 1}, {@code 0.5} or {@code 0}
+     */
+    public double getPoints(String name) {
+        if (result == Status.DRAW) {
+            return 0.5;
+        }
+        return (result == Status.WHITE_WON) == name.equals(white) ? 1 : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("#%d %s - %s %s (%s, %d plies)", id, white, black, getResultString(), reason, plies);
+    }
+}
@@ -0,0 +1,146 @@
+package tournament;
+
+/**
+ * The results of the games between two participants of a {@link Tournament}, from the point of view of the first one,
+ * with the Elo difference they imply.<br><br>
+ *
+ * The Elo difference is computed from the score {@code s} (the proportion of points won by the first participant) as
+ * {@code -400 * log10(1 / s - 1)}, and its error bars from the 95% confidence interval of the score, whose variance is
+ * estimated from the observed distribution of wins, draws and losses.
+ */
+public class MatchStatistics {
+    private static final double Z_95 = 1.96;
+
+    private final String first;
+    private final String second;
+    private int wins = 0;
+    private int draws = 0;
+    private int losses = 0;
+
+    /**
+     * @param first the name of the first participant
+     * @param second the name of the second participant
+     */
+    public MatchStatistics(String first, String second) {
+        this.first = first;
+        this.second = second;
+    }
+
+    /**
+     * Package-private method that adds the result of a game.
+     *
+     * @param points the points won by the first participant: {@code 1}, {@code 0.5} or {@code 0}
+     */
+    void addGame(double points) {
+        if (points == 1) {
+            wins++;
+        } else if (points == 0) {
+            losses++;
+        } else {
+            draws++;
+        }
+    }
+
+    /**
+     * @return a copy of these statistics
+     */
+    public MatchStatistics copy() {
+        MatchStatistics copy = new MatchStatistics(first, second);
+        copy.wins = wins;
+        copy.draws = draws;
+        copy.losses = losses;
+        return copy;
+    }
+
+    public String getFirst() {
+        return first;
+    }
+
+    public String getSecond() {
+        return second;
+    }
+
+    public int getWins() {
+        return wins;
+    }
+
+    public int getDraws() {
+        return draws;
+    }
+
+    public int getLosses() {
+        return losses;
+    }
+
+    public int getGames() {
+        return wins + draws + losses;
+    }
+
+    /**
+     * @return the proportion of points won by the first participant, or {@code 0.5} if no game was played
+     */
+    public double getScore() {
+        int games = getGames();
+        return games == 0 ? 0.5 : (wins + draws / 2.0) / games;
+    }
+
+    /**
+     * @return the variance of the points won by the first participant in one game
+     */
+    public double getVariance() {
+        int games = getGames();
+        if (games == 0) {
+            return 0;
+        }
+        double s = getScore();
+        return (wins * (1 - s) * (1 - s) + draws * (0.5 - s) * (0.5 - s) + losses * s * s) / games;
+    }
+
+    /**
+     * @return the Elo difference between the first and the second participant, infinite if one of them scored all
+     * points
+     */
+    public double getElo() {
+        return toElo(getScore());
+    }
+
+    /**
+     * @return the half-width of the 95% confidence interval of the Elo difference, infinite if it cannot be estimated
+     * yet
+     */
+    public double getEloMargin() {
+        int games = getGames();
+        double s = getScore();
+        double margin = Z_95 * Math.sqrt(getVariance() / games);
+        if (games == 0 || margin == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return (toElo(Math.min(1, s + margin)) - toElo(Math.max(0, s - margin))) / 2;
+    }
+
+    /**
+     * Converts a score to an Elo difference with the logistic model.
+     *
+     * @param score an expected score between {@code 0} and {@code 1}
+     * @return the Elo difference that gives the expected score {@code score}
+     */
+    public static double toElo(double score) {
+        return -400 * Math.log10(1 / score - 1);
+    }
+
+    /**
+     * Converts an Elo difference to an expected score with the logistic model.
+     *
+     * @param elo an Elo difference
+     * @return the expected score of a player that is {@code elo} points stronger than its opponent
+     */
+    public static double toScore(double elo) {
+        return 1 / (1 + Math.pow(10, -elo / 400));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s vs %s: +%d =%d -%d (%.1f%%), Elo %+.1f +/- %.1f", first, second, wins, draws, losses,
+                100 * getScore(), getElo(), getEloMargin());
+    }
+}
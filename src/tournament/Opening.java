@@ -0,0 +1,157 @@
+package tournament;
+
+import board.Board;
+import board.Board.Position;
+import board.Cell;
+import board.MoveList;
+import board.PackedMove;
+import pieces.PieceType;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A starting position of tournament games, given by a sequence of moves from the initial position in coordinate
+ * notation: the start and target cells, followed by the letter of the promotion piece if any (e.g. {@code e2e4},
+ * {@code e1g1} for white short castling, {@code e7e8q}).<br><br>
+ *
+ * Opening lists are text files with one opening per line, optionally preceded by a name and a colon, e.g. {@code
+ * Italian: e2e4 e7e5 g1f3 b8c6 f1c4 f8c5}. Blank lines and lines starting with {@code #} are ignored.
+ */
+public class Opening {
+    private static final List<Opening> DEFAULTS = Collections.unmodifiableList(Arrays.asList(
+            new Opening("Ruy Lopez", "e2e4 e7e5 g1f3 b8c6 f1b5 a7a6"),
+            new Opening("Italian", "e2e4 e7e5 g1f3 b8c6 f1c4 f8c5"),
+            new Opening("Scotch", "e2e4 e7e5 g1f3 b8c6 d2d4 e5d4 f3d4"),
+            new Opening("Sicilian Najdorf", "e2e4 c7c5 g1f3 d7d6 d2d4 c5d4 f3d4 g8f6 b1c3 a7a6"),
+            new Opening("French", "e2e4 e7e6 d2d4 d7d5 b1c3 g8f6"),
+            new Opening("Caro-Kann", "e2e4 c7c6 d2d4 d7d5 b1c3 d5e4 c3e4"),
+            new Opening("Scandinavian", "e2e4 d7d5 e4d5 d8d5 b1c3 d5a5"),
+            new Opening("Pirc", "e2e4 d7d6 d2d4 g8f6 b1c3 g7g6"),
+            new Opening("Queen's Gambit Declined", "d2d4 d7d5 c2c4 e7e6 b1c3 g8f6"),
+            new Opening("Slav", "d2d4 d7d5 c2c4 c7c6 g1f3 g8f6"),
+            new Opening("London", "d2d4 d7d5 g1f3 g8f6 c1f4 e7e6"),
+            new Opening("King's Indian", "d2d4 g8f6 c2c4 g7g6 b1c3 f8g7 e2e4 d7d6"),
+            new Opening("Nimzo-Indian", "d2d4 g8f6 c2c4 e7e6 b1c3 f8b4"),
+            new Opening("Dutch", "d2d4 f7f5 g2g3 g8f6 f1g2 e7e6"),
+            new Opening("English", "c2c4 e7e5 b1c3 g8f6 g2g3"),
+            new Opening("Reti", "g1f3 d7d5 c2c4 e7e6")
+    ));
+
+    private final String name;
+    private final List<String> moves;
+
+    /**
+     * @param name the name of the opening
+     * @param moves the moves of the opening in coordinate notation, separated by whitespace
+     * @throws IllegalArgumentException if a move is malformed or illegal
+     */
+    public Opening(String name, String moves) {
+        this.name = name;
+        String trimmed = moves.trim();
+        this.moves = trimmed.isEmpty() ? Collections.emptyList() : Arrays.asList(trimmed.split("\\s+"));
+        // Play the moves once, so that an invalid opening is reported when it is created
+        createBoard();
+    }
+
+    /**
+     * @return a list of common openings, from which both players usually have a playable game
+     */
+    public static List<Opening> getDefaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * Parses an opening list in the format described above.
+     *
+     * @param lines the lines of an opening list
+     * @return the openings in the order of the lines
+     * @throws IllegalArgumentException if an opening is invalid
+     */
+    public static List<Opening> parse(List<String> lines) {
+        List<Opening> openings = new ArrayList<>();
+        for (String line : lines) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            int colon = trimmed.indexOf(':');
+            String moves = trimmed.substring(colon + 1).trim();
+            openings.add(new Opening(colon < 0 ? moves : trimmed.substring(0, colon).trim(), moves));
+        }
+        return openings;
+    }
+
+    /**
+     * Reads an opening list from a file (see {@link #parse(List)}).
+     *
+     * @param path the path of the file
+     * @return the openings of the file
+     * @throws IOException if the file cannot be read
+     */
+    public static List<Opening> load(Path path) throws IOException {
+        return parse(Files.readAllLines(path));
+    }
+
+    /**
+     * @return the name of the opening
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the moves of the opening in coordinate notation
+     */
+    public List<String> getMoves() {
+        return Collections.unmodifiableList(moves);
+    }
+
+    /**
+     * Creates a board with the initial position, on which the moves of the opening were made.
+     *
+     * @return a new {@code Board}
+     * @throws IllegalArgumentException if a move of the opening is malformed or illegal
+     */
+    public Board createBoard() {
+        Board board = new Board(new Position());
+        MoveList legal = new MoveList();
+        for (String move : moves) {
+            board.makeMove(find(board.getPosition(), move, legal));
+        }
+        return board;
+    }
+
+    /**
+     * Private method that finds the legal move of the side to move that is written {@code text} in coordinate
+     * notation.
+     */
+    private int find(Position position, String text, MoveList legal) {
+        if (text.length() != 4 && text.length() != 5) {
+            throw new IllegalArgumentException("malformed move '" + text + "' in opening " + name);
+        }
+        int from = new Cell(text.substring(0, 2)).getSquare();
+        int to = new Cell(text.substring(2, 4)).getSquare();
+        PieceType promotion = text.length() == 5 ? PieceType.of(text.charAt(4)) : null;
+        legal.clear();
+        position.generateLegalMoves(position.getSideToMove(), legal);
+        for (int i = 0; i < legal.size(); i++) {
+            int move = legal.get(i);
+            if (PackedMove.from(move) == from && PackedMove.to(move) == to
+                    && PackedMove.getPromotionType(PackedMove.category(move)) == promotion) {
+                return move;
+            }
+        }
+        throw new IllegalArgumentException("illegal move '" + text + "' in opening " + name);
+    }
+
+    @Override
+    public String toString() {
+        return name + ": " + String.join(" ", moves);
+    }
+}
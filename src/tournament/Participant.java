@@ -0,0 +1,49 @@
+package tournament;
+
+import player.Player;
+
+import java.util.function.Supplier;
+
+/**
+ * A participant of a {@link Tournament}: a name and a factory of players.<br><br>
+ *
+ * Players may keep state between moves (e.g. the hash table of an {@link player.EnginePlayer}) and are generally not
+ * thread-safe, so a tournament creates one player per participant and per thread, and every player plays one game at
+ * a time. The state of a previous game is cleared by {@link Player#newGame()}.
+ */
+public class Participant {
+    private final String name;
+    private final Supplier<? extends Player> factory;
+
+    /**
+     * @param name the name of the participant, which identifies it in the results file
+     * @param factory creates a new player for the participant every time it is called
+     * @throws IllegalArgumentException if {@code name} is empty or contains a tab or a line break
+     */
+    public Participant(String name, Supplier<? extends Player> factory) {
+        if (name.isEmpty() || name.matches(".*[\\t\\r\\n].*")) {
+            throw new IllegalArgumentException("invalid participant name: '" + name + "'");
+        }
+        this.name = name;
+        this.factory = factory;
+    }
+
+    /**
+     * @return the name of the participant
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return a new player for this participant
+     */
+    public Player createPlayer() {
+        return factory.get();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
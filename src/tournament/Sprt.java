@@ -0,0 +1,114 @@
+package tournament;
+
+/**
+ * A sequential probability ratio test, which stops a match as soon as the results decide between two hypotheses about
+ * the Elo difference of the participants: {@code H0} (the difference is {@code elo0}) and {@code H1} (it is {@code
+ * elo1}), with bounded probabilities of false positives ({@code alpha}) and false negatives ({@code beta}).<br><br>
+ *
+ * The log-likelihood ratio of the results is computed with the normal approximation of the distribution of the score
+ * (the "generalized" SPRT): {@code LLR = n * (s1 - s0) * (2 * s - s0 - s1) / (2 * var)}, where {@code s} and {@code
+ * var} are the mean and the variance of the points per game, and {@code s0} and {@code s1} the expected scores under
+ * the two hypotheses. The variance is estimated with one extra win, draw and loss, so that a match whose games all
+ * ended alike (e.g. a much stronger participant winning every game) is decided as well. {@code H1} is accepted when
+ * the ratio reaches {@code log((1 - beta) / alpha)}, and {@code H0} when it drops to {@code log(beta / (1 - alpha))}.
+ */
+public class Sprt {
+    private final double elo0;
+    private final double elo1;
+    private final double lowerBound;
+    private final double upperBound;
+
+    /**
+     * @param elo0 the Elo difference of the null hypothesis
+     * @param elo1 the Elo difference of the alternative hypothesis, greater than {@code elo0}
+     * @param alpha the probability of accepting {@code H1} when {@code H0} holds
+     * @param beta the probability of accepting {@code H0} when {@code H1} holds
+     * @throws IllegalArgumentException if {@code elo1 <= elo0}, or a probability is not between {@code 0} and {@code
+     * 1}
+     */
+    public Sprt(double elo0, double elo1, double alpha, double beta) {
+        if (elo1 <= elo0) {
+            throw new IllegalArgumentException("elo1 must be greater than elo0");
+        }
+        if (alpha <= 0 || alpha >= 1 || beta <= 0 || beta >= 1) {
+            throw new IllegalArgumentException("alpha and beta must be between 0 and 1");
+        }
+        this.elo0 = elo0;
+        this.elo1 = elo1;
+        this.lowerBound = Math.log(beta / (1 - alpha));
+        this.upperBound = Math.log((1 - beta) / alpha);
+    }
+
+    /**
+     * Computes the log-likelihood ratio of the results of a match.
+     *
+     * @param statistics the results of a match
+     * @return the log-likelihood ratio of {@code H1} against {@code H0}, or {@code 0} if no game was played
+     */
+    public double getLogLikelihoodRatio(MatchStatistics statistics) {
+        double variance = getRegularizedVariance(statistics);
+        double s0 = MatchStatistics.toScore(elo0);
+        double s1 = MatchStatistics.toScore(elo1);
+        return statistics.getGames() * (s1 - s0) * (2 * statistics.getScore() - s0 - s1) / (2 * variance);
+    }
+
+    /**
+     * Private method that estimates the variance of the points per game from the results and one extra game of every
+     * outcome.
+     */
+    private static double getRegularizedVariance(MatchStatistics statistics) {
+        double wins = statistics.getWins() + 1;
+        double draws = statistics.getDraws() + 1;
+        double losses = statistics.getLosses() + 1;
+        double games = wins + draws + losses;
+        double s = (wins + draws / 2) / games;
+        return (wins * (1 - s) * (1 - s) + draws * (0.5 - s) * (0.5 - s) + losses * s * s) / games;
+    }
+
+    /**
+     * @param statistics the results of a match
+     * @return whether the alternative hypothesis is accepted
+     */
+    public boolean acceptsH1(MatchStatistics statistics) {
+        return getLogLikelihoodRatio(statistics) >= upperBound;
+    }
+
+    /**
+     * @param statistics the results of a match
+     * @return whether the null hypothesis is accepted
+     */
+    public boolean acceptsH0(MatchStatistics statistics) {
+        return getLogLikelihoodRatio(statistics) <= lowerBound;
+    }
+
+    /**
+     * @param statistics the results of a match
+     * @return whether the match is decided, i.e. one of the hypotheses is accepted
+     */
+    public boolean isDecided(MatchStatistics statistics) {
+        return acceptsH0(statistics) || acceptsH1(statistics);
+    }
+
+    public double getLowerBound() {
+        return lowerBound;
+    }
+
+    public double getUpperBound() {
+        return upperBound;
+    }
+
+    /**
+     * @param statistics the results of a match
+     * @return the log-likelihood ratio, the bounds and the decision, if any
+     */
+    public String describe(MatchStatistics statistics) {
+        String decision = acceptsH1(statistics) ? " H1 accepted" : acceptsH0(statistics) ? " H0 accepted" : "";
+        return String.format("LLR %.2f [%.2f, %.2f]%s", getLogLikelihoodRatio(statistics), lowerBound, upperBound,
+                decision);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SPRT(elo0 %.1f, elo1 %.1f)", elo0, elo1);
+    }
+}
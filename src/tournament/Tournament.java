@@ -0,0 +1,348 @@
+package tournament;
+
+import board.Board;
+import board.Board.Position;
+import board.Color;
+import board.Game;
+import engine.SearchLimits;
+import engine.TranspositionTable;
+import player.EnginePlayer;
+import player.Player;
+import player.RandomPlayer;
+import utils.Status;
+import utils.Termination;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * Plays matches between participants on several threads: either a round-robin, where every participant meets every
+ * other one, or a gauntlet, where the first participant meets every other one.<br><br>
+ *
+ * Every match consists of pairs of games from the same opening with swapped colors, the openings being taken in turn
+ * from an opening list. The games of all matches are interleaved in a fixed schedule, and every game has its index in
+ * the schedule, and the players are reset with {@link Player#newGame()} before every game, so a tournament of
+ * deterministic players always plays the same games whatever the number of threads. Games that the players do not
+ * finish are ended by an {@link Adjudication}, and a player that throws an exception, returns no move or an illegal
+ * move loses the game. With an {@link Sprt}, the remaining games of a match are skipped as soon as the test decides
+ * it.<br><br>
+ *
+ * Every finished game is appended to a results file (see {@link GameRecord}) and flushed, so that a long tournament
+ * interrupted by a crash resumes where it stopped: when the tournament is run again with the same results file, the
+ * games found in the file are counted and not played again.
+ */
+public class Tournament {
+    private final List<Participant> participants;
+    // The indices of the first and the second participant of every match
+    private final int[][] matches;
+    private final List<Opening> openings;
+    private final int gamePairs;
+    private final Adjudication adjudication;
+    private final Sprt sprt;
+    private final int threads;
+
+    /**
+     * @param participants the participants, with distinct names
+     * @param gauntlet {@code true} for a gauntlet of the first participant, or {@code false} for a round-robin
+     * @param openings the starting positions of the games
+     * @param gamePairs the number of pairs of games of every match
+     * @param adjudication the rules to end unfinished games
+     * @param sprt the test that stops a match once it is decided, or {@code null} to play all games
+     * @param threads the number of games played at the same time
+     * @throws IllegalArgumentException if there are fewer than two participants, names are not distinct, there are no
+     * openings, or a number is not positive
+     */
+    public Tournament(List<Participant> participants, boolean gauntlet, List<Opening> openings, int gamePairs,
+                      Adjudication adjudication, Sprt sprt, int threads) {
+        if (participants.size() < 2) {
+            throw new IllegalArgumentException("a tournament needs at least two participants");
+        }
+        if (participants.stream().map(Participant::getName).distinct().count() != participants.size()) {
+            throw new IllegalArgumentException("participant names must be distinct");
+        }
+        if (openings.isEmpty()) {
+            throw new IllegalArgumentException("a tournament needs at least one opening");
+        }
+        if (gamePairs < 1 || threads < 1) {
+            throw new IllegalArgumentException("number of game pairs and threads must be positive");
+        }
+        this.participants = new ArrayList<>(participants);
+        List<int[]> pairs = new ArrayList<>();
+        for (int first = 0; first < participants.size(); first++) {
+            for (int second = first + 1; second < participants.size(); second++) {
+                if (!gauntlet || first == 0) {
+                    pairs.add(new int[]{first, second});
+                }
+            }
+        }
+        this.matches = pairs.toArray(new int[0][]);
+        this.openings = new ArrayList<>(openings);
+        this.gamePairs = gamePairs;
+        this.adjudication = adjudication;
+        this.sprt = sprt;
+        this.threads = threads;
+    }
+
+    /**
+     * @return the total number of games of the tournament, if no match is stopped early
+     */
+    public int getGameCount() {
+        return matches.length * 2 * gamePairs;
+    }
+
+    /**
+     * Plays all games of the tournament that are not in the results file yet.
+     *
+     * @param resultsFile the file to which the results are appended, or {@code null}; if it exists, its games are
+     *                    counted and not played again
+     * @param progress called with every finished game and the statistics of its match, or {@code null}
+     * @return the statistics of every match
+     * @throws IOException if the results file cannot be read or written
+     * @throws IllegalStateException if the results file does not belong to this tournament, or a game failed
+     */
+    public List<MatchStatistics> run(Path resultsFile, BiConsumer<GameRecord, MatchStatistics> progress)
+            throws IOException {
+        List<MatchStatistics> statistics = new ArrayList<>();
+        for (int[] match : matches) {
+            statistics.add(new MatchStatistics(participants.get(match[0]).getName(),
+                    participants.get(match[1]).getName()));
+        }
+        boolean[] finished = new boolean[getGameCount()];
+        BufferedWriter writer = null;
+        if (resultsFile != null) {
+            if (Files.exists(resultsFile)) {
+                resume(resultsFile, statistics, finished);
+            }
+            writer = Files.newBufferedWriter(resultsFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND);
+        }
+        BufferedWriter results = writer;
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                workers.add(executor.submit(() -> {
+                    // Every thread has its own players, which play one game at a time and are closed when the thread
+                    // ends
+                    Player[] players = new Player[participants.size()];
+                    try {
+                        for (int id = next.getAndIncrement(); id < finished.length; id = next.getAndIncrement()) {
+                            MatchStatistics match = statistics.get(id % matches.length);
+                            synchronized (statistics) {
+                                if (finished[id] || (sprt != null && sprt.isDecided(match))) {
+                                    continue;
+                                }
+                            }
+                            GameRecord record = play(id, players);
+                            synchronized (statistics) {
+                                match.addGame(record.getPoints(match.getFirst()));
+                                if (results != null) {
+                                    try {
+                                        results.write(record.toLine());
+                                        results.newLine();
+                                        results.flush();
+                                    } catch (IOException e) {
+                                        throw new UncheckedIOException(e);
+                                    }
+                                }
+                                if (progress != null) {
+                                    progress.accept(record, match.copy());
+                                }
+                            }
+                        }
+                    } finally {
+                        for (Player player : players) {
+                            if (player != null) {
+                                player.close();
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw new IllegalStateException("a tournament game failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+            if (results != null) {
+                results.close();
+            }
+        }
+        List<MatchStatistics> copies = new ArrayList<>();
+        for (MatchStatistics match : statistics) {
+            copies.add(match.copy());
+        }
+        return copies;
+    }
+
+    /**
+     * Private method that counts the games of an existing results file. A malformed line (e.g. the last line of a file
+     * written when the program crashed) and the lines after it are dropped from the file, and their games are played
+     * again.
+     */
+    private void resume(Path resultsFile, List<MatchStatistics> statistics, boolean[] finished) throws IOException {
+        List<String> valid = new ArrayList<>();
+        for (String line : Files.readAllLines(resultsFile, StandardCharsets.UTF_8)) {
+            GameRecord record;
+            try {
+                record = GameRecord.parse(line);
+            } catch (IllegalArgumentException e) {
+                break;
+            }
+            int id = record.getId();
+            if (id < 0 || id >= finished.length || !record.getWhite().equals(getWhite(id).getName())
+                    || !record.getBlack().equals(getBlack(id).getName()) || finished[id]) {
+                throw new IllegalStateException("results file " + resultsFile + " does not match the tournament: "
+                        + line);
+            }
+            finished[id] = true;
+            MatchStatistics match = statistics.get(id % matches.length);
+            match.addGame(record.getPoints(match.getFirst()));
+            valid.add(line);
+        }
+        Path temporary = resultsFile.resolveSibling(resultsFile.getFileName() + ".tmp");
+        Files.write(temporary, valid, StandardCharsets.UTF_8);
+        Files.move(temporary, resultsFile, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Private method that returns the white participant of the game with a given index in the schedule. The games of
+     * the matches are interleaved, and within a match the first participant is white in even games.
+     */
+    private Participant getWhite(int id) {
+        int[] match = matches[id % matches.length];
+        return participants.get(match[(id / matches.length) % 2]);
+    }
+
+    /**
+     * Private method that returns the black participant of the game with a given index in the schedule.
+     */
+    private Participant getBlack(int id) {
+        int[] match = matches[id % matches.length];
+        return participants.get(match[1 - (id / matches.length) % 2]);
+    }
+
+    /**
+     * Private method that plays the game with a given index in the schedule, creating the players of the thread when
+     * they are first needed and resetting them for the new game.
+     */
+    private GameRecord play(int id, Player[] players) {
+        int opening = (id / matches.length / 2) % openings.size();
+        int white = participants.indexOf(getWhite(id));
+        int black = participants.indexOf(getBlack(id));
+        for (int index : new int[]{white, black}) {
+            if (players[index] == null) {
+                players[index] = participants.get(index).createPlayer();
+            }
+            players[index].newGame();
+        }
+        Board board = openings.get(opening).createBoard();
+        Position position = board.getPosition();
+        Game game = new Game(board, players[white], players[black]);
+        String reason = null;
+        int plies = 0;
+        // Number of consecutive half-moves with a decisive material advantage, positive for white
+        int advantage = 0;
+        while (reason == null) {
+            Color mover = game.getCurrentTurn();
+            Status result;
+            try {
+                result = game.nextHalfMove();
+            } catch (RuntimeException e) {
+                game.adjudicate(mover == Color.WHITE ? Status.BLACK_WON : Status.WHITE_WON);
+                reason = "error: " + e;
+                break;
+            }
+            plies++;
+            if (result != Status.UNFINISHED) {
+                Termination termination = game.getTermination();
+                reason = termination == null ? "illegal move" : describe(termination);
+            } else {
+                int balance = position.getMaterial(Color.WHITE) - position.getMaterial(Color.BLACK);
+                int margin = adjudication.getMaterialMargin();
+                if (margin > 0 && balance >= margin) {
+                    advantage = Math.max(advantage, 0) + 1;
+                } else if (margin > 0 && balance <= -margin) {
+                    advantage = Math.min(advantage, 0) - 1;
+                } else {
+                    advantage = 0;
+                }
+                if (margin > 0 && Math.abs(advantage) >= adjudication.getMaterialPlies()) {
+                    game.adjudicate(advantage > 0 ? Status.WHITE_WON : Status.BLACK_WON);
+                    reason = "adjudication: material";
+                } else if (plies == adjudication.getMaxPlies()) {
+                    game.adjudicate(Status.DRAW);
+                    reason = "adjudication: move limit";
+                }
+            }
+        }
+        return new GameRecord(id, participants.get(white).getName(), participants.get(black).getName(), opening,
+                game.getResult(), reason, plies);
+    }
+
+    /**
+     * Private method that returns the reason recorded for a game that ended by a rule of chess.
+     */
+    private static String describe(Termination termination) {
+        return switch (termination) {
+            case CHECKMATE -> "checkmate";
+            case STALEMATE -> "stalemate";
+            case FIFTY_MOVE_RULE -> "50-move rule";
+            case THREEFOLD_REPETITION -> "threefold repetition";
+            case INSUFFICIENT_MATERIAL -> "insufficient material";
+        };
+    }
+
+    /**
+     * Usage: {@code Tournament [gamePairs [threads [resultsFile [openingsFile]]]]}. Plays a round-robin between a
+     * random player and engines searching to depths 1 to 3, with SPRT(0, 100) stopping every match, and prints every
+     * game with the standings of its match. Running again with the same results file resumes the tournament.
+     */
+    public static void main(String[] args) throws IOException {
+        int gamePairs = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        Path resultsFile = args.length > 2 ? Paths.get(args[2]) : null;
+        List<Opening> openings = args.length > 3 ? Opening.load(Paths.get(args[3])) : Opening.getDefaults();
+        List<Participant> participants = new ArrayList<>(Arrays.asList(
+                new Participant("random", () -> new RandomPlayer("random"))));
+        for (int depth = 1; depth <= 3; depth++) {
+            String name = "depth" + depth;
+            SearchLimits limits = SearchLimits.depth(depth);
+            participants.add(new Participant(name, () -> new EnginePlayer(name, limits, new TranspositionTable(1))));
+        }
+        Sprt sprt = new Sprt(0, 100, 0.05, 0.05);
+        Tournament tournament = new Tournament(participants, false, openings, gamePairs, Adjudication.DEFAULT, sprt,
+                threads);
+        List<MatchStatistics> statistics = tournament.run(resultsFile, (record, match) ->
+                System.out.printf("%s%n    %s, %s%n", record, match, sprt.describe(match)));
+        System.out.println("Final standings:");
+        for (MatchStatistics match : statistics) {
+            System.out.printf("  %s, %s%n", match, sprt.describe(match));
+        }
+    }
+}
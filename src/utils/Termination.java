@@ -0,0 +1,14 @@
+package utils;
+
+/**
+ * The reason why a game ended.
+ */
+public enum Termination {
+    CHECKMATE,
+    STALEMATE,
+    FIFTY_MOVE_RULE,
+    // The same position occurred for the third time, with the same side to move, castling rights and en passant state
+    THREEFOLD_REPETITION,
+    // Neither side has enough material left to checkmate
+    INSUFFICIENT_MATERIAL
+}